@@ -7,6 +7,7 @@ plugins {
     `java-library`
     alias(libs.plugins.spotless)
     alias(libs.plugins.mavenPublish)
+    alias(libs.plugins.jmh)
 }
 
 repositories {
@@ -35,6 +36,10 @@ dependencies {
     // Test annotation processing
     testCompileOnly(libs.avaje.jsonb.generator)
     testAnnotationProcessor(libs.avaje.jsonb.generator)
+
+    // Benchmark annotation processing
+    jmhCompileOnly(libs.avaje.jsonb.generator)
+    jmhAnnotationProcessor(libs.avaje.jsonb.generator)
 }
 
 java {
@@ -51,6 +56,44 @@ tasks.test {
     useJUnitPlatform()
 }
 
+// JMH benchmarks: ./gradlew jmh (narrow with -Pjmh.includes=<regex>)
+jmh {
+    jmhVersion = libs.versions.jmh.get()
+    includeTests = false
+    profilers = listOf("gc")
+    resultFormat = "JSON"
+    providers.gradleProperty("jmh.includes").orNull?.let { includes = listOf(it) }
+}
+
+// The main and jmh source sets each generate a Jsonb service file, and the fat
+// benchmark jar would otherwise keep only one of them
+val jsonbServiceFile = "META-INF/services/io.avaje.jsonb.spi.JsonbExtension"
+val jmhServicesDir = layout.buildDirectory.dir("jmh-services")
+val mergeJmhServices by tasks.registering {
+    val serviceFiles = files(sourceSets.main.map { it.output }, sourceSets.named("jmh").map { it.output })
+        .asFileTree.matching { include(jsonbServiceFile) }
+    val merged = jmhServicesDir.map { it.file(jsonbServiceFile) }
+    inputs.files(serviceFiles)
+    outputs.file(merged)
+    doLast {
+        val lines = serviceFiles.files.flatMap { it.readLines() }.filter { it.isNotBlank() }.distinct()
+        merged.get().asFile.apply {
+            parentFile.mkdirs()
+            writeText(lines.joinToString("\n", postfix = "\n"))
+        }
+    }
+}
+tasks.named<Jar>("jmhJar") {
+    val serviceFile = jsonbServiceFile
+    val mergedDir = jmhServicesDir.get().asFile
+    from(mergeJmhServices.map { jmhServicesDir })
+    eachFile {
+        if (path == serviceFile && !file.startsWith(mergedDir)) {
+            exclude()
+        }
+    }
+}
+
 // Maven publish plugin configuration
 mavenPublishing {
     publishToMavenCentral()
@@ -0,0 +1,73 @@
+package com.bitfiddling.avaje.guava.benchmark;
+
+import io.avaje.jsonb.JsonType;
+import io.avaje.jsonb.Jsonb;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks {@code fromJson}/{@code toJson} for every Guava adapter across
+ * collection sizes and element types, alongside avaje's built-in List/Set/Map
+ * adapters on the same payloads as a baseline.
+ *
+ * <p>Run with {@code ./gradlew jmh}; the build enables the {@code gc} profiler so
+ * allocation rates are reported next to throughput.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(4)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class AdapterBenchmark {
+
+    @Param({"0", "1", "16", "1000", "1000000"})
+    int size;
+
+    @Param
+    ElementKind element;
+
+    @Param
+    CollectionKind collection;
+
+    private JsonType<Object> jsonType;
+    private Object value;
+    private byte[] json;
+
+    @Setup
+    public void setUp() {
+        Jsonb jsonb = Jsonb.builder().build();
+        jsonType = jsonb.type(collection.type(element.type()));
+
+        List<Object> elements = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            elements.add(element.element(i));
+        }
+        value = collection.create(elements);
+        json = jsonType.toJsonBytes(value);
+    }
+
+    @Benchmark
+    public Object fromJson() {
+        return jsonType.fromJson(json);
+    }
+
+    @Benchmark
+    public byte[] toJson() {
+        return jsonType.toJsonBytes(value);
+    }
+}
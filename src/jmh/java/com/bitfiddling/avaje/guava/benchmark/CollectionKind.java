@@ -0,0 +1,132 @@
+package com.bitfiddling.avaje.guava.benchmark;
+
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.ImmutableBiMap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableMultiset;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSortedMultiset;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.LinkedHashMultiset;
+import com.google.common.collect.TreeMultiset;
+import io.avaje.jsonb.Types;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The collection types swept by the benchmarks. The {@code JDK_*} constants are
+ * the baseline and go through avaje's built-in List/Set/Map adapters with the
+ * same payloads as their Guava counterparts.
+ */
+@SuppressWarnings({"unchecked", "rawtypes"})
+public enum CollectionKind {
+    IMMUTABLE_LIST(ImmutableList.class) {
+        @Override
+        Object create(List<Object> elements) {
+            return ImmutableList.copyOf(elements);
+        }
+    },
+    IMMUTABLE_SET(ImmutableSet.class) {
+        @Override
+        Object create(List<Object> elements) {
+            return ImmutableSet.copyOf(elements);
+        }
+    },
+    IMMUTABLE_SORTED_SET(ImmutableSortedSet.class) {
+        @Override
+        Object create(List<Object> elements) {
+            return ImmutableSortedSet.copyOf((List) elements);
+        }
+    },
+    IMMUTABLE_MAP(ImmutableMap.class) {
+        @Override
+        Object create(List<Object> elements) {
+            return ImmutableMap.copyOf(keyed(elements));
+        }
+    },
+    IMMUTABLE_BI_MAP(ImmutableBiMap.class) {
+        @Override
+        Object create(List<Object> elements) {
+            return ImmutableBiMap.copyOf(keyed(elements));
+        }
+    },
+    IMMUTABLE_MULTISET(ImmutableMultiset.class) {
+        @Override
+        Object create(List<Object> elements) {
+            return ImmutableMultiset.copyOf(elements);
+        }
+    },
+    IMMUTABLE_SORTED_MULTISET(ImmutableSortedMultiset.class) {
+        @Override
+        Object create(List<Object> elements) {
+            return ImmutableSortedMultiset.copyOf((List) elements);
+        }
+    },
+    HASH_MULTISET(HashMultiset.class) {
+        @Override
+        Object create(List<Object> elements) {
+            return HashMultiset.create(elements);
+        }
+    },
+    LINKED_HASH_MULTISET(LinkedHashMultiset.class) {
+        @Override
+        Object create(List<Object> elements) {
+            return LinkedHashMultiset.create(elements);
+        }
+    },
+    TREE_MULTISET(TreeMultiset.class) {
+        @Override
+        Object create(List<Object> elements) {
+            return TreeMultiset.create((List) elements);
+        }
+    },
+    JDK_LIST(List.class) {
+        @Override
+        Object create(List<Object> elements) {
+            return new ArrayList<>(elements);
+        }
+    },
+    JDK_SET(Set.class) {
+        @Override
+        Object create(List<Object> elements) {
+            return new LinkedHashSet<>(elements);
+        }
+    },
+    JDK_MAP(Map.class) {
+        @Override
+        Object create(List<Object> elements) {
+            return keyed(elements);
+        }
+    };
+
+    private final Class<?> rawType;
+
+    CollectionKind(Class<?> rawType) {
+        this.rawType = rawType;
+    }
+
+    /** Returns the parameterized collection type for the given element type. */
+    Type type(Type elementType) {
+        if (Map.class.isAssignableFrom(rawType)) {
+            return Types.newParameterizedType(rawType, String.class, elementType);
+        }
+        return Types.newParameterizedType(rawType, elementType);
+    }
+
+    /** Creates the collection holding the given (distinct) elements. */
+    abstract Object create(List<Object> elements);
+
+    private static Map<String, Object> keyed(List<Object> elements) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (int i = 0; i < elements.size(); i++) {
+            map.put("key-" + i, elements.get(i));
+        }
+        return map;
+    }
+}
@@ -0,0 +1,39 @@
+package com.bitfiddling.avaje.guava.benchmark;
+
+import java.lang.reflect.Type;
+
+/** The element (or map value) types swept by the benchmarks. */
+public enum ElementKind {
+    STRING(String.class) {
+        @Override
+        Object element(int index) {
+            return "element-" + index;
+        }
+    },
+    INTEGER(Integer.class) {
+        @Override
+        Object element(int index) {
+            return index;
+        }
+    },
+    RECORD(Item.class) {
+        @Override
+        Object element(int index) {
+            return new Item(index, "item-" + index, index * 0.25d);
+        }
+    };
+
+    private final Type type;
+
+    ElementKind(Type type) {
+        this.type = type;
+    }
+
+    /** The element type used to parameterise the collection type. */
+    Type type() {
+        return type;
+    }
+
+    /** Returns the distinct element for the given index. */
+    abstract Object element(int index);
+}
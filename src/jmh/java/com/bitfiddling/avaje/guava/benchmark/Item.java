@@ -0,0 +1,16 @@
+package com.bitfiddling.avaje.guava.benchmark;
+
+import io.avaje.jsonb.Json;
+
+/**
+ * Nested record element used by the benchmarks. Comparable so it can be held
+ * by the sorted Guava collections.
+ */
+@Json
+public record Item(int id, String name, double price) implements Comparable<Item> {
+
+    @Override
+    public int compareTo(Item other) {
+        return Integer.compare(id, other.id);
+    }
+}
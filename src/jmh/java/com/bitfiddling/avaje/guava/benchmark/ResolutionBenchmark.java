@@ -0,0 +1,177 @@
+package com.bitfiddling.avaje.guava.benchmark;
+
+import com.bitfiddling.avaje.guava.ArrayListMultimapAdapter;
+import com.bitfiddling.avaje.guava.ArrayTableAdapter;
+import com.bitfiddling.avaje.guava.EnumBiMapAdapter;
+import com.bitfiddling.avaje.guava.EnumMultisetAdapter;
+import com.bitfiddling.avaje.guava.HashBasedTableAdapter;
+import com.bitfiddling.avaje.guava.HashMultimapAdapter;
+import com.bitfiddling.avaje.guava.HashMultisetAdapter;
+import com.bitfiddling.avaje.guava.ImmutableBiMapAdapter;
+import com.bitfiddling.avaje.guava.ImmutableListAdapter;
+import com.bitfiddling.avaje.guava.ImmutableListMultimapAdapter;
+import com.bitfiddling.avaje.guava.ImmutableMapAdapter;
+import com.bitfiddling.avaje.guava.ImmutableMultisetAdapter;
+import com.bitfiddling.avaje.guava.ImmutableRangeMapAdapter;
+import com.bitfiddling.avaje.guava.ImmutableRangeSetAdapter;
+import com.bitfiddling.avaje.guava.ImmutableSetAdapter;
+import com.bitfiddling.avaje.guava.ImmutableSetMultimapAdapter;
+import com.bitfiddling.avaje.guava.ImmutableSortedMapAdapter;
+import com.bitfiddling.avaje.guava.ImmutableSortedMultisetAdapter;
+import com.bitfiddling.avaje.guava.ImmutableSortedSetAdapter;
+import com.bitfiddling.avaje.guava.ImmutableTableAdapter;
+import com.bitfiddling.avaje.guava.LinkedHashMultisetAdapter;
+import com.bitfiddling.avaje.guava.RangeAdapter;
+import com.bitfiddling.avaje.guava.TreeBasedTableAdapter;
+import com.bitfiddling.avaje.guava.TreeMultisetAdapter;
+import com.bitfiddling.avaje.guava.TreeRangeSetAdapter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableMultiset;
+import com.google.common.collect.ImmutableSet;
+import io.avaje.jsonb.AdapterFactory;
+import io.avaje.jsonb.Jsonb;
+import io.avaje.jsonb.Types;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks building a Jsonb and resolving adapters for 512 distinct types, half of
+ * them Guava collections and half JDK collections, which every Guava factory is asked
+ * about before avaje's built-in adapters.
+ *
+ * <p>{@code COMPONENT} is the default registration through {@code GuavaJsonbComponent},
+ * a single raw-class lookup per type. {@code PER_ADAPTER} additionally registers each
+ * adapter's own {@code FACTORY} first, reproducing one probe per adapter. {@code resolve}
+ * measures warm resolution time and {@code coldStart} the first resolution in a fresh JVM.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ResolutionBenchmark {
+
+    private static final List<AdapterFactory> PER_ADAPTER_FACTORIES = List.of(
+            ImmutableListAdapter.FACTORY,
+            ImmutableSetAdapter.FACTORY,
+            ImmutableSortedSetAdapter.FACTORY,
+            ImmutableMapAdapter.FACTORY,
+            ImmutableSortedMapAdapter.FACTORY,
+            ImmutableBiMapAdapter.FACTORY,
+            ImmutableMultisetAdapter.FACTORY,
+            ImmutableSortedMultisetAdapter.FACTORY,
+            HashMultisetAdapter.FACTORY,
+            LinkedHashMultisetAdapter.FACTORY,
+            TreeMultisetAdapter.FACTORY,
+            EnumMultisetAdapter.FACTORY,
+            EnumBiMapAdapter.FACTORY,
+            ImmutableListMultimapAdapter.FACTORY,
+            ImmutableSetMultimapAdapter.FACTORY,
+            ArrayListMultimapAdapter.FACTORY,
+            HashMultimapAdapter.FACTORY,
+            ImmutableTableAdapter.FACTORY,
+            HashBasedTableAdapter.FACTORY,
+            TreeBasedTableAdapter.FACTORY,
+            ArrayTableAdapter.FACTORY,
+            RangeAdapter.FACTORY,
+            ImmutableRangeSetAdapter.FACTORY,
+            TreeRangeSetAdapter.FACTORY,
+            ImmutableRangeMapAdapter.FACTORY);
+
+    private static final List<Type> TYPES = types();
+
+    /** How the Guava adapters are registered. */
+    public enum Registration {
+        COMPONENT,
+        PER_ADAPTER
+    }
+
+    @Param
+    Registration registration;
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Fork(1)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    public int resolve() {
+        return resolveAll();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Fork(20)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    public int coldStart() {
+        return resolveAll();
+    }
+
+    private int resolveAll() {
+        // a no-op factory keeps build() from returning the shared, already warm default Jsonb
+        Jsonb.Builder builder = Jsonb.builder().add((type, jsonb) -> null);
+        if (registration == Registration.PER_ADAPTER) {
+            PER_ADAPTER_FACTORIES.forEach(builder::add);
+        }
+        Jsonb jsonb = builder.build();
+        int resolved = 0;
+        for (Type type : TYPES) {
+            if (jsonb.adapter(type) != null) {
+                resolved++;
+            }
+        }
+        return resolved;
+    }
+
+    /** Returns every container applied to every container applied to every element type. */
+    private static List<Type> types() {
+        List<Class<?>> containers = List.of(
+                List.class,
+                Set.class,
+                Map.class,
+                Collection.class,
+                ImmutableList.class,
+                ImmutableSet.class,
+                ImmutableMap.class,
+                ImmutableMultiset.class);
+        List<Type> elements = List.of(
+                String.class,
+                Integer.class,
+                Long.class,
+                Double.class,
+                Boolean.class,
+                UUID.class,
+                BigDecimal.class,
+                Item.class);
+        List<Type> types = new ArrayList<>();
+        for (Class<?> outer : containers) {
+            for (Class<?> inner : containers) {
+                for (Type element : elements) {
+                    types.add(container(outer, container(inner, element)));
+                }
+            }
+        }
+        return types;
+    }
+
+    private static Type container(Class<?> container, Type element) {
+        return container == Map.class || container == ImmutableMap.class
+                ? Types.newParameterizedType(container, String.class, element)
+                : Types.newParameterizedType(container, element);
+    }
+}
@@ -0,0 +1,89 @@
+package com.bitfiddling.avaje.guava.benchmark;
+
+import com.bitfiddling.avaje.guava.LazyResolution;
+import io.avaje.jsonb.Jsonb;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks building a Jsonb, resolving the root of {@link StartupModel} and decoding a
+ * request that only populates the orders branch: {@code firstRequest} as the first call
+ * in a fresh JVM, and {@code resolve} warm, on a Jsonb built beforehand, without the
+ * service loading, class loading and compilation that dominate a cold start.
+ *
+ * <p>{@code EAGER} resolves every element adapter reachable from the root up front;
+ * {@code LAZY} registers {@link LazyResolution#factory()} so only the branch the request
+ * uses is resolved.
+ */
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+
+    private static final String REQUEST = "{\"name\":\"north\",\"orders\":[{"
+            + "\"id\":\"6f1c2a7e-3b4d-4e5f-8a9b-0c1d2e3f4a5b\",\"placed\":\"2024-05-01T10:15:30Z\","
+            + "\"lines\":[{\"sku\":\"A-1\",\"quantity\":2,\"unitPrice\":9.99}]}]}";
+
+    /** How element adapters are resolved. */
+    public enum Resolution {
+        EAGER,
+        LAZY
+    }
+
+    @Param
+    Resolution resolution;
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Fork(20)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    public StartupModel.Store firstRequest() {
+        return request();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Fork(1)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    public StartupModel.Store resolve(FreshJsonb fresh) {
+        return fresh.jsonb.type(StartupModel.Store.class).fromJson(REQUEST);
+    }
+
+    private StartupModel.Store request() {
+        return build(resolution).type(StartupModel.Store.class).fromJson(REQUEST);
+    }
+
+    private static Jsonb build(Resolution resolution) {
+        // a no-op factory keeps build() from returning the shared default Jsonb in EAGER mode
+        Jsonb.Builder builder = Jsonb.builder().add((type, jsonb) -> null);
+        if (resolution == Resolution.LAZY) {
+            builder.add(LazyResolution.factory());
+        }
+        return builder.build();
+    }
+
+    /** A Jsonb with no adapters resolved yet, built before each call. */
+    @State(Scope.Thread)
+    public static class FreshJsonb {
+
+        Jsonb jsonb;
+
+        @Setup(Level.Invocation)
+        public void build(StartupBenchmark benchmark) {
+            jsonb = StartupBenchmark.build(benchmark.resolution);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.bitfiddling.avaje.guava.benchmark;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSortedMap;
+import io.avaje.jsonb.Json;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * A large model for {@link StartupBenchmark}: a root with eight branches of three records
+ * each, all held in Guava collections, of which a typical request only touches one.
+ */
+public final class StartupModel {
+
+    private StartupModel() {}
+
+    @Json
+    public record Store(
+            String name,
+            ImmutableList<Order> orders,
+            ImmutableMap<String, Customer> customers,
+            ImmutableList<Product> products,
+            ImmutableMap<String, Warehouse> warehouses,
+            ImmutableList<Shipment> shipments,
+            ImmutableList<Invoice> invoices,
+            ImmutableList<Campaign> campaigns,
+            ImmutableMap<String, Employee> employees) {}
+
+    @Json
+    public record Order(
+            UUID id,
+            Instant placed,
+            ImmutableList<OrderLine> lines,
+            ImmutableList<Discount> discounts,
+            ImmutableList<OrderNote> notes) {}
+
+    @Json
+    public record OrderLine(String sku, int quantity, BigDecimal unitPrice) {}
+
+    @Json
+    public record Discount(String code, BigDecimal amount, ImmutableSet<String> skus) {}
+
+    @Json
+    public record OrderNote(String author, Instant written, String text) {}
+
+    @Json
+    public record Customer(
+            String name,
+            ImmutableList<Address> addresses,
+            ImmutableMap<String, ContactDetail> contacts,
+            ImmutableList<Preference> preferences) {}
+
+    @Json
+    public record Address(String street, String city, String postcode, String country) {}
+
+    @Json
+    public record ContactDetail(String kind, String value, boolean verified) {}
+
+    @Json
+    public record Preference(String key, String value, Instant updated) {}
+
+    @Json
+    public record Product(
+            String sku,
+            String title,
+            ImmutableList<Variant> variants,
+            ImmutableMap<String, Attribute> attributes,
+            ImmutableList<Review> reviews) {}
+
+    @Json
+    public record Variant(String sku, String colour, String size, BigDecimal price) {}
+
+    @Json
+    public record Attribute(String name, String value, String unit) {}
+
+    @Json
+    public record Review(String author, int rating, String text, LocalDate date) {}
+
+    @Json
+    public record Warehouse(
+            String code, ImmutableList<Bin> bins, ImmutableMap<String, StockLevel> stock, ImmutableList<Dock> docks) {}
+
+    @Json
+    public record Bin(String aisle, int shelf, int capacity) {}
+
+    @Json
+    public record StockLevel(String sku, int onHand, int reserved) {}
+
+    @Json
+    public record Dock(int number, boolean refrigerated, ImmutableSet<String> carriers) {}
+
+    @Json
+    public record Shipment(
+            UUID id,
+            ImmutableList<Parcel> parcels,
+            ImmutableList<TrackingEvent> tracking,
+            ImmutableMap<String, Carrier> carriers) {}
+
+    @Json
+    public record Parcel(String barcode, double weight, ImmutableList<String> skus) {}
+
+    @Json
+    public record TrackingEvent(Instant at, String location, String status) {}
+
+    @Json
+    public record Carrier(String code, String name, ImmutableSet<String> countries) {}
+
+    @Json
+    public record Invoice(
+            String number,
+            ImmutableList<InvoiceLine> lines,
+            ImmutableList<Payment> payments,
+            ImmutableSortedMap<String, TaxLine> taxes) {}
+
+    @Json
+    public record InvoiceLine(String description, int quantity, BigDecimal amount) {}
+
+    @Json
+    public record Payment(String method, BigDecimal amount, Instant received) {}
+
+    @Json
+    public record TaxLine(String rate, BigDecimal base, BigDecimal tax) {}
+
+    @Json
+    public record Campaign(
+            String name,
+            ImmutableList<Audience> audiences,
+            ImmutableListMultimap<String, Creative> creatives,
+            ImmutableList<Budget> budgets) {}
+
+    @Json
+    public record Audience(String segment, int minimumAge, ImmutableSet<String> regions) {}
+
+    @Json
+    public record Creative(String format, String url, int width, int height) {}
+
+    @Json
+    public record Budget(LocalDate month, BigDecimal amount, String currency) {}
+
+    @Json
+    public record Employee(
+            String name,
+            ImmutableList<Shift> shifts,
+            ImmutableMap<String, Skill> skills,
+            ImmutableList<Certification> certifications) {}
+
+    @Json
+    public record Shift(Instant start, Instant end, String location) {}
+
+    @Json
+    public record Skill(String name, int level) {}
+
+    @Json
+    public record Certification(String name, LocalDate expires, String issuer) {}
+}
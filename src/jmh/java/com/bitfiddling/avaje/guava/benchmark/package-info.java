@@ -0,0 +1,6 @@
+/// JMH benchmarks for the Guava adapters.
+///
+/// As with the tests, this package must differ from the main source set so
+/// that the GeneratedJsonComponent produced for the benchmark records does
+/// not clash with the one in the published jar.
+package com.bitfiddling.avaje.guava.benchmark;
@@ -0,0 +1,27 @@
+package com.bitfiddling.avaje.guava;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for a large value decoded or encoded by an instrumented adapter.
+ */
+@Name(AdapterEvent.NAME)
+@Label("Guava Adapter Call")
+@Category({"Avaje Jsonb", "Guava"})
+@Description("A Guava collection decoded or encoded above the instrumentation size threshold")
+final class AdapterEvent extends jdk.jfr.Event {
+
+    static final String NAME = "com.bitfiddling.avaje.guava.AdapterCall";
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Type")
+    String type;
+
+    @Label("Size")
+    int size;
+}
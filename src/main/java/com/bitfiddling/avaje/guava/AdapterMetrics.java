@@ -0,0 +1,32 @@
+package com.bitfiddling.avaje.guava;
+
+import java.lang.reflect.Type;
+
+/**
+ * Receives a measurement for every value decoded or encoded by an adapter wrapped by
+ * {@link Instrumentation}.
+ *
+ * <p>Implementations are called on the decoding or encoding thread, concurrently from
+ * many threads, and should only update counters. {@link AdapterStatistics} keeps them in
+ * memory; other implementations can forward them to a metrics library.
+ */
+public interface AdapterMetrics {
+
+    /**
+     * Records a decoded value.
+     *
+     * @param type the adapter's type, such as {@code ImmutableList<String>}
+     * @param size the number of elements, entries or cells decoded
+     * @param nanos the time taken, including nested adapters
+     */
+    void decoded(Type type, int size, long nanos);
+
+    /**
+     * Records an encoded value.
+     *
+     * @param type the adapter's type, such as {@code ImmutableList<String>}
+     * @param size the number of elements, entries or cells encoded
+     * @param nanos the time taken, including nested adapters
+     */
+    void encoded(Type type, int size, long nanos);
+}
@@ -0,0 +1,162 @@
+package com.bitfiddling.avaje.guava;
+
+import com.google.common.collect.ImmutableMap;
+import java.lang.reflect.Type;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory {@link AdapterMetrics}: call counts, total latency, element counts and a
+ * size histogram per adapter type, for decodes and encodes separately.
+ *
+ * <pre>{@code
+ * AdapterStatistics statistics = new AdapterStatistics();
+ * Jsonb jsonb = Jsonb.builder().add(Instrumentation.create(statistics).factory()).build();
+ * ...
+ * statistics.decodes().forEach((type, stats) -> log.info("{}: {}", type.getTypeName(), stats));
+ * }</pre>
+ */
+public final class AdapterStatistics implements AdapterMetrics {
+
+    /** Number of size histogram buckets: size 0, then one per power of two. */
+    public static final int BUCKETS = 33;
+
+    private final ConcurrentMap<Type, Stats> decodes = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Type, Stats> encodes = new ConcurrentHashMap<>();
+
+    /** Creates empty statistics. */
+    public AdapterStatistics() {}
+
+    @Override
+    public void decoded(Type type, int size, long nanos) {
+        decodes.computeIfAbsent(type, key -> new Stats()).record(size, nanos);
+    }
+
+    @Override
+    public void encoded(Type type, int size, long nanos) {
+        encodes.computeIfAbsent(type, key -> new Stats()).record(size, nanos);
+    }
+
+    /**
+     * Returns the decode statistics of every type decoded so far.
+     *
+     * @return the statistics by type
+     */
+    public ImmutableMap<Type, Stats> decodes() {
+        return ImmutableMap.copyOf(decodes);
+    }
+
+    /**
+     * Returns the encode statistics of every type encoded so far.
+     *
+     * @return the statistics by type
+     */
+    public ImmutableMap<Type, Stats> encodes() {
+        return ImmutableMap.copyOf(encodes);
+    }
+
+    /**
+     * Returns the decode statistics of a type.
+     *
+     * @param type the adapter type
+     * @return the statistics, empty if the type was not decoded
+     */
+    public Stats decodes(Type type) {
+        return decodes.getOrDefault(type, new Stats());
+    }
+
+    /**
+     * Returns the encode statistics of a type.
+     *
+     * @param type the adapter type
+     * @return the statistics, empty if the type was not encoded
+     */
+    public Stats encodes(Type type) {
+        return encodes.getOrDefault(type, new Stats());
+    }
+
+    /** Clears all statistics. */
+    public void reset() {
+        decodes.clear();
+        encodes.clear();
+    }
+
+    /** Live counters of one type and direction. */
+    public static final class Stats {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder elements = new LongAdder();
+        private final LongAdder[] histogram = new LongAdder[BUCKETS];
+
+        Stats() {
+            for (int i = 0; i < BUCKETS; i++) {
+                histogram[i] = new LongAdder();
+            }
+        }
+
+        void record(int size, long elapsed) {
+            count.increment();
+            nanos.add(elapsed);
+            elements.add(size);
+            histogram[bucket(size)].increment();
+        }
+
+        /**
+         * Returns the histogram bucket of a size: 0 for empty, otherwise {@code b} such
+         * that {@code 2^(b-1) <= size < 2^b}.
+         *
+         * @param size the collection size
+         * @return the bucket index
+         */
+        public static int bucket(int size) {
+            return size <= 0 ? 0 : 32 - Integer.numberOfLeadingZeros(size);
+        }
+
+        /**
+         * Returns the number of values.
+         *
+         * @return the call count
+         */
+        public long count() {
+            return count.sum();
+        }
+
+        /**
+         * Returns the total time taken.
+         *
+         * @return the total nanoseconds
+         */
+        public long totalNanos() {
+            return nanos.sum();
+        }
+
+        /**
+         * Returns the total number of elements, entries or cells of all values.
+         *
+         * @return the element count
+         */
+        public long elements() {
+            return elements.sum();
+        }
+
+        /**
+         * Returns the number of values per size bucket, see {@link #bucket(int)}.
+         *
+         * @return the histogram, of length {@link #BUCKETS}
+         */
+        public long[] sizeHistogram() {
+            long[] counts = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = histogram[i].sum();
+            }
+            return counts;
+        }
+
+        @Override
+        public String toString() {
+            return "Stats{count=" + count() + ", totalNanos=" + totalNanos() + ", elements=" + elements() + "}";
+        }
+    }
+}
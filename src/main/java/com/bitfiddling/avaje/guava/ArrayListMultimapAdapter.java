@@ -0,0 +1,61 @@
+package com.bitfiddling.avaje.guava;
+
+import com.google.common.collect.ArrayListMultimap;
+import io.avaje.json.JsonAdapter;
+import io.avaje.json.JsonReader;
+import io.avaje.json.JsonWriter;
+import io.avaje.jsonb.AdapterFactory;
+import io.avaje.jsonb.Jsonb;
+import io.avaje.jsonb.Types;
+import java.lang.reflect.Type;
+
+/**
+ * JsonAdapter for Guava ArrayListMultimap.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public final class ArrayListMultimapAdapter<K, V> implements JsonAdapter<ArrayListMultimap<K, V>> {
+
+    /** Factory for creating ArrayListMultimapAdapter instances. */
+    public static final AdapterFactory FACTORY = (Type type, Jsonb jsonb) -> {
+        if (Types.isGenericTypeOf(type, ArrayListMultimap.class)) {
+            return new ArrayListMultimapAdapter<>(jsonb, Types.typeArguments(type));
+        }
+        return null;
+    };
+
+    private final MultimapJson<K, V> multimapJson;
+
+    /**
+     * Creates a new ArrayListMultimapAdapter.
+     *
+     * @param jsonb the Jsonb instance
+     * @param types the generic type arguments
+     */
+    public ArrayListMultimapAdapter(Jsonb jsonb, Type[] types) {
+        this.multimapJson = new MultimapJson<>(jsonb, types);
+    }
+
+    @Override
+    public ArrayListMultimap<K, V> fromJson(JsonReader reader) {
+        ArrayListMultimap<K, V> multimap =
+                ArrayListMultimap.create(multimapJson.expectedKeys(), multimapJson.expectedValuesPerKey());
+        multimapJson.read(reader, multimap::put);
+        return multimap;
+    }
+
+    @Override
+    public void toJson(JsonWriter writer, ArrayListMultimap<K, V> value) {
+        if (value == null) {
+            writer.nullValue();
+            return;
+        }
+        if (value.isEmpty()) {
+            writer.beginObject();
+            writer.endObject();
+            return;
+        }
+        multimapJson.write(writer, value);
+    }
+}
@@ -0,0 +1,138 @@
+package com.bitfiddling.avaje.guava;
+
+import com.google.common.collect.ArrayTable;
+import io.avaje.json.JsonAdapter;
+import io.avaje.json.JsonReader;
+import io.avaje.json.JsonWriter;
+import io.avaje.jsonb.AdapterFactory;
+import io.avaje.jsonb.Jsonb;
+import io.avaje.jsonb.Types;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * JsonAdapter for Guava ArrayTable.
+ *
+ * @param <R> the row key type
+ * @param <C> the column key type
+ * @param <V> the value type
+ */
+public final class ArrayTableAdapter<R, C, V> implements JsonAdapter<ArrayTable<R, C, V>> {
+
+    /** Factory for creating ArrayTableAdapter instances. */
+    public static final AdapterFactory FACTORY = factory(TableFormat.ROW_MAJOR);
+
+    /**
+     * Returns a factory for ArrayTableAdapter instances that write the given format.
+     *
+     * @param format the format to write
+     * @return the adapter factory
+     */
+    public static AdapterFactory factory(TableFormat format) {
+        return (Type type, Jsonb jsonb) -> {
+            if (Types.isGenericTypeOf(type, ArrayTable.class)) {
+                return new ArrayTableAdapter<>(jsonb, Types.typeArguments(type), format);
+            }
+            return null;
+        };
+    }
+
+    private final TableJson<R, C, V> tableJson;
+
+    /**
+     * Creates a new ArrayTableAdapter.
+     *
+     * @param jsonb the Jsonb instance
+     * @param types the generic type arguments
+     */
+    public ArrayTableAdapter(Jsonb jsonb, Type[] types) {
+        this(jsonb, types, TableFormat.ROW_MAJOR);
+    }
+
+    /**
+     * Creates a new ArrayTableAdapter that writes the given format.
+     *
+     * @param jsonb the Jsonb instance
+     * @param types the generic type arguments
+     * @param format the format to write
+     */
+    public ArrayTableAdapter(Jsonb jsonb, Type[] types, TableFormat format) {
+        this.tableJson = new TableJson<>(jsonb, types, format);
+    }
+
+    @Override
+    public ArrayTable<R, C, V> fromJson(JsonReader reader) {
+        Decoder decoder = new Decoder();
+        tableJson.read(reader, decoder);
+        return decoder.build();
+    }
+
+    @Override
+    public void toJson(JsonWriter writer, ArrayTable<R, C, V> value) {
+        if (value == null) {
+            writer.nullValue();
+            return;
+        }
+        if (value.rowKeySet().isEmpty() && value.columnKeySet().isEmpty()) {
+            writer.beginObject();
+            writer.endObject();
+            return;
+        }
+        tableJson.write(writer, value);
+    }
+
+    /**
+     * Fills a table created from the columnar keys directly. The row-major form only
+     * reveals the keys as it goes, so its cells are collected before creating the table.
+     */
+    private final class Decoder implements TableJson.Sink<R, C, V> {
+
+        private ArrayTable<R, C, V> table;
+        private Set<R> rowKeys;
+        private Set<C> columnKeys;
+        private List<Object> cells;
+
+        @Override
+        public void start(List<R> rowKeys, List<C> columnKeys) {
+            if (rowKeys != null) {
+                table = ArrayTable.create(rowKeys, columnKeys);
+            } else {
+                this.rowKeys = new LinkedHashSet<>();
+                this.columnKeys = new LinkedHashSet<>();
+                this.cells = new ArrayList<>();
+            }
+        }
+
+        @Override
+        public void put(R row, C column, V value) {
+            if (table != null) {
+                if (value != null) {
+                    table.put(row, column, value);
+                }
+                return;
+            }
+            rowKeys.add(row);
+            columnKeys.add(column);
+            if (value != null) {
+                cells.add(row);
+                cells.add(column);
+                cells.add(value);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        ArrayTable<R, C, V> build() {
+            if (table != null) {
+                return table;
+            }
+            ArrayTable<R, C, V> result = ArrayTable.create(rowKeys, columnKeys);
+            for (int i = 0; i < cells.size(); i += 3) {
+                result.put((R) cells.get(i), (C) cells.get(i + 1), (V) cells.get(i + 2));
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.bitfiddling.avaje.guava;
+
+import com.google.common.util.concurrent.AtomicLongMap;
+import io.avaje.json.JsonAdapter;
+import io.avaje.json.JsonReader;
+import io.avaje.json.JsonWriter;
+import io.avaje.jsonb.AdapterFactory;
+import io.avaje.jsonb.Jsonb;
+import io.avaje.jsonb.Types;
+import java.lang.reflect.Type;
+
+/**
+ * JsonAdapter for Guava AtomicLongMap, written as a JSON object of keys and counts such
+ * as {@code {"a":3,"b":0}}.
+ *
+ * <p>A map is written from the weakly consistent view of its backing ConcurrentHashMap
+ * without locking, so threads updating it are not blocked; each count is read once, and
+ * updates made while it is written may or may not be seen. Keys are encoded as for other
+ * maps, and counts of a key repeated in the input are added together.
+ *
+ * @param <K> the key type
+ */
+public final class AtomicLongMapAdapter<K> implements JsonAdapter<AtomicLongMap<K>> {
+
+    /** Factory for creating AtomicLongMapAdapter instances. */
+    public static final AdapterFactory FACTORY = (Type type, Jsonb jsonb) -> {
+        if (Types.isGenericTypeOf(type, AtomicLongMap.class)) {
+            return new AtomicLongMapAdapter<>(jsonb, Types.typeArguments(type));
+        }
+        return null;
+    };
+
+    private final KeyCodec<K> keyCodec;
+    private final KeyNames<K> keyNames;
+    private final JsonAdapter<Long> countAdapter;
+
+    /**
+     * Creates a new AtomicLongMapAdapter.
+     *
+     * @param jsonb the Jsonb instance
+     * @param types the generic type arguments
+     */
+    public AtomicLongMapAdapter(Jsonb jsonb, Type[] types) {
+        this.keyCodec = KeyCodec.of(jsonb, types[0]);
+        this.keyNames = new KeyNames<>(jsonb, keyCodec);
+        this.countAdapter = jsonb.adapter(Long.class);
+    }
+
+    @Override
+    public AtomicLongMap<K> fromJson(JsonReader reader) {
+        AtomicLongMap<K> map = AtomicLongMap.create();
+        reader.beginObject();
+        while (reader.hasNextField()) {
+            K key = keyCodec.decode(reader.nextField());
+            map.addAndGet(key, reader.readLong());
+        }
+        reader.endObject();
+        return map;
+    }
+
+    @Override
+    public void toJson(JsonWriter writer, AtomicLongMap<K> value) {
+        if (value == null) {
+            writer.nullValue();
+            return;
+        }
+        keyNames.write(writer, value.asMap(), countAdapter);
+    }
+}
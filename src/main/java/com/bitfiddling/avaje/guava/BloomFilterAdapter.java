@@ -0,0 +1,241 @@
+package com.bitfiddling.avaje.guava;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnel;
+import io.avaje.json.JsonAdapter;
+import io.avaje.json.JsonDataException;
+import io.avaje.json.JsonReader;
+import io.avaje.json.JsonWriter;
+import io.avaje.jsonb.AdapterFactory;
+import io.avaje.jsonb.Jsonb;
+import io.avaje.jsonb.Types;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * JsonAdapter for Guava BloomFilter, written as the {@link BloomFilter#writeTo} form of the
+ * filter in base64, split into strings of {@value #CHUNK_CHARS} characters, such as
+ * {@code ["AAEAAAA...","..."]}.
+ *
+ * <p>The filter is encoded into the writer chunk by chunk and decoded from one chunk at a
+ * time, so neither direction holds a full-size copy of the filter besides the filter
+ * itself. A single base64 string is also read. Filters are read with the funnel the
+ * {@link FunnelRegistry} holds for the element type.
+ *
+ * @param <T> the element type
+ */
+public final class BloomFilterAdapter<T> implements JsonAdapter<BloomFilter<T>> {
+
+    /**
+     * Bytes of the filter per chunk, a multiple of three so only the last chunk is padded.
+     * The chunk strings stay well within the string buffer of a reader on a stream.
+     */
+    static final int CHUNK_BYTES = 3 << 12;
+
+    /** Base64 characters per chunk. */
+    static final int CHUNK_CHARS = 4 << 12;
+
+    /** Bytes of the filter encoded at a time, a multiple of three that divides a chunk. */
+    static final int PIECE_BYTES = 3 << 8;
+
+    /** Factory for creating BloomFilterAdapter instances with the default funnels. */
+    public static final AdapterFactory FACTORY = factory(FunnelRegistry.defaults());
+
+    /**
+     * Returns a factory for BloomFilterAdapter instances that read filters with the given funnels.
+     *
+     * @param funnels the funnels by element type
+     * @return the adapter factory
+     */
+    public static AdapterFactory factory(FunnelRegistry funnels) {
+        return (Type type, Jsonb jsonb) -> {
+            if (Types.isGenericTypeOf(type, BloomFilter.class)) {
+                return new BloomFilterAdapter<>(jsonb, Types.typeArguments(type), funnels);
+            }
+            return null;
+        };
+    }
+
+    private final Type elementType;
+    private final Funnel<? super T> funnel;
+
+    /**
+     * Creates a new BloomFilterAdapter with the default funnels.
+     *
+     * @param jsonb the Jsonb instance
+     * @param types the generic type arguments
+     */
+    public BloomFilterAdapter(Jsonb jsonb, Type[] types) {
+        this(jsonb, types, FunnelRegistry.defaults());
+    }
+
+    /**
+     * Creates a new BloomFilterAdapter that reads filters with the given funnels.
+     *
+     * @param jsonb the Jsonb instance
+     * @param types the generic type arguments
+     * @param funnels the funnels by element type
+     */
+    @SuppressWarnings("unchecked")
+    public BloomFilterAdapter(Jsonb jsonb, Type[] types, FunnelRegistry funnels) {
+        this.elementType = types[0];
+        this.funnel = (Funnel<? super T>) funnels.funnel(types[0]);
+    }
+
+    @Override
+    public BloomFilter<T> fromJson(JsonReader reader) {
+        if (funnel == null) {
+            throw new IllegalStateException("No Funnel registered for BloomFilter<" + elementType.getTypeName()
+                    + ">, see BloomFilterAdapter.factory(FunnelRegistry)");
+        }
+        if (reader.currentToken() == JsonReader.Token.STRING) {
+            return read(reader, new ByteArrayInputStream(reader.readBinary()));
+        }
+        reader.beginArray();
+        ChunkInput input = new ChunkInput(reader);
+        BloomFilter<T> filter = read(reader, input);
+        if (input.hasRemaining() || reader.hasNextElement()) {
+            throw new JsonDataException("Unexpected data after BloomFilter at " + reader.location());
+        }
+        reader.endArray();
+        return filter;
+    }
+
+    private BloomFilter<T> read(JsonReader reader, InputStream input) {
+        try {
+            return BloomFilter.readFrom(input, funnel);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new JsonDataException("Invalid BloomFilter at " + reader.location(), e);
+        }
+    }
+
+    @Override
+    public void toJson(JsonWriter writer, BloomFilter<T> value) {
+        if (value == null) {
+            writer.nullValue();
+            return;
+        }
+        writer.rawChunkStart();
+        writer.rawChunk("[\"");
+        try (ChunkOutput output = new ChunkOutput(writer)) {
+            value.writeTo(output);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        writer.rawChunk("\"]");
+        writer.rawChunkEnd();
+    }
+
+    /**
+     * Encodes bytes into base64 chunks written as raw JSON strings, without the outer
+     * quotes. Each chunk is written in pieces of {@value #PIECE_BYTES} bytes, as the writer
+     * copies long raw strings into its buffer piece by piece and does not enlarge it.
+     */
+    private static final class ChunkOutput extends OutputStream {
+
+        private final JsonWriter writer;
+        private final byte[] buffer = new byte[PIECE_BYTES];
+        private final byte[] encoded = new byte[PIECE_BYTES / 3 * 4];
+        private int size;
+        private int pieces;
+
+        ChunkOutput(JsonWriter writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void write(int b) {
+            if (size == buffer.length) {
+                flushPiece();
+            }
+            buffer[size++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            while (length > 0) {
+                if (size == buffer.length) {
+                    flushPiece();
+                }
+                int count = Math.min(length, buffer.length - size);
+                System.arraycopy(bytes, offset, buffer, size, count);
+                size += count;
+                offset += count;
+                length -= count;
+            }
+        }
+
+        private void flushPiece() {
+            if (pieces == CHUNK_BYTES / PIECE_BYTES) {
+                writer.rawChunk("\",\"");
+                pieces = 0;
+            }
+            int length =
+                    Base64.getEncoder().encode(size == buffer.length ? buffer : Arrays.copyOf(buffer, size), encoded);
+            writer.rawChunk(new String(encoded, 0, length, StandardCharsets.ISO_8859_1));
+            pieces++;
+            size = 0;
+        }
+
+        @Override
+        public void close() {
+            if (size > 0) {
+                flushPiece();
+            }
+        }
+    }
+
+    /** Decodes base64 chunks from the elements of a JSON array as they are needed. */
+    private static final class ChunkInput extends InputStream {
+
+        private final JsonReader reader;
+        private byte[] chunk = new byte[0];
+        private int position;
+
+        ChunkInput(JsonReader reader) {
+            this.reader = reader;
+        }
+
+        /** Returns whether a decoded chunk has bytes left. */
+        boolean hasRemaining() {
+            return position < chunk.length;
+        }
+
+        private boolean fill() {
+            while (!hasRemaining()) {
+                if (!reader.hasNextElement()) {
+                    return false;
+                }
+                chunk = reader.readBinary();
+                position = 0;
+            }
+            return true;
+        }
+
+        @Override
+        public int read() {
+            return fill() ? chunk[position++] & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!fill()) {
+                return -1;
+            }
+            int count = Math.min(length, chunk.length - position);
+            System.arraycopy(chunk, position, bytes, offset, count);
+            position += count;
+            return count;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.bitfiddling.avaje.guava;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.LoadingCache;
+import io.avaje.json.JsonAdapter;
+import io.avaje.json.JsonDataException;
+import io.avaje.json.JsonReader;
+import io.avaje.json.JsonWriter;
+import io.avaje.jsonb.AdapterFactory;
+import io.avaje.jsonb.Jsonb;
+import io.avaje.jsonb.Types;
+import java.lang.reflect.Type;
+import java.util.function.Supplier;
+
+/**
+ * JsonAdapter for snapshots of Guava Cache and LoadingCache, written as a JSON object of
+ * the entries of {@link Cache#asMap()}, so a cache can be saved on shutdown and restored
+ * into a freshly built cache at startup.
+ *
+ * <p>A cache is written from its weakly consistent map view without blocking threads that
+ * use it. Guava does not expose the access order of a cache, so a snapshot lists entries
+ * in the order of that view, which says nothing about how recently they were used. A
+ * snapshot is restored into a cache from the configured supplier, in the order of the
+ * snapshot. The default supplier creates an unbounded cache, without the maximum size or
+ * expiry of the original; {@link #factory} with a supplier configured as the original
+ * keeps them. A LoadingCache is only supported through such a factory, as restoring one
+ * needs its loader.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public final class CacheAdapter<K, V> implements JsonAdapter<Cache<K, V>> {
+
+    /** Creates the unbounded caches snapshots are restored into by default. */
+    private static final Supplier<Cache<Object, Object>> UNBOUNDED =
+            () -> CacheBuilder.newBuilder().build();
+
+    /**
+     * Factory for creating CacheAdapter instances that restore Cache snapshots into
+     * unbounded caches. LoadingCache needs a {@link #factory} that creates one.
+     */
+    public static final AdapterFactory FACTORY = (Type type, Jsonb jsonb) -> {
+        if (Types.isGenericTypeOf(type, Cache.class)) {
+            return new CacheAdapter<>(jsonb, Types.typeArguments(type));
+        }
+        return null;
+    };
+
+    /**
+     * Returns a factory for CacheAdapter instances that restore snapshots into caches from
+     * the given supplier, such as a {@code CacheBuilder} configured as the cache was.
+     *
+     * @param caches creates an empty cache for each snapshot read
+     * @return the adapter factory
+     */
+    public static AdapterFactory factory(Supplier<? extends Cache<?, ?>> caches) {
+        return (Type type, Jsonb jsonb) -> {
+            if (Types.isGenericTypeOf(type, Cache.class) || Types.isGenericTypeOf(type, LoadingCache.class)) {
+                return new CacheAdapter<>(jsonb, Types.typeArguments(type), Types.rawType(type), caches);
+            }
+            return null;
+        };
+    }
+
+    private final Class<?> cacheType;
+    private final Supplier<? extends Cache<?, ?>> caches;
+    private final KeyCodec<K> keyCodec;
+    private final KeyNames<K> keyNames;
+    private final JsonAdapter<V> valueAdapter;
+
+    /**
+     * Creates a new CacheAdapter that restores into unbounded caches.
+     *
+     * @param jsonb the Jsonb instance
+     * @param types the generic type arguments
+     */
+    public CacheAdapter(Jsonb jsonb, Type[] types) {
+        this(jsonb, types, Cache.class, UNBOUNDED);
+    }
+
+    /**
+     * Creates a new CacheAdapter that restores into caches from the given supplier.
+     *
+     * @param jsonb the Jsonb instance
+     * @param types the generic type arguments
+     * @param caches creates an empty cache for each snapshot read
+     */
+    public CacheAdapter(Jsonb jsonb, Type[] types, Supplier<? extends Cache<?, ?>> caches) {
+        this(jsonb, types, Cache.class, caches);
+    }
+
+    /**
+     * Creates a new CacheAdapter for the given cache type.
+     *
+     * @param jsonb the Jsonb instance
+     * @param types the generic type arguments
+     * @param cacheType Cache or LoadingCache
+     * @param caches creates an empty cache for each snapshot read
+     */
+    CacheAdapter(Jsonb jsonb, Type[] types, Class<?> cacheType, Supplier<? extends Cache<?, ?>> caches) {
+        this.cacheType = cacheType;
+        this.caches = caches;
+        this.keyCodec = KeyCodec.of(jsonb, types[0]);
+        this.keyNames = new KeyNames<>(jsonb, keyCodec);
+        this.valueAdapter = jsonb.adapter(types[1]);
+    }
+
+    @Override
+    public Cache<K, V> fromJson(JsonReader reader) {
+        Cache<K, V> cache = newCache();
+        reader.beginObject();
+        while (reader.hasNextField()) {
+            String name = reader.nextField();
+            V value = valueAdapter.fromJson(reader);
+            if (value == null) {
+                throw new JsonDataException("Null value for cache key '" + name + "' at " + reader.location());
+            }
+            cache.put(keyCodec.decode(name), value);
+        }
+        reader.endObject();
+        return cache;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Cache<K, V> newCache() {
+        Cache<?, ?> cache = caches.get();
+        if (!cacheType.isInstance(cache)) {
+            throw new IllegalStateException("Restoring a " + cacheType.getSimpleName()
+                    + " needs a CacheAdapter.factory that creates one, but got "
+                    + cache.getClass().getName());
+        }
+        return (Cache<K, V>) cache;
+    }
+
+    @Override
+    public void toJson(JsonWriter writer, Cache<K, V> value) {
+        if (value == null) {
+            writer.nullValue();
+            return;
+        }
+        keyNames.write(writer, value.asMap(), valueAdapter);
+    }
+}
@@ -0,0 +1,416 @@
+package com.bitfiddling.avaje.guava;
+
+import com.google.common.base.CharMatcher;
+import com.google.common.base.Defaults;
+import com.google.common.collect.ImmutableCollection;
+import io.avaje.json.JsonAdapter;
+import io.avaje.json.JsonDataException;
+import io.avaje.json.JsonReader;
+import io.avaje.json.JsonWriter;
+import io.avaje.json.view.ViewBuilder;
+import io.avaje.jsonb.Jsonb;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.IntFunction;
+
+/**
+ * Reading and writing of the {@link RecordFormat#COLUMNS} format of collections of
+ * records.
+ *
+ * <p>Components are read through their accessors and records created through the
+ * canonical constructor, with the property names and adapters of the record's generated
+ * adapter, so {@code @Json.Property} names and naming conventions are kept. A record
+ * whose adapter was not generated for its components, such as a {@code @Json.Value}
+ * record or one with a custom adapter, has no columns layout and its collections are
+ * written as rows. The record is only introspected when a collection is first read or
+ * written in this format.
+ *
+ * @param <T> the record type
+ */
+final class ColumnJson<T> {
+
+    static final String COLUMNS = "cols";
+    static final String DATA = "data";
+
+    private final Jsonb jsonb;
+    private final Class<T> type;
+    private volatile Layout layout;
+
+    private ColumnJson(Jsonb jsonb, Class<T> type) {
+        this.jsonb = jsonb;
+        this.type = type;
+    }
+
+    /**
+     * Returns the codec for the given element type, or null if it is not a record with at
+     * least one component. Whether its adapter permits columns is only known once
+     * {@link #applies()} resolves it.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> ColumnJson<T> of(Jsonb jsonb, Type elementType) {
+        if (elementType instanceof Class<?> cls && cls.isRecord() && cls.getRecordComponents().length > 0) {
+            return new ColumnJson<>(jsonb, (Class<T>) cls);
+        }
+        return null;
+    }
+
+    /** Returns whether the record's adapter is one generated for its components. */
+    boolean applies() {
+        return layout().names != null;
+    }
+
+    /** Writes a non-empty collection, including its braces. */
+    void write(JsonWriter writer, Collection<T> value) {
+        Layout layout = layout();
+        writer.beginObject();
+        writer.name(COLUMNS);
+        writer.beginArray();
+        for (String name : layout.names) {
+            writer.value(name);
+        }
+        writer.endArray();
+        writer.name(DATA);
+        writer.beginArray();
+        for (int column = 0; column < layout.names.length; column++) {
+            JsonAdapter<Object> adapter = layout.adapters[column];
+            MethodHandle accessor = layout.accessors[column];
+            boolean structured = isStructured(layout, column, value);
+            JsonSupport.beginNestedArray(writer);
+            for (T row : value) {
+                Object cell = get(accessor, row);
+                if (cell == null) {
+                    JsonSupport.writePositionalNull(writer);
+                } else if (structured) {
+                    writeStructured(writer, adapter, cell);
+                } else {
+                    adapter.toJson(writer, cell);
+                }
+            }
+            writer.endArray();
+        }
+        writer.endArray();
+        writer.endObject();
+    }
+
+    /**
+     * Returns whether a column holds arrays or objects rather than scalars, probing its
+     * adapter once with the first value of the column that is not null.
+     */
+    private static boolean isStructured(Layout layout, int column, Collection<?> rows) {
+        Boolean structured = layout.structured[column];
+        if (structured == null) {
+            for (Object row : rows) {
+                Object cell = get(layout.accessors[column], row);
+                if (cell != null) {
+                    String json = KeyCodec.writeValue(layout.adapters[column], cell);
+                    structured = json.startsWith("[") || json.startsWith("{");
+                    layout.structured[column] = structured;
+                    break;
+                }
+            }
+        }
+        return structured == Boolean.TRUE;
+    }
+
+    /**
+     * Writes an array or object value as an element of a column. The writer puts no
+     * separator before an array, see {@link JsonSupport#beginNestedArray}, and whether a
+     * value is written as an array can depend on the value, such as an empty collection
+     * in the columns format, so each value is written ahead and copied when it is ASCII.
+     * An empty array the writer is set to leave out still holds a position.
+     */
+    private static void writeStructured(JsonWriter writer, JsonAdapter<Object> adapter, Object cell) {
+        String json = KeyCodec.writeValue(adapter, cell, writer);
+        if (json.isEmpty()) {
+            writer.rawValue("[]");
+        } else if (CharMatcher.ascii().matchesAllOf(json)) {
+            writer.rawValue(json);
+        } else {
+            if (json.startsWith("[")) {
+                writer.rawValue("");
+            }
+            adapter.toJson(writer, cell);
+        }
+    }
+
+    /**
+     * Reads a collection written in the columns format, from its opening brace, into a
+     * builder created for the number of rows.
+     */
+    @SuppressWarnings("unchecked")
+    <C extends ImmutableCollection<T>> C read(JsonReader reader, IntFunction<ImmutableCollection.Builder<T>> builders) {
+        Layout layout = layout();
+        reader.beginObject();
+        expectField(reader, COLUMNS);
+        int[] positions = readPositions(reader, layout);
+        expectField(reader, DATA);
+        Object[][] cells = new Object[layout.names.length][];
+        int rows = -1;
+        int column = 0;
+        reader.beginArray();
+        while (reader.hasNextElement()) {
+            if (column == positions.length) {
+                throw new JsonDataException("More data arrays than columns at " + reader.location());
+            }
+            int position = positions[column++];
+            int size;
+            if (position < 0) {
+                size = skipColumn(reader);
+            } else {
+                cells[position] = readColumn(reader, layout.adapters[position], rows);
+                size = cells[position].length;
+            }
+            if (rows >= 0 && size != rows) {
+                throw new JsonDataException(
+                        "Column of " + size + " values, expected " + rows + " at " + reader.location());
+            }
+            rows = size;
+        }
+        reader.endArray();
+        if (column != positions.length) {
+            throw new JsonDataException("Fewer data arrays than columns at " + reader.location());
+        }
+        if (reader.hasNextField()) {
+            throw new JsonDataException("Unexpected field after \"" + DATA + "\" at " + reader.location());
+        }
+        reader.endObject();
+
+        rows = Math.max(rows, 0);
+        ImmutableCollection.Builder<T> builder = builders.apply(rows);
+        Object[] arguments = new Object[layout.names.length];
+        for (int row = 0; row < rows; row++) {
+            for (int component = 0; component < arguments.length; component++) {
+                Object[] values = cells[component];
+                Object argument = values == null ? null : values[row];
+                arguments[component] = argument != null ? argument : layout.defaults[component];
+            }
+            builder.add(type.cast(create(layout.constructor, arguments)));
+        }
+        return (C) builder.build();
+    }
+
+    private static void expectField(JsonReader reader, String name) {
+        if (!reader.hasNextField() || !name.equals(reader.nextField())) {
+            throw new JsonDataException("Expected \"" + name + "\" at " + reader.location());
+        }
+    }
+
+    /** Reads the column names, returning the component position of each, or -1 if unknown. */
+    private static int[] readPositions(JsonReader reader, Layout layout) {
+        int[] positions = new int[layout.names.length];
+        int count = 0;
+        reader.beginArray();
+        while (reader.hasNextElement()) {
+            String name = reader.readString();
+            if (count == positions.length) {
+                positions = Arrays.copyOf(positions, count * 2);
+            }
+            positions[count++] = Arrays.asList(layout.names).indexOf(name);
+        }
+        reader.endArray();
+        return Arrays.copyOf(positions, count);
+    }
+
+    /** Reads one column, of the given number of values if it is known, or else of any. */
+    private static Object[] readColumn(JsonReader reader, JsonAdapter<Object> adapter, int rows) {
+        Object[] values = new Object[rows >= 0 ? rows : 16];
+        int size = 0;
+        reader.beginArray();
+        while (reader.hasNextElement()) {
+            if (size == values.length) {
+                if (rows >= 0) {
+                    throw new JsonDataException("Column of more than " + rows + " values at " + reader.location());
+                }
+                values = ScratchBuffer.grow(values);
+            }
+            values[size++] = adapter.fromJson(reader);
+        }
+        reader.endArray();
+        return size == values.length ? values : Arrays.copyOf(values, size);
+    }
+
+    private static int skipColumn(JsonReader reader) {
+        int size = 0;
+        reader.beginArray();
+        while (reader.hasNextElement()) {
+            reader.skipValue();
+            size++;
+        }
+        reader.endArray();
+        return size;
+    }
+
+    private static Object get(MethodHandle accessor, Object row) {
+        try {
+            return (Object) accessor.invokeExact(row);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Object create(MethodHandle constructor, Object[] arguments) {
+        try {
+            return (Object) constructor.invokeExact(arguments);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Layout layout() {
+        Layout current = layout;
+        if (current == null) {
+            // racing threads may each build an equivalent layout
+            current = new Layout(jsonb, type);
+            layout = current;
+        }
+        return current;
+    }
+
+    /**
+     * Component names, adapters, accessors and the canonical constructor of a record, and
+     * whether each component holds arrays or objects, once known. The names are null if
+     * the adapter of the record was not generated for its components.
+     */
+    private static final class Layout {
+
+        final String[] names;
+        final JsonAdapter<Object>[] adapters;
+        final MethodHandle[] accessors;
+        final Object[] defaults;
+        final Boolean[] structured;
+        final MethodHandle constructor;
+
+        @SuppressWarnings("unchecked")
+        Layout(Jsonb jsonb, Class<?> type) {
+            RecordComponent[] components = type.getRecordComponents();
+            Properties properties = Properties.of(jsonb.adapter(type), components);
+            if (properties == null) {
+                names = null;
+                adapters = null;
+                accessors = null;
+                defaults = null;
+                structured = null;
+                constructor = null;
+                return;
+            }
+            names = properties.names;
+            adapters = properties.adapters;
+            accessors = new MethodHandle[components.length];
+            defaults = new Object[components.length];
+            structured = new Boolean[components.length];
+            Class<?>[] parameterTypes = new Class<?>[components.length];
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            try {
+                for (int i = 0; i < components.length; i++) {
+                    RecordComponent component = components[i];
+                    defaults[i] = Defaults.defaultValue(component.getType());
+                    parameterTypes[i] = component.getType();
+                    component.getAccessor().setAccessible(true);
+                    accessors[i] = lookup.unreflect(component.getAccessor())
+                            .asType(MethodType.methodType(Object.class, Object.class));
+                }
+                Constructor<?> canonical = type.getDeclaredConstructor(parameterTypes);
+                canonical.setAccessible(true);
+                constructor = lookup.unreflectConstructor(canonical)
+                        .asSpreader(Object[].class, components.length)
+                        .asType(MethodType.methodType(Object.class, Object[].class));
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                throw new IllegalStateException("Cannot access the components of " + type.getName(), e);
+            }
+        }
+    }
+
+    /**
+     * The property names and adapters of a generated record adapter, collected through
+     * the view support of generated adapters, which adds each property with the accessor
+     * it reads.
+     */
+    private static final class Properties implements ViewBuilder {
+
+        private final RecordComponent[] components;
+        final String[] names;
+        final JsonAdapter<Object>[] adapters;
+        private int depth;
+        private int accessor = -1;
+        private boolean unsupported;
+
+        @SuppressWarnings({"rawtypes", "unchecked"})
+        private Properties(RecordComponent[] components) {
+            this.components = components;
+            this.names = new String[components.length];
+            this.adapters = new JsonAdapter[components.length];
+        }
+
+        /**
+         * Returns the properties of the adapter, or null unless it has exactly one property
+         * per component, each read through the component's accessor.
+         */
+        static Properties of(JsonAdapter<?> adapter, RecordComponent[] components) {
+            if (!adapter.isViewBuilderAware()) {
+                return null;
+            }
+            Properties properties = new Properties(components);
+            adapter.viewBuild().build(properties, null, null);
+            if (properties.unsupported || Arrays.asList(properties.names).contains(null)) {
+                return null;
+            }
+            return properties;
+        }
+
+        @Override
+        public void beginObject(String name, MethodHandle handle) {
+            if (depth++ > 0) {
+                unsupported = true;
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void add(String name, JsonAdapter<?> adapter, MethodHandle handle) {
+            if (accessor < 0 || names[accessor] != null) {
+                unsupported = true;
+            } else {
+                names[accessor] = name;
+                adapters[accessor] = (JsonAdapter<Object>) adapter;
+            }
+            accessor = -1;
+        }
+
+        @Override
+        public void addArray(String name, JsonAdapter<?> adapter, MethodHandle handle) {
+            unsupported = true;
+        }
+
+        @Override
+        public void endObject() {
+            depth--;
+        }
+
+        @Override
+        public MethodHandle field(Class<?> cls, String name) {
+            accessor = -1;
+            return null;
+        }
+
+        @Override
+        public MethodHandle method(Class<?> cls, String name, Class<?> returnType) {
+            accessor = -1;
+            for (int i = 0; i < components.length; i++) {
+                if (components[i].getName().equals(name)) {
+                    accessor = i;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.bitfiddling.avaje.guava;
+
+import com.google.common.collect.ConcurrentHashMultiset;
+import io.avaje.json.JsonAdapter;
+import io.avaje.json.JsonReader;
+import io.avaje.json.JsonWriter;
+import io.avaje.jsonb.AdapterFactory;
+import io.avaje.jsonb.Jsonb;
+import io.avaje.jsonb.Types;
+import java.lang.reflect.Type;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * JsonAdapter for Guava ConcurrentHashMultiset, writing {@link MultisetFormat#COUNTS} by
+ * default.
+ *
+ * <p>A multiset is written from its weakly consistent entry set without locking, so
+ * threads updating it are not blocked; each count is read once, and updates made while it
+ * is written may or may not be seen. Decoded multisets are backed by a ConcurrentHashMap
+ * sized for the expected number of distinct elements.
+ *
+ * @param <T> the element type
+ */
+public final class ConcurrentHashMultisetAdapter<T> implements JsonAdapter<ConcurrentHashMultiset<T>> {
+
+    /** Factory for creating ConcurrentHashMultisetAdapter instances. */
+    public static final AdapterFactory FACTORY = factory(MultisetFormat.COUNTS);
+
+    /**
+     * Returns a factory for ConcurrentHashMultisetAdapter instances that write the given format.
+     *
+     * @param format the format to write
+     * @return the adapter factory
+     */
+    public static AdapterFactory factory(MultisetFormat format) {
+        return (Type type, Jsonb jsonb) -> {
+            if (Types.isGenericTypeOf(type, ConcurrentHashMultiset.class)) {
+                return new ConcurrentHashMultisetAdapter<>(jsonb, Types.typeArguments(type), format);
+            }
+            return null;
+        };
+    }
+
+    private final MultisetJson<T> multisetJson;
+    private final SizeEstimate sizeEstimate = new SizeEstimate();
+
+    /**
+     * Creates a new ConcurrentHashMultisetAdapter.
+     *
+     * @param jsonb the Jsonb instance
+     * @param types the generic type arguments
+     */
+    public ConcurrentHashMultisetAdapter(Jsonb jsonb, Type[] types) {
+        this(jsonb, types, MultisetFormat.COUNTS);
+    }
+
+    /**
+     * Creates a new ConcurrentHashMultisetAdapter that writes the given format.
+     *
+     * @param jsonb the Jsonb instance
+     * @param types the generic type arguments
+     * @param format the format to write
+     */
+    public ConcurrentHashMultisetAdapter(Jsonb jsonb, Type[] types, MultisetFormat format) {
+        this.multisetJson = new MultisetJson<>(jsonb, types[0], format, null);
+    }
+
+    @Override
+    public ConcurrentHashMultiset<T> fromJson(JsonReader reader) {
+        ConcurrentHashMultiset<T> multiset =
+                ConcurrentHashMultiset.create(new ConcurrentHashMap<>(sizeEstimate.expectedSize()));
+        multisetJson.read(reader, multiset::add);
+        sizeEstimate.record(multiset.elementSet().size());
+        return multiset;
+    }
+
+    @Override
+    public void toJson(JsonWriter writer, ConcurrentHashMultiset<T> value) {
+        if (value == null) {
+            writer.nullValue();
+            return;
+        }
+        if (value.isEmpty()) {
+            writer.emptyArray();
+            return;
+        }
+        multisetJson.write(writer, value);
+    }
+}
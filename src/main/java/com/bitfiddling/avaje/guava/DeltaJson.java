@@ -0,0 +1,171 @@
+package com.bitfiddling.avaje.guava;
+
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.Ordering;
+import io.avaje.json.JsonDataException;
+import io.avaje.json.JsonReader;
+import io.avaje.json.JsonWriter;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Reading and writing of the {@link SortedSetFormat#DELTAS} format of sorted sets of
+ * integral elements.
+ *
+ * <p>The first member is written as is, followed by the positive gap to each next member.
+ * Runs of two or more consecutive members, which would each have a gap of 1, are written
+ * as one negative number. Decoded members are strictly ascending by construction, so the
+ * set is built without sorting. As one number can stand for any number of members, a
+ * decoded set is limited to a maximum size.
+ */
+final class DeltaJson {
+
+    static final String FIELD = "deltas";
+
+    private final Type elementType;
+    private final long minimum;
+    private final long maximum;
+    private final int maximumSize;
+
+    private DeltaJson(Type elementType, long minimum, long maximum, int maximumSize) {
+        this.elementType = elementType;
+        this.minimum = minimum;
+        this.maximum = maximum;
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * Returns the codec for the given element type, decoding sets of up to
+     * {@code maximumSize} members, or null if the type is not integral.
+     */
+    static DeltaJson of(Type elementType, int maximumSize) {
+        if (elementType == Long.class) {
+            return new DeltaJson(elementType, Long.MIN_VALUE, Long.MAX_VALUE, maximumSize);
+        } else if (elementType == Integer.class) {
+            return new DeltaJson(elementType, Integer.MIN_VALUE, Integer.MAX_VALUE, maximumSize);
+        } else if (elementType == Short.class) {
+            return new DeltaJson(elementType, Short.MIN_VALUE, Short.MAX_VALUE, maximumSize);
+        } else if (elementType == Byte.class) {
+            return new DeltaJson(elementType, Byte.MIN_VALUE, Byte.MAX_VALUE, maximumSize);
+        }
+        return null;
+    }
+
+    /**
+     * Writes a non-empty set, returning false without writing anything if it is not in
+     * natural order or the distance between its first and last members does not fit a long.
+     */
+    boolean write(JsonWriter writer, ImmutableSortedSet<? extends Number> value) {
+        long previous = value.first().longValue();
+        long last = value.last().longValue();
+        if (!Ordering.natural().equals(value.comparator()) || last - previous < 0) {
+            return false;
+        }
+        writer.beginObject();
+        writer.name(FIELD);
+        writer.beginArray();
+        writer.value(previous);
+        long run = 0;
+        Iterator<? extends Number> members = value.iterator();
+        members.next();
+        while (members.hasNext()) {
+            long next = members.next().longValue();
+            long gap = next - previous;
+            if (gap == 1) {
+                run++;
+            } else {
+                writeRun(writer, run);
+                run = 0;
+                writer.value(gap);
+            }
+            previous = next;
+        }
+        writeRun(writer, run);
+        writer.endArray();
+        writer.endObject();
+        return true;
+    }
+
+    private static void writeRun(JsonWriter writer, long run) {
+        if (run == 1) {
+            writer.value(1L);
+        } else if (run > 1) {
+            writer.value(-run);
+        }
+    }
+
+    /** Reads a set written in the deltas format, from its opening brace. */
+    @SuppressWarnings("unchecked")
+    <T> ImmutableSortedSet<T> read(JsonReader reader, ScratchBuffer scratch, SizeEstimate sizeEstimate) {
+        reader.beginObject();
+        if (!reader.hasNextField() || !FIELD.equals(reader.nextField())) {
+            throw new JsonDataException("Expected \"" + FIELD + "\" at " + reader.location());
+        }
+        Object[] elements = scratch.acquire(sizeEstimate.expectedSize());
+        int size = 0;
+        reader.beginArray();
+        if (reader.hasNextElement()) {
+            if (maximumSize == 0) {
+                throw tooLarge(reader);
+            }
+            long value = reader.readLong();
+            elements[size++] = box(value, reader);
+            while (reader.hasNextElement()) {
+                long step = reader.readLong();
+                if (step == 0 || step == Long.MIN_VALUE) {
+                    throw new JsonDataException("Invalid delta " + step + " at " + reader.location());
+                }
+                long count = step > 0 ? 1 : -step;
+                long gap = step > 0 ? step : 1;
+                if (count > maximumSize - size) {
+                    throw tooLarge(reader);
+                }
+                for (long i = 0; i < count; i++) {
+                    long next = value + gap;
+                    if (next < value) {
+                        throw new JsonDataException(
+                                "Delta overflows " + elementType.getTypeName() + " at " + reader.location());
+                    }
+                    value = next;
+                    if (size == elements.length) {
+                        elements = ScratchBuffer.grow(elements);
+                    }
+                    elements[size++] = box(value, reader);
+                }
+            }
+        }
+        reader.endArray();
+        if (reader.hasNextField()) {
+            throw new JsonDataException("Unexpected field after \"" + FIELD + "\" at " + reader.location());
+        }
+        reader.endObject();
+        sizeEstimate.record(size);
+        List<T> decoded = (List<T>) (List<?>) Arrays.asList(elements).subList(0, size);
+        // the members are decoded in ascending order, which copyOf's merge sort checks in one pass
+        ImmutableSortedSet<T> result =
+                ImmutableSortedSet.copyOf((Ordering<T>) (Ordering<?>) Ordering.natural(), decoded);
+        scratch.release(elements, size);
+        return result;
+    }
+
+    private JsonDataException tooLarge(JsonReader reader) {
+        return new JsonDataException("Set of more than " + maximumSize + " members at " + reader.location());
+    }
+
+    private Object box(long value, JsonReader reader) {
+        if (value < minimum || value > maximum) {
+            throw new JsonDataException(
+                    "Value " + value + " out of range for " + elementType.getTypeName() + " at " + reader.location());
+        }
+        if (elementType == Long.class) {
+            return value;
+        } else if (elementType == Integer.class) {
+            return (int) value;
+        } else if (elementType == Short.class) {
+            return (short) value;
+        }
+        return (byte) value;
+    }
+}
@@ -0,0 +1,76 @@
+package com.bitfiddling.avaje.guava;
+
+import com.google.common.collect.EnumBiMap;
+import io.avaje.json.JsonAdapter;
+import io.avaje.json.JsonDataException;
+import io.avaje.json.JsonReader;
+import io.avaje.json.JsonWriter;
+import io.avaje.jsonb.AdapterFactory;
+import io.avaje.jsonb.Jsonb;
+import io.avaje.jsonb.Types;
+import java.lang.reflect.Type;
+
+/**
+ * JsonAdapter for Guava EnumBiMap, written as a JSON object from key constants to value
+ * constants, both from cached names.
+ *
+ * @param <K> the enum key type
+ * @param <V> the enum value type
+ */
+public final class EnumBiMapAdapter<K extends Enum<K>, V extends Enum<V>> implements JsonAdapter<EnumBiMap<K, V>> {
+
+    /** Factory for creating EnumBiMapAdapter instances. */
+    public static final AdapterFactory FACTORY = (Type type, Jsonb jsonb) -> {
+        if (Types.isGenericTypeOf(type, EnumBiMap.class)) {
+            return new EnumBiMapAdapter<>(jsonb, Types.typeArguments(type));
+        }
+        return null;
+    };
+
+    private final EnumNames<K> keyNames;
+    private final EnumNames<V> valueNames;
+
+    /**
+     * Creates a new EnumBiMapAdapter.
+     *
+     * @param jsonb the Jsonb instance
+     * @param types the generic type arguments
+     */
+    public EnumBiMapAdapter(Jsonb jsonb, Type[] types) {
+        this.keyNames = EnumNames.of(jsonb, types[0]);
+        this.valueNames = EnumNames.of(jsonb, types[1]);
+    }
+
+    @Override
+    public EnumBiMap<K, V> fromJson(JsonReader reader) {
+        EnumBiMap<K, V> biMap = EnumBiMap.create(keyNames.type(), valueNames.type());
+        reader.beginObject();
+        while (reader.hasNextField()) {
+            K key = keyNames.decode(reader.nextField());
+            V value = valueNames.fromJson(reader);
+            if (value == null) {
+                throw new JsonDataException("Null value for key " + key + " at " + reader.location());
+            }
+            if (biMap.containsKey(key) || biMap.containsValue(value)) {
+                throw new JsonDataException("Duplicate key " + key + " or value " + value + " at " + reader.location());
+            }
+            biMap.put(key, value);
+        }
+        reader.endObject();
+        return biMap;
+    }
+
+    @Override
+    public void toJson(JsonWriter writer, EnumBiMap<K, V> value) {
+        if (value == null) {
+            writer.nullValue();
+            return;
+        }
+        if (value.isEmpty()) {
+            writer.beginObject();
+            writer.endObject();
+            return;
+        }
+        keyNames.write(writer, value, valueNames);
+    }
+}
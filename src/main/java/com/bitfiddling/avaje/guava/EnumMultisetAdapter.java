@@ -0,0 +1,82 @@
+package com.bitfiddling.avaje.guava;
+
+import com.google.common.collect.EnumMultiset;
+import io.avaje.json.JsonAdapter;
+import io.avaje.json.JsonReader;
+import io.avaje.json.JsonWriter;
+import io.avaje.jsonb.AdapterFactory;
+import io.avaje.jsonb.Jsonb;
+import io.avaje.jsonb.Types;
+import java.lang.reflect.Type;
+
+/**
+ * JsonAdapter for Guava EnumMultiset, reading and writing constants from cached names.
+ *
+ * @param <E> the enum type
+ */
+public final class EnumMultisetAdapter<E extends Enum<E>> implements JsonAdapter<EnumMultiset<E>> {
+
+    /** Factory for creating EnumMultisetAdapter instances. */
+    public static final AdapterFactory FACTORY = factory(MultisetFormat.ELEMENTS);
+
+    /**
+     * Returns a factory for EnumMultisetAdapter instances that write the given format.
+     *
+     * @param format the format to write
+     * @return the adapter factory
+     */
+    public static AdapterFactory factory(MultisetFormat format) {
+        return (Type type, Jsonb jsonb) -> {
+            if (Types.isGenericTypeOf(type, EnumMultiset.class)) {
+                return new EnumMultisetAdapter<>(jsonb, Types.typeArguments(type), format);
+            }
+            return null;
+        };
+    }
+
+    private final Class<E> elementType;
+    private final MultisetJson<E> multisetJson;
+
+    /**
+     * Creates a new EnumMultisetAdapter.
+     *
+     * @param jsonb the Jsonb instance
+     * @param types the generic type arguments
+     */
+    public EnumMultisetAdapter(Jsonb jsonb, Type[] types) {
+        this(jsonb, types, MultisetFormat.ELEMENTS);
+    }
+
+    /**
+     * Creates a new EnumMultisetAdapter that writes the given format.
+     *
+     * @param jsonb the Jsonb instance
+     * @param types the generic type arguments
+     * @param format the format to write
+     */
+    public EnumMultisetAdapter(Jsonb jsonb, Type[] types, MultisetFormat format) {
+        EnumNames<E> elementNames = EnumNames.of(jsonb, types[0]);
+        this.elementType = elementNames.type();
+        this.multisetJson = new MultisetJson<>(elementNames, format);
+    }
+
+    @Override
+    public EnumMultiset<E> fromJson(JsonReader reader) {
+        EnumMultiset<E> multiset = EnumMultiset.create(elementType);
+        multisetJson.read(reader, multiset::add);
+        return multiset;
+    }
+
+    @Override
+    public void toJson(JsonWriter writer, EnumMultiset<E> value) {
+        if (value == null) {
+            writer.nullValue();
+            return;
+        }
+        if (value.isEmpty()) {
+            writer.emptyArray();
+            return;
+        }
+        multisetJson.write(writer, value);
+    }
+}
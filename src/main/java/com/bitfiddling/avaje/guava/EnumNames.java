@@ -0,0 +1,125 @@
+package com.bitfiddling.avaje.guava;
+
+import com.google.common.base.CharMatcher;
+import com.google.common.collect.ImmutableMap;
+import io.avaje.json.JsonAdapter;
+import io.avaje.json.JsonDataException;
+import io.avaje.json.JsonReader;
+import io.avaje.json.JsonWriter;
+import io.avaje.json.PropertyNames;
+import io.avaje.jsonb.Jsonb;
+import java.lang.reflect.Type;
+import java.util.Map;
+
+/**
+ * The JSON forms of the constants of an enum type, computed once from its registered
+ * adapter, so that {@code @Json.Value} and other custom forms are honoured.
+ *
+ * <p>As an adapter it writes each constant by copying its cached JSON, and reads string
+ * forms through a name-to-constant table. {@link #write} writes enum-keyed maps with
+ * pre-escaped field names indexed by ordinal, so neither writes a constant's name out
+ * again nor hashes its key.
+ *
+ * @param <E> the enum type
+ */
+final class EnumNames<E extends Enum<E>> implements JsonAdapter<E> {
+
+    private final Class<E> type;
+    private final JsonAdapter<E> adapter;
+    private final String[] values;
+    private final ImmutableMap<String, E> byValue;
+    private final ImmutableMap<String, E> byName;
+    private final PropertyNames names;
+
+    private EnumNames(Jsonb jsonb, Class<E> type) {
+        this.type = type;
+        this.adapter = jsonb.adapter(type);
+        KeyCodec<E> keyCodec = KeyCodec.of(jsonb, type);
+        E[] constants = type.getEnumConstants();
+        String[] values = new String[constants.length];
+        String[] fieldNames = new String[constants.length];
+        ImmutableMap.Builder<String, E> byName = ImmutableMap.builderWithExpectedSize(constants.length);
+        boolean ascii = true;
+        boolean strings = true;
+        for (E constant : constants) {
+            String json = KeyCodec.writeValue(adapter, constant);
+            ascii &= CharMatcher.ascii().matchesAllOf(json);
+            strings &= json.startsWith("\"");
+            values[constant.ordinal()] = json;
+            fieldNames[constant.ordinal()] = keyCodec.encode(constant);
+            byName.put(fieldNames[constant.ordinal()], constant);
+        }
+        this.values = ascii ? values : null;
+        this.byName = byName.buildOrThrow();
+        // a string form is the field name of the same constant
+        this.byValue = strings ? this.byName : null;
+        this.names = jsonb.properties(fieldNames);
+    }
+
+    /**
+     * Returns the names of the given enum type.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static <E extends Enum<E>> EnumNames<E> of(Jsonb jsonb, Type type) {
+        return new EnumNames<>(jsonb, (Class) type);
+    }
+
+    /**
+     * Returns whether the given type argument is an enum type.
+     */
+    static boolean isEnum(Type type) {
+        return type instanceof Class<?> cls && cls.isEnum();
+    }
+
+    /** Returns the enum type. */
+    Class<E> type() {
+        return type;
+    }
+
+    @Override
+    public E fromJson(JsonReader reader) {
+        if (byValue == null) {
+            return adapter.fromJson(reader);
+        }
+        if (reader.isNullValue()) {
+            return null;
+        }
+        String value = reader.readString();
+        E constant = byValue.get(value);
+        if (constant == null) {
+            throw new JsonDataException(
+                    "Unknown " + type.getName() + " constant '" + value + "' at " + reader.location());
+        }
+        return constant;
+    }
+
+    @Override
+    public void toJson(JsonWriter writer, E value) {
+        if (value == null) {
+            writer.nullValue();
+        } else if (values != null) {
+            writer.rawValue(values[value.ordinal()]);
+        } else {
+            adapter.toJson(writer, value);
+        }
+    }
+
+    /** Decodes a JSON field name into a constant. */
+    E decode(String name) {
+        E constant = byName.get(name);
+        if (constant == null) {
+            throw new JsonDataException("Invalid map key '" + name + "' for " + type.getName());
+        }
+        return constant;
+    }
+
+    /** Writes an enum-keyed map as a JSON object, including its braces. */
+    <V> void write(JsonWriter writer, Map<E, V> map, JsonAdapter<V> valueAdapter) {
+        writer.beginObject(names);
+        for (var entry : map.entrySet()) {
+            writer.name(entry.getKey().ordinal());
+            valueAdapter.toJson(writer, entry.getValue());
+        }
+        writer.endObject();
+    }
+}
@@ -0,0 +1,66 @@
+package com.bitfiddling.avaje.guava;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.Funnel;
+import com.google.common.hash.Funnels;
+import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The {@link Funnel}s that BloomFilters are read with, by element type.
+ *
+ * <p>The serialized form of a BloomFilter does not record its funnel, and a filter read
+ * with a funnel other than the one it was built with gives wrong answers, so funnels are
+ * only registered by default where Guava offers a single one: {@code Integer},
+ * {@code Long} and {@code byte[]}. Other element types, including {@code String}, must be
+ * registered with the funnel their filters are built with. Registries are immutable.
+ *
+ * <pre>{@code
+ * Jsonb jsonb = Jsonb.builder()
+ *     .add(BloomFilterAdapter.factory(FunnelRegistry.defaults()
+ *         .with(String.class, Funnels.stringFunnel(StandardCharsets.UTF_8))))
+ *     .build();
+ * }</pre>
+ */
+public final class FunnelRegistry {
+
+    private static final FunnelRegistry DEFAULTS = new FunnelRegistry(ImmutableMap.of(
+            Integer.class, Funnels.integerFunnel(),
+            Long.class, Funnels.longFunnel(),
+            byte[].class, Funnels.byteArrayFunnel()));
+
+    private final ImmutableMap<Type, Funnel<?>> funnels;
+
+    private FunnelRegistry(ImmutableMap<Type, Funnel<?>> funnels) {
+        this.funnels = funnels;
+    }
+
+    /**
+     * Returns the registry of the funnels for {@code Integer}, {@code Long} and {@code byte[]}.
+     *
+     * @return the default registry
+     */
+    public static FunnelRegistry defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * Returns a registry that also holds the given funnel, replacing any for the same type.
+     *
+     * @param type the element type
+     * @param funnel the funnel filters of the element type are built with
+     * @param <T> the element type
+     * @return the new registry
+     */
+    public <T> FunnelRegistry with(Class<T> type, Funnel<? super T> funnel) {
+        Map<Type, Funnel<?>> added = new HashMap<>(funnels);
+        added.put(type, funnel);
+        return new FunnelRegistry(ImmutableMap.copyOf(added));
+    }
+
+    /** Returns the funnel for the given element type, or null if none is registered. */
+    Funnel<?> funnel(Type type) {
+        return funnels.get(type);
+    }
+}
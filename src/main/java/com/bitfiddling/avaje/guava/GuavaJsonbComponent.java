@@ -0,0 +1,168 @@
+package com.bitfiddling.avaje.guava;
+
+import com.google.common.cache.Cache;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ArrayTable;
+import com.google.common.collect.ConcurrentHashMultiset;
+import com.google.common.collect.EnumBiMap;
+import com.google.common.collect.EnumMultiset;
+import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.ImmutableBiMap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableMultiset;
+import com.google.common.collect.ImmutableRangeMap;
+import com.google.common.collect.ImmutableRangeSet;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.ImmutableSortedMultiset;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.ImmutableTable;
+import com.google.common.collect.LinkedHashMultiset;
+import com.google.common.collect.Range;
+import com.google.common.collect.TreeBasedTable;
+import com.google.common.collect.TreeMultiset;
+import com.google.common.collect.TreeRangeSet;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.HashCode;
+import com.google.common.primitives.ImmutableDoubleArray;
+import com.google.common.primitives.ImmutableIntArray;
+import com.google.common.primitives.ImmutableLongArray;
+import com.google.common.util.concurrent.AtomicLongMap;
+import io.avaje.json.JsonAdapter;
+import io.avaje.jsonb.AdapterFactory;
+import io.avaje.jsonb.Jsonb;
+import io.avaje.jsonb.spi.JsonbComponent;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Registers the adapters of this library with Jsonb as one factory.
+ *
+ * <p>The factory looks up the raw class of each type Jsonb resolves in a single map and
+ * calls the matching adapter constructor, so resolving a type costs one lookup however
+ * many adapters there are, and types unrelated to Guava are passed over after that one
+ * lookup. The enum-specialised ImmutableSet and ImmutableMap adapters, which decode in
+ * declaration order, are not registered here and are opted into through their factories.
+ * The adapters that can intern decoded strings have a second map of constructors, used by
+ * {@link StringInterning#factory()}. The component is found through the
+ * {@code JsonbExtension} service loader; the {@code FACTORY} of each adapter remains
+ * available for registering adapters one by one.
+ */
+public final class GuavaJsonbComponent implements JsonbComponent {
+
+    /** Factory for the adapters of all supported Guava types. */
+    public static final AdapterFactory FACTORY = GuavaJsonbComponent::create;
+
+    private static final Map<Class<?>, Constructor> GENERIC = new IdentityHashMap<>();
+    private static final Map<Class<?>, Function<Jsonb, JsonAdapter<?>>> PLAIN = new IdentityHashMap<>();
+    private static final Map<Class<?>, InterningConstructor> INTERNING = new IdentityHashMap<>();
+
+    static {
+        GENERIC.put(ImmutableList.class, ImmutableListAdapter::new);
+        GENERIC.put(ImmutableSet.class, ImmutableSetAdapter::new);
+        GENERIC.put(ImmutableSortedSet.class, ImmutableSortedSetAdapter::new);
+        GENERIC.put(ImmutableMap.class, ImmutableMapAdapter::new);
+        GENERIC.put(ImmutableSortedMap.class, ImmutableSortedMapAdapter::new);
+        GENERIC.put(ImmutableBiMap.class, ImmutableBiMapAdapter::new);
+        GENERIC.put(EnumBiMap.class, EnumBiMapAdapter::new);
+        GENERIC.put(ImmutableMultiset.class, ImmutableMultisetAdapter::new);
+        GENERIC.put(ImmutableSortedMultiset.class, ImmutableSortedMultisetAdapter::new);
+        GENERIC.put(HashMultiset.class, HashMultisetAdapter::new);
+        GENERIC.put(LinkedHashMultiset.class, LinkedHashMultisetAdapter::new);
+        GENERIC.put(TreeMultiset.class, TreeMultisetAdapter::new);
+        GENERIC.put(EnumMultiset.class, EnumMultisetAdapter::new);
+        GENERIC.put(ConcurrentHashMultiset.class, ConcurrentHashMultisetAdapter::new);
+        GENERIC.put(AtomicLongMap.class, AtomicLongMapAdapter::new);
+        GENERIC.put(Cache.class, CacheAdapter::new);
+        GENERIC.put(BloomFilter.class, BloomFilterAdapter::new);
+        GENERIC.put(LazyList.class, LazyListAdapter::new);
+        GENERIC.put(ImmutableListMultimap.class, ImmutableListMultimapAdapter::new);
+        GENERIC.put(ImmutableSetMultimap.class, ImmutableSetMultimapAdapter::new);
+        GENERIC.put(ArrayListMultimap.class, ArrayListMultimapAdapter::new);
+        GENERIC.put(HashMultimap.class, HashMultimapAdapter::new);
+        GENERIC.put(ImmutableTable.class, ImmutableTableAdapter::new);
+        GENERIC.put(HashBasedTable.class, HashBasedTableAdapter::new);
+        GENERIC.put(TreeBasedTable.class, TreeBasedTableAdapter::new);
+        GENERIC.put(ArrayTable.class, ArrayTableAdapter::new);
+        GENERIC.put(Range.class, RangeAdapter::new);
+        GENERIC.put(ImmutableRangeSet.class, ImmutableRangeSetAdapter::new);
+        GENERIC.put(TreeRangeSet.class, TreeRangeSetAdapter::new);
+        GENERIC.put(ImmutableRangeMap.class, ImmutableRangeMapAdapter::new);
+        PLAIN.put(ImmutableIntArray.class, ImmutableIntArrayAdapter::new);
+        PLAIN.put(ImmutableLongArray.class, ImmutableLongArrayAdapter::new);
+        PLAIN.put(ImmutableDoubleArray.class, ImmutableDoubleArrayAdapter::new);
+        PLAIN.put(HashCode.class, HashCodeAdapter::new);
+        INTERNING.put(
+                ImmutableList.class,
+                (jsonb, types, format, interning) -> new ImmutableListAdapter<>(jsonb, types, interning));
+        INTERNING.put(
+                ImmutableSet.class,
+                (jsonb, types, format, interning) -> new ImmutableSetAdapter<>(jsonb, types, interning));
+        INTERNING.put(
+                ImmutableSortedSet.class,
+                (jsonb, types, format, interning) -> new ImmutableSortedSetAdapter<>(jsonb, types, interning));
+        INTERNING.put(
+                ImmutableMap.class,
+                (jsonb, types, format, interning) -> new ImmutableMapAdapter<>(jsonb, types, interning));
+        INTERNING.put(
+                ImmutableBiMap.class,
+                (jsonb, types, format, interning) -> new ImmutableBiMapAdapter<>(jsonb, types, interning));
+        INTERNING.put(ImmutableMultiset.class, ImmutableMultisetAdapter::new);
+        INTERNING.put(ImmutableSortedMultiset.class, ImmutableSortedMultisetAdapter::new);
+        INTERNING.put(HashMultiset.class, HashMultisetAdapter::new);
+        INTERNING.put(LinkedHashMultiset.class, LinkedHashMultisetAdapter::new);
+        INTERNING.put(TreeMultiset.class, TreeMultisetAdapter::new);
+    }
+
+    /** Creates the component; it is instantiated by the service loader. */
+    public GuavaJsonbComponent() {}
+
+    @Override
+    public void register(Jsonb.Builder builder) {
+        builder.add(FACTORY);
+    }
+
+    private static JsonAdapter<?> create(Type type, Jsonb jsonb) {
+        if (type instanceof ParameterizedType parameterized) {
+            Constructor constructor = GENERIC.get(parameterized.getRawType());
+            return constructor == null ? null : constructor.create(jsonb, parameterized.getActualTypeArguments());
+        }
+        Function<Jsonb, JsonAdapter<?>> constructor = PLAIN.get(type);
+        return constructor == null ? null : constructor.apply(jsonb);
+    }
+
+    /**
+     * Creates the adapter for a type whose adapter can intern decoded strings, or returns
+     * null if there is none, writing multisets in the given format.
+     */
+    static JsonAdapter<?> createInterning(
+            Type type, Jsonb jsonb, MultisetFormat multisetFormat, StringInterning interning) {
+        if (type instanceof ParameterizedType parameterized) {
+            InterningConstructor constructor = INTERNING.get(parameterized.getRawType());
+            if (constructor != null) {
+                return constructor.create(jsonb, parameterized.getActualTypeArguments(), multisetFormat, interning);
+            }
+        }
+        return null;
+    }
+
+    /** The {@code (Jsonb, Type[])} constructor of a generic adapter. */
+    private interface Constructor {
+
+        JsonAdapter<?> create(Jsonb jsonb, Type[] types);
+    }
+
+    /** The constructor of a generic adapter that interns decoded strings. */
+    private interface InterningConstructor {
+
+        JsonAdapter<?> create(Jsonb jsonb, Type[] types, MultisetFormat multisetFormat, StringInterning interning);
+    }
+}
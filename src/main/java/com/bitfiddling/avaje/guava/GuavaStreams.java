@@ -0,0 +1,128 @@
+package com.bitfiddling.avaje.guava;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import io.avaje.json.JsonAdapter;
+import io.avaje.json.JsonReader;
+import io.avaje.jsonb.Jsonb;
+import java.lang.reflect.Type;
+import java.util.function.Consumer;
+
+/**
+ * Streaming decode of JSON arrays, for payloads too large to materialise as a single
+ * collection.
+ *
+ * <p>Elements are decoded one at a time with the adapter registered for the element type
+ * (including the Guava adapters of this library) and handed to a consumer, so memory use
+ * is bounded by the largest element or batch rather than by the whole array. The reader
+ * must be positioned at the start of a JSON array, which is consumed up to and including
+ * its closing bracket; the reader itself is left open.
+ *
+ * <pre>{@code
+ * try (JsonReader reader = jsonb.reader(inputStream)) {
+ *     GuavaStreams.<Order>forEachBatch(jsonb, reader, Order.class, 10_000, batch -> repository.saveAll(batch));
+ * }
+ * }</pre>
+ */
+public final class GuavaStreams {
+
+    /** Initial capacity limit of a batch, so a huge batch size is not allocated up front. */
+    private static final int MAX_INITIAL_BATCH_CAPACITY = 1024;
+
+    private GuavaStreams() {}
+
+    /**
+     * Decodes each element of a JSON array and passes it to the action.
+     *
+     * @param jsonb the Jsonb instance providing the element adapter
+     * @param reader the reader, positioned at the start of an array
+     * @param elementType the element type
+     * @param action the action to run for each element
+     * @param <T> the element type
+     * @return the number of elements read
+     */
+    public static <T> long forEach(Jsonb jsonb, JsonReader reader, Type elementType, Consumer<? super T> action) {
+        return forEach(reader, jsonb.<T>adapter(elementType), action);
+    }
+
+    /**
+     * Decodes each element of a JSON array with the given adapter and passes it to the
+     * action.
+     *
+     * @param reader the reader, positioned at the start of an array
+     * @param elementAdapter the element adapter
+     * @param action the action to run for each element
+     * @param <T> the element type
+     * @return the number of elements read
+     */
+    public static <T> long forEach(JsonReader reader, JsonAdapter<T> elementAdapter, Consumer<? super T> action) {
+        long count = 0;
+        reader.beginArray();
+        while (reader.hasNextElement()) {
+            action.accept(elementAdapter.fromJson(reader));
+            count++;
+        }
+        reader.endArray();
+        return count;
+    }
+
+    /**
+     * Decodes the elements of a JSON array in batches of up to {@code batchSize}
+     * elements. Every batch but the last is full, and no empty batch is passed.
+     *
+     * @param jsonb the Jsonb instance providing the element adapter
+     * @param reader the reader, positioned at the start of an array
+     * @param elementType the element type
+     * @param batchSize the maximum number of elements per batch
+     * @param action the action to run for each batch
+     * @param <T> the element type
+     * @return the number of elements read
+     */
+    public static <T> long forEachBatch(
+            Jsonb jsonb,
+            JsonReader reader,
+            Type elementType,
+            int batchSize,
+            Consumer<? super ImmutableList<T>> action) {
+        return forEachBatch(reader, jsonb.<T>adapter(elementType), batchSize, action);
+    }
+
+    /**
+     * Decodes the elements of a JSON array with the given adapter in batches of up to
+     * {@code batchSize} elements. Every batch but the last is full, and no empty batch
+     * is passed.
+     *
+     * @param reader the reader, positioned at the start of an array
+     * @param elementAdapter the element adapter
+     * @param batchSize the maximum number of elements per batch
+     * @param action the action to run for each batch
+     * @param <T> the element type
+     * @return the number of elements read
+     */
+    public static <T> long forEachBatch(
+            JsonReader reader,
+            JsonAdapter<T> elementAdapter,
+            int batchSize,
+            Consumer<? super ImmutableList<T>> action) {
+        Preconditions.checkArgument(batchSize > 0, "batchSize must be positive: %s", batchSize);
+        long count = 0;
+        int batchCount = 0;
+        int initialCapacity = Math.min(batchSize, MAX_INITIAL_BATCH_CAPACITY);
+        ImmutableList.Builder<T> batch = ImmutableList.builderWithExpectedSize(initialCapacity);
+        reader.beginArray();
+        while (reader.hasNextElement()) {
+            batch.add(elementAdapter.fromJson(reader));
+            count++;
+            if (++batchCount == batchSize) {
+                action.accept(batch.build());
+                batch = ImmutableList.builderWithExpectedSize(initialCapacity);
+                batchCount = 0;
+            }
+        }
+        reader.endArray();
+        if (batchCount > 0) {
+            action.accept(batch.build());
+        }
+        return count;
+    }
+}
@@ -0,0 +1,103 @@
+package com.bitfiddling.avaje.guava;
+
+import com.google.common.collect.HashBasedTable;
+import io.avaje.json.JsonAdapter;
+import io.avaje.json.JsonReader;
+import io.avaje.json.JsonWriter;
+import io.avaje.jsonb.AdapterFactory;
+import io.avaje.jsonb.Jsonb;
+import io.avaje.jsonb.Types;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * JsonAdapter for Guava HashBasedTable.
+ *
+ * @param <R> the row key type
+ * @param <C> the column key type
+ * @param <V> the value type
+ */
+public final class HashBasedTableAdapter<R, C, V> implements JsonAdapter<HashBasedTable<R, C, V>> {
+
+    /** Factory for creating HashBasedTableAdapter instances. */
+    public static final AdapterFactory FACTORY = factory(TableFormat.ROW_MAJOR);
+
+    /**
+     * Returns a factory for HashBasedTableAdapter instances that write the given format.
+     *
+     * @param format the format to write
+     * @return the adapter factory
+     */
+    public static AdapterFactory factory(TableFormat format) {
+        return (Type type, Jsonb jsonb) -> {
+            if (Types.isGenericTypeOf(type, HashBasedTable.class)) {
+                return new HashBasedTableAdapter<>(jsonb, Types.typeArguments(type), format);
+            }
+            return null;
+        };
+    }
+
+    private final TableJson<R, C, V> tableJson;
+
+    /**
+     * Creates a new HashBasedTableAdapter.
+     *
+     * @param jsonb the Jsonb instance
+     * @param types the generic type arguments
+     */
+    public HashBasedTableAdapter(Jsonb jsonb, Type[] types) {
+        this(jsonb, types, TableFormat.ROW_MAJOR);
+    }
+
+    /**
+     * Creates a new HashBasedTableAdapter that writes the given format.
+     *
+     * @param jsonb the Jsonb instance
+     * @param types the generic type arguments
+     * @param format the format to write
+     */
+    public HashBasedTableAdapter(Jsonb jsonb, Type[] types, TableFormat format) {
+        this.tableJson = new TableJson<>(jsonb, types, format);
+    }
+
+    @Override
+    public HashBasedTable<R, C, V> fromJson(JsonReader reader) {
+        Decoder decoder = new Decoder();
+        tableJson.read(reader, decoder);
+        return decoder.table;
+    }
+
+    @Override
+    public void toJson(JsonWriter writer, HashBasedTable<R, C, V> value) {
+        if (value == null) {
+            writer.nullValue();
+            return;
+        }
+        if (value.isEmpty()) {
+            writer.beginObject();
+            writer.endObject();
+            return;
+        }
+        tableJson.write(writer, value);
+    }
+
+    /** Creates the table sized from the columnar keys, or its row map from previous payloads. */
+    private final class Decoder implements TableJson.Sink<R, C, V> {
+
+        private HashBasedTable<R, C, V> table;
+
+        @Override
+        public void start(List<R> rowKeys, List<C> columnKeys) {
+            table = rowKeys != null
+                    ? HashBasedTable.create(rowKeys.size(), columnKeys.size())
+                    : HashBasedTable.create(tableJson.expectedRows(), 0);
+        }
+
+        @Override
+        public void put(R row, C column, V value) {
+            if (value != null) {
+                table.put(row, column, value);
+            }
+        }
+    }
+}
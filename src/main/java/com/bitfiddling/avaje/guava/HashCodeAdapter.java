@@ -0,0 +1,41 @@
+package com.bitfiddling.avaje.guava;
+
+import com.google.common.hash.HashCode;
+import io.avaje.json.JsonAdapter;
+import io.avaje.json.JsonDataException;
+import io.avaje.json.JsonReader;
+import io.avaje.json.JsonWriter;
+import io.avaje.jsonb.Jsonb;
+
+/**
+ * JsonAdapter for Guava HashCode, written as the lowercase hex string of
+ * {@link HashCode#toString()}, such as {@code "cafebabe"}.
+ */
+public final class HashCodeAdapter implements JsonAdapter<HashCode> {
+
+    /**
+     * Creates a new HashCodeAdapter.
+     *
+     * @param jsonb the Jsonb instance
+     */
+    public HashCodeAdapter(Jsonb jsonb) {}
+
+    @Override
+    public HashCode fromJson(JsonReader reader) {
+        String hex = reader.readString();
+        try {
+            return HashCode.fromString(hex);
+        } catch (IllegalArgumentException e) {
+            throw new JsonDataException("Invalid hash code '" + hex + "' at " + reader.location(), e);
+        }
+    }
+
+    @Override
+    public void toJson(JsonWriter writer, HashCode value) {
+        if (value == null) {
+            writer.nullValue();
+            return;
+        }
+        writer.value(value.toString());
+    }
+}
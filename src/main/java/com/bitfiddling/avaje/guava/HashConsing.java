@@ -0,0 +1,269 @@
+package com.bitfiddling.avaje.guava;
+
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import io.avaje.json.JsonAdapter;
+import io.avaje.json.JsonReader;
+import io.avaje.json.JsonWriter;
+import io.avaje.jsonb.AdapterFactory;
+import io.avaje.jsonb.Jsonb;
+import io.avaje.jsonb.Types;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Opt-in hash-consing of decoded ImmutableList, ImmutableSet and ImmutableMap values: a
+ * decoded collection equal to one decoded recently is replaced by that earlier instance,
+ * so documents that repeat the same collections share them instead of each retaining a
+ * copy.
+ *
+ * <p>Canonical instances are held in a size-bounded cache that evicts the least recently
+ * used. Hashing and comparing a collection costs time proportional to its size, so only
+ * collections up to a maximum size are considered. Collections are matched in iteration
+ * order, including nested ones, so a set or map is only replaced by one that iterates
+ * the same way; {@code equals} alone would ignore their order.
+ *
+ * <pre>{@code
+ * HashConsing hashConsing = HashConsing.create(100_000);
+ * Jsonb jsonb = Jsonb.builder().add(hashConsing.factory(interning.factory())).build();
+ * }</pre>
+ */
+public final class HashConsing {
+
+    /** Default maximum size of the collections that are hash-consed. */
+    public static final int DEFAULT_MAXIMUM_COLLECTION_SIZE = 256;
+
+    private final Cache<Object, Object> cache;
+    private final ConcurrentMap<Object, Object> canonical;
+    private final int maximumCollectionSize;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private HashConsing(long maximumSize, int maximumCollectionSize) {
+        this.cache =
+                CacheBuilder.newBuilder().maximumSize(maximumSize).recordStats().build();
+        this.canonical = cache.asMap();
+        this.maximumCollectionSize = maximumCollectionSize;
+    }
+
+    /**
+     * Returns hash-consing that holds up to {@code maximumSize} canonical collections of up
+     * to {@link #DEFAULT_MAXIMUM_COLLECTION_SIZE} elements.
+     *
+     * @param maximumSize the maximum number of canonical collections
+     * @return the hash-consing
+     */
+    public static HashConsing create(long maximumSize) {
+        return create(maximumSize, DEFAULT_MAXIMUM_COLLECTION_SIZE);
+    }
+
+    /**
+     * Returns hash-consing that holds up to {@code maximumSize} canonical collections of up
+     * to {@code maximumCollectionSize} elements or entries.
+     *
+     * @param maximumSize the maximum number of canonical collections
+     * @param maximumCollectionSize the maximum size of a hash-consed collection
+     * @return the hash-consing
+     */
+    public static HashConsing create(long maximumSize, int maximumCollectionSize) {
+        Preconditions.checkArgument(maximumSize > 0, "maximumSize must be positive: %s", maximumSize);
+        Preconditions.checkArgument(
+                maximumCollectionSize >= 0, "maximumCollectionSize must not be negative: %s", maximumCollectionSize);
+        return new HashConsing(maximumSize, maximumCollectionSize);
+    }
+
+    /**
+     * Returns a factory for ImmutableList, ImmutableSet and ImmutableMap adapters that
+     * hash-cons decoded values.
+     *
+     * @return the adapter factory
+     */
+    public AdapterFactory factory() {
+        return factory(GuavaJsonbComponent.FACTORY);
+    }
+
+    /**
+     * Returns a factory that hash-cons the ImmutableList, ImmutableSet and ImmutableMap
+     * values decoded by the adapters of another factory, such as
+     * {@link StringInterning#factory()}. Adapters of other types are returned unchanged.
+     *
+     * @param delegate the factory whose adapters to hash-cons
+     * @return the adapter factory
+     */
+    public AdapterFactory factory(AdapterFactory delegate) {
+        Preconditions.checkNotNull(delegate, "delegate");
+        return (Type type, Jsonb jsonb) -> {
+            JsonAdapter<?> adapter = delegate.create(type, jsonb);
+            if (adapter != null
+                    && (Types.isGenericTypeOf(type, ImmutableList.class)
+                            || Types.isGenericTypeOf(type, ImmutableSet.class)
+                            || Types.isGenericTypeOf(type, ImmutableMap.class))) {
+                return new CanonicalAdapter<>(adapter);
+            }
+            return adapter;
+        };
+    }
+
+    /**
+     * Returns the number of decoded collections replaced by an existing canonical instance.
+     *
+     * @return the hit count
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of decoded collections that became a canonical instance.
+     *
+     * @return the miss count
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of canonical instances evicted from the cache.
+     *
+     * @return the eviction count
+     */
+    public long evictionCount() {
+        return cache.stats().evictionCount();
+    }
+
+    /**
+     * Returns the ratio of hits to hash-consed collections, or {@code 1.0} when none were
+     * hash-consed.
+     *
+     * @return the hit rate
+     */
+    public double hitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 1.0 : (double) hitCount / total;
+    }
+
+    @Override
+    public String toString() {
+        return "HashConsing{hits=" + hitCount() + ", misses=" + missCount() + ", evictions=" + evictionCount() + "}";
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T canonicalize(T value) {
+        int size = value instanceof Collection<?> collection ? collection.size() : ((Map<?, ?>) value).size();
+        if (size > maximumCollectionSize) {
+            return value;
+        }
+        Object existing = canonical.putIfAbsent(new OrderedKey(value), value);
+        if (existing == null) {
+            misses.increment();
+            return value;
+        }
+        hits.increment();
+        return (T) existing;
+    }
+
+    /** A cache key that compares collections and maps in iteration order. */
+    private static final class OrderedKey {
+
+        private final Object value;
+        private final int hash;
+
+        OrderedKey(Object value) {
+            this.value = value;
+            this.hash = orderedHash(value);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof OrderedKey key && hash == key.hash && orderedEquals(value, key.value);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        private static int orderedHash(Object value) {
+            if (value instanceof Map<?, ?> map) {
+                int hash = 3;
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    hash = 31 * (31 * hash + orderedHash(entry.getKey())) + orderedHash(entry.getValue());
+                }
+                return hash;
+            } else if (value instanceof Collection<?> collection) {
+                int hash = value instanceof Set<?> ? 2 : 1;
+                for (Object element : collection) {
+                    hash = 31 * hash + orderedHash(element);
+                }
+                return hash;
+            }
+            return value == null ? 0 : value.hashCode();
+        }
+
+        private static boolean orderedEquals(Object a, Object b) {
+            if (a == b) {
+                return true;
+            } else if (a instanceof Map<?, ?> left && b instanceof Map<?, ?> right) {
+                if (left.size() != right.size()) {
+                    return false;
+                }
+                Iterator<? extends Map.Entry<?, ?>> others = right.entrySet().iterator();
+                for (Map.Entry<?, ?> entry : left.entrySet()) {
+                    Map.Entry<?, ?> other = others.next();
+                    if (!orderedEquals(entry.getKey(), other.getKey())
+                            || !orderedEquals(entry.getValue(), other.getValue())) {
+                        return false;
+                    }
+                }
+                return true;
+            } else if (a instanceof Collection<?> left && b instanceof Collection<?> right) {
+                if (left.size() != right.size() || (a instanceof Set<?>) != (b instanceof Set<?>)) {
+                    return false;
+                }
+                Iterator<?> others = right.iterator();
+                for (Object element : left) {
+                    if (!orderedEquals(element, others.next())) {
+                        return false;
+                    }
+                }
+                return true;
+            } else if (a instanceof Map<?, ?>
+                    || b instanceof Map<?, ?>
+                    || a instanceof Collection<?>
+                    || b instanceof Collection<?>) {
+                return false;
+            }
+            return a != null && a.equals(b);
+        }
+    }
+
+    private final class CanonicalAdapter<T> implements JsonAdapter<T> {
+
+        private final JsonAdapter<T> delegate;
+
+        CanonicalAdapter(JsonAdapter<T> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public T fromJson(JsonReader reader) {
+            T value = delegate.fromJson(reader);
+            return value == null ? null : canonicalize(value);
+        }
+
+        @Override
+        public void toJson(JsonWriter writer, T value) {
+            delegate.toJson(writer, value);
+        }
+    }
+}
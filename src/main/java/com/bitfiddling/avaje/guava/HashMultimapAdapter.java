@@ -0,0 +1,61 @@
+package com.bitfiddling.avaje.guava;
+
+import com.google.common.collect.HashMultimap;
+import io.avaje.json.JsonAdapter;
+import io.avaje.json.JsonReader;
+import io.avaje.json.JsonWriter;
+import io.avaje.jsonb.AdapterFactory;
+import io.avaje.jsonb.Jsonb;
+import io.avaje.jsonb.Types;
+import java.lang.reflect.Type;
+
+/**
+ * JsonAdapter for Guava HashMultimap.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public final class HashMultimapAdapter<K, V> implements JsonAdapter<HashMultimap<K, V>> {
+
+    /** Factory for creating HashMultimapAdapter instances. */
+    public static final AdapterFactory FACTORY = (Type type, Jsonb jsonb) -> {
+        if (Types.isGenericTypeOf(type, HashMultimap.class)) {
+            return new HashMultimapAdapter<>(jsonb, Types.typeArguments(type));
+        }
+        return null;
+    };
+
+    private final MultimapJson<K, V> multimapJson;
+
+    /**
+     * Creates a new HashMultimapAdapter.
+     *
+     * @param jsonb the Jsonb instance
+     * @param types the generic type arguments
+     */
+    public HashMultimapAdapter(Jsonb jsonb, Type[] types) {
+        this.multimapJson = new MultimapJson<>(jsonb, types);
+    }
+
+    @Override
+    public HashMultimap<K, V> fromJson(JsonReader reader) {
+        HashMultimap<K, V> multimap =
+                HashMultimap.create(multimapJson.expectedKeys(), multimapJson.expectedValuesPerKey());
+        multimapJson.read(reader, multimap::put);
+        return multimap;
+    }
+
+    @Override
+    public void toJson(JsonWriter writer, HashMultimap<K, V> value) {
+        if (value == null) {
+            writer.nullValue();
+            return;
+        }
+        if (value.isEmpty()) {
+            writer.beginObject();
+            writer.endObject();
+            return;
+        }
+        multimapJson.write(writer, value);
+    }
+}
@@ -5,7 +5,6 @@ import io.avaje.json.JsonAdapter;
 import io.avaje.json.JsonReader;
 import io.avaje.json.JsonWriter;
 import io.avaje.jsonb.AdapterFactory;
-import io.avaje.jsonb.CustomAdapter;
 import io.avaje.jsonb.Jsonb;
 import io.avaje.jsonb.Types;
 import java.lang.reflect.Type;
@@ -15,18 +14,28 @@ import java.lang.reflect.Type;
  *
  * @param <T> the element type
  */
-@CustomAdapter
 public final class HashMultisetAdapter<T> implements JsonAdapter<HashMultiset<T>> {
 
     /** Factory for creating HashMultisetAdapter instances. */
-    public static final AdapterFactory FACTORY = (Type type, Jsonb jsonb) -> {
-        if (Types.isGenericTypeOf(type, HashMultiset.class)) {
-            return new HashMultisetAdapter<>(jsonb, Types.typeArguments(type));
-        }
-        return null;
-    };
+    public static final AdapterFactory FACTORY = factory(MultisetFormat.ELEMENTS);
+
+    /**
+     * Returns a factory for HashMultisetAdapter instances that write the given format.
+     *
+     * @param format the format to write
+     * @return the adapter factory
+     */
+    public static AdapterFactory factory(MultisetFormat format) {
+        return (Type type, Jsonb jsonb) -> {
+            if (Types.isGenericTypeOf(type, HashMultiset.class)) {
+                return new HashMultisetAdapter<>(jsonb, Types.typeArguments(type), format);
+            }
+            return null;
+        };
+    }
 
-    private final JsonAdapter<T> genericType;
+    private final MultisetJson<T> multisetJson;
+    private final SizeEstimate sizeEstimate = new SizeEstimate();
 
     /**
      * Creates a new HashMultisetAdapter.
@@ -35,18 +44,37 @@ public final class HashMultisetAdapter<T> implements JsonAdapter<HashMultiset<T>
      * @param types the generic type arguments
      */
     public HashMultisetAdapter(Jsonb jsonb, Type[] types) {
-        this.genericType = jsonb.adapter(types[0]);
+        this(jsonb, types, MultisetFormat.ELEMENTS);
+    }
+
+    /**
+     * Creates a new HashMultisetAdapter that writes the given format.
+     *
+     * @param jsonb the Jsonb instance
+     * @param types the generic type arguments
+     * @param format the format to write
+     */
+    public HashMultisetAdapter(Jsonb jsonb, Type[] types, MultisetFormat format) {
+        this(jsonb, types, format, null);
+    }
+
+    /**
+     * Creates a new HashMultisetAdapter that writes the given format and interns decoded strings.
+     *
+     * @param jsonb the Jsonb instance
+     * @param types the generic type arguments
+     * @param format the format to write
+     * @param interning the string interning, or null for none
+     */
+    HashMultisetAdapter(Jsonb jsonb, Type[] types, MultisetFormat format, StringInterning interning) {
+        this.multisetJson = new MultisetJson<>(jsonb, types[0], format, interning);
     }
 
     @Override
     public HashMultiset<T> fromJson(JsonReader reader) {
-        HashMultiset<T> multiset = HashMultiset.create();
-        reader.beginArray();
-        while (reader.hasNextElement()) {
-            T element = genericType.fromJson(reader);
-            multiset.add(element);
-        }
-        reader.endArray();
+        HashMultiset<T> multiset = HashMultiset.create(sizeEstimate.expectedSize());
+        multisetJson.read(reader, multiset::add);
+        sizeEstimate.record(multiset.elementSet().size());
         return multiset;
     }
 
@@ -60,10 +88,6 @@ public final class HashMultisetAdapter<T> implements JsonAdapter<HashMultiset<T>
             writer.emptyArray();
             return;
         }
-        writer.beginArray();
-        for (T element : value) {
-            genericType.toJson(writer, element);
-        }
-        writer.endArray();
+        multisetJson.write(writer, value);
     }
 }
@@ -0,0 +1,55 @@
+package com.bitfiddling.avaje.guava;
+
+import com.google.common.primitives.ImmutableDoubleArray;
+import io.avaje.json.JsonAdapter;
+import io.avaje.json.JsonReader;
+import io.avaje.json.JsonWriter;
+import io.avaje.jsonb.Jsonb;
+
+/**
+ * JsonAdapter for Guava ImmutableDoubleArray.
+ *
+ * <p>Values are read and written as doubles without boxing and stored in the array's
+ * primitive backing storage.
+ */
+public final class ImmutableDoubleArrayAdapter implements JsonAdapter<ImmutableDoubleArray> {
+
+    private final SizeEstimate sizeEstimate = new SizeEstimate();
+
+    /**
+     * Creates a new ImmutableDoubleArrayAdapter.
+     *
+     * @param jsonb the Jsonb instance
+     */
+    public ImmutableDoubleArrayAdapter(Jsonb jsonb) {}
+
+    @Override
+    public ImmutableDoubleArray fromJson(JsonReader reader) {
+        ImmutableDoubleArray.Builder builder = ImmutableDoubleArray.builder(sizeEstimate.expectedSize());
+        reader.beginArray();
+        while (reader.hasNextElement()) {
+            builder.add(reader.readDouble());
+        }
+        reader.endArray();
+        ImmutableDoubleArray array = builder.build().trimmed();
+        sizeEstimate.record(array.length());
+        return array;
+    }
+
+    @Override
+    public void toJson(JsonWriter writer, ImmutableDoubleArray value) {
+        if (value == null) {
+            writer.nullValue();
+            return;
+        }
+        if (value.isEmpty()) {
+            writer.emptyArray();
+            return;
+        }
+        writer.beginArray();
+        for (int i = 0; i < value.length(); i++) {
+            writer.value(value.get(i));
+        }
+        writer.endArray();
+    }
+}
@@ -0,0 +1,77 @@
+package com.bitfiddling.avaje.guava;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import io.avaje.json.JsonAdapter;
+import io.avaje.json.JsonDataException;
+import io.avaje.json.JsonReader;
+import io.avaje.json.JsonWriter;
+import io.avaje.jsonb.AdapterFactory;
+import io.avaje.jsonb.Jsonb;
+import io.avaje.jsonb.Types;
+import java.lang.reflect.Type;
+import java.util.EnumMap;
+
+/**
+ * JsonAdapter for Guava ImmutableMap with enum keys, decoding into an EnumMap-backed
+ * {@link Maps#immutableEnumMap} and writing keys from pre-escaped names.
+ *
+ * <p>The decoded map iterates in the declaration order of its keys rather than the order
+ * of the document, so this adapter is not registered by default and is opted into with
+ * {@link #FACTORY}.
+ *
+ * @param <K> the enum key type
+ * @param <V> the value type
+ */
+public final class ImmutableEnumMapAdapter<K extends Enum<K>, V> implements JsonAdapter<ImmutableMap<K, V>> {
+
+    /** Factory for creating ImmutableEnumMapAdapter instances for ImmutableMap with enum keys. */
+    public static final AdapterFactory FACTORY = (Type type, Jsonb jsonb) -> {
+        if (Types.isGenericTypeOf(type, ImmutableMap.class) && EnumNames.isEnum(Types.typeArguments(type)[0])) {
+            return new ImmutableEnumMapAdapter<>(jsonb, Types.typeArguments(type));
+        }
+        return null;
+    };
+
+    private final EnumNames<K> keyNames;
+    private final JsonAdapter<V> valueAdapter;
+
+    /**
+     * Creates a new ImmutableEnumMapAdapter.
+     *
+     * @param jsonb the Jsonb instance
+     * @param types the generic type arguments
+     */
+    public ImmutableEnumMapAdapter(Jsonb jsonb, Type[] types) {
+        this.keyNames = EnumNames.of(jsonb, types[0]);
+        this.valueAdapter = jsonb.adapter(types[1]);
+    }
+
+    @Override
+    public ImmutableMap<K, V> fromJson(JsonReader reader) {
+        EnumMap<K, V> map = new EnumMap<>(keyNames.type());
+        reader.beginObject();
+        while (reader.hasNextField()) {
+            K key = keyNames.decode(reader.nextField());
+            if (map.put(key, valueAdapter.fromJson(reader)) != null) {
+                throw new JsonDataException("Duplicate map key " + key + " at " + reader.location());
+            }
+        }
+        reader.endObject();
+        return Maps.immutableEnumMap(map);
+    }
+
+    @Override
+    public void toJson(JsonWriter writer, ImmutableMap<K, V> value) {
+        if (value == null) {
+            writer.nullValue();
+            return;
+        }
+        if (value.isEmpty()) {
+            writer.beginObject();
+            writer.endObject();
+            return;
+        }
+        keyNames.write(writer, value, valueAdapter);
+    }
+}
@@ -0,0 +1,55 @@
+package com.bitfiddling.avaje.guava;
+
+import com.google.common.primitives.ImmutableIntArray;
+import io.avaje.json.JsonAdapter;
+import io.avaje.json.JsonReader;
+import io.avaje.json.JsonWriter;
+import io.avaje.jsonb.Jsonb;
+
+/**
+ * JsonAdapter for Guava ImmutableIntArray.
+ *
+ * <p>Values are read and written as ints without boxing and stored in the array's
+ * primitive backing storage.
+ */
+public final class ImmutableIntArrayAdapter implements JsonAdapter<ImmutableIntArray> {
+
+    private final SizeEstimate sizeEstimate = new SizeEstimate();
+
+    /**
+     * Creates a new ImmutableIntArrayAdapter.
+     *
+     * @param jsonb the Jsonb instance
+     */
+    public ImmutableIntArrayAdapter(Jsonb jsonb) {}
+
+    @Override
+    public ImmutableIntArray fromJson(JsonReader reader) {
+        ImmutableIntArray.Builder builder = ImmutableIntArray.builder(sizeEstimate.expectedSize());
+        reader.beginArray();
+        while (reader.hasNextElement()) {
+            builder.add(reader.readInt());
+        }
+        reader.endArray();
+        ImmutableIntArray array = builder.build().trimmed();
+        sizeEstimate.record(array.length());
+        return array;
+    }
+
+    @Override
+    public void toJson(JsonWriter writer, ImmutableIntArray value) {
+        if (value == null) {
+            writer.nullValue();
+            return;
+        }
+        if (value.isEmpty()) {
+            writer.emptyArray();
+            return;
+        }
+        writer.beginArray();
+        for (int i = 0; i < value.length(); i++) {
+            writer.value(value.get(i));
+        }
+        writer.endArray();
+    }
+}
@@ -5,7 +5,6 @@ import io.avaje.json.JsonAdapter;
 import io.avaje.json.JsonReader;
 import io.avaje.json.JsonWriter;
 import io.avaje.jsonb.AdapterFactory;
-import io.avaje.jsonb.CustomAdapter;
 import io.avaje.jsonb.Jsonb;
 import io.avaje.jsonb.Types;
 import java.lang.reflect.Type;
@@ -16,18 +15,31 @@ import java.lang.reflect.Type;
  *
  * @param <T> the element type
  */
-@CustomAdapter
 public final class ImmutableListAdapter<T> implements JsonAdapter<ImmutableList<T>> {
 
     /** Factory for creating ImmutableListAdapter instances. */
-    public static final AdapterFactory FACTORY = (Type type, Jsonb jsonb) -> {
-        if (Types.isGenericTypeOf(type, ImmutableList.class)) {
-            return new ImmutableListAdapter<>(jsonb, Types.typeArguments(type));
-        }
-        return null;
-    };
+    public static final AdapterFactory FACTORY = factory(RecordFormat.ROWS);
+
+    /**
+     * Returns a factory for ImmutableListAdapter instances that write the given format.
+     *
+     * @param format the format to write
+     * @return the adapter factory
+     */
+    public static AdapterFactory factory(RecordFormat format) {
+        return (Type type, Jsonb jsonb) -> {
+            if (Types.isGenericTypeOf(type, ImmutableList.class)) {
+                return new ImmutableListAdapter<>(jsonb, Types.typeArguments(type), format);
+            }
+            return null;
+        };
+    }
 
     private final JsonAdapter<T> genericType;
+    private final ColumnJson<T> columnJson;
+    private final boolean writeColumns;
+    private final SizeEstimate sizeEstimate = new SizeEstimate();
+    private final ScratchBuffer scratch = new ScratchBuffer();
 
     /**
      * Creates a new ImmutableListAdapter.
@@ -36,18 +48,59 @@ public final class ImmutableListAdapter<T> implements JsonAdapter<ImmutableList<
      * @param types the generic type arguments
      */
     public ImmutableListAdapter(Jsonb jsonb, Type[] types) {
-        this.genericType = jsonb.adapter(types[0]);
+        this(jsonb, types, RecordFormat.ROWS);
+    }
+
+    /**
+     * Creates a new ImmutableListAdapter that writes the given format.
+     *
+     * @param jsonb the Jsonb instance
+     * @param types the generic type arguments
+     * @param format the format to write
+     */
+    public ImmutableListAdapter(Jsonb jsonb, Type[] types, RecordFormat format) {
+        this(jsonb, types, format, null);
+    }
+
+    /**
+     * Creates a new ImmutableListAdapter that interns decoded strings.
+     *
+     * @param jsonb the Jsonb instance
+     * @param types the generic type arguments
+     * @param interning the string interning, or null for none
+     */
+    ImmutableListAdapter(Jsonb jsonb, Type[] types, StringInterning interning) {
+        this(jsonb, types, RecordFormat.ROWS, interning);
+    }
+
+    private ImmutableListAdapter(Jsonb jsonb, Type[] types, RecordFormat format, StringInterning interning) {
+        this.genericType = StringInterning.elementAdapter(jsonb, types[0], interning);
+        this.columnJson = ColumnJson.of(jsonb, types[0]);
+        this.writeColumns = columnJson != null && format == RecordFormat.COLUMNS;
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public ImmutableList<T> fromJson(JsonReader reader) {
-        ImmutableList.Builder<T> builder = ImmutableList.builder();
+        if (columnJson != null && reader.currentToken() == JsonReader.Token.BEGIN_OBJECT && columnJson.applies()) {
+            return columnJson.read(reader, ImmutableList::builderWithExpectedSize);
+        }
+        Object[] elements = scratch.acquire(sizeEstimate.expectedSize());
+        int size = 0;
         reader.beginArray();
         while (reader.hasNextElement()) {
-            T element = genericType.fromJson(reader);
-            builder.add(element);
+            if (size == elements.length) {
+                elements = ScratchBuffer.grow(elements);
+            }
+            elements[size++] = genericType.fromJson(reader);
         }
         reader.endArray();
+        sizeEstimate.record(size);
+        ImmutableList.Builder<T> builder = ImmutableList.builderWithExpectedSize(size);
+        for (int i = 0; i < size; i++) {
+            builder.add((T) elements[i]);
+        }
+        scratch.release(elements, size);
         return builder.build();
     }
 
@@ -61,6 +114,10 @@ public final class ImmutableListAdapter<T> implements JsonAdapter<ImmutableList<
             writer.emptyArray();
             return;
         }
+        if (writeColumns && columnJson.applies()) {
+            columnJson.write(writer, value);
+            return;
+        }
         writer.beginArray();
         for (T element : value) {
             genericType.toJson(writer, element);
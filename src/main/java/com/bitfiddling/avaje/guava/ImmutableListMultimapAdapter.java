@@ -0,0 +1,62 @@
+package com.bitfiddling.avaje.guava;
+
+import com.google.common.collect.ImmutableListMultimap;
+import io.avaje.json.JsonAdapter;
+import io.avaje.json.JsonReader;
+import io.avaje.json.JsonWriter;
+import io.avaje.jsonb.AdapterFactory;
+import io.avaje.jsonb.Jsonb;
+import io.avaje.jsonb.Types;
+import java.lang.reflect.Type;
+
+/**
+ * JsonAdapter for Guava ImmutableListMultimap.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public final class ImmutableListMultimapAdapter<K, V> implements JsonAdapter<ImmutableListMultimap<K, V>> {
+
+    /** Factory for creating ImmutableListMultimapAdapter instances. */
+    public static final AdapterFactory FACTORY = (Type type, Jsonb jsonb) -> {
+        if (Types.isGenericTypeOf(type, ImmutableListMultimap.class)) {
+            return new ImmutableListMultimapAdapter<>(jsonb, Types.typeArguments(type));
+        }
+        return null;
+    };
+
+    private final MultimapJson<K, V> multimapJson;
+
+    /**
+     * Creates a new ImmutableListMultimapAdapter.
+     *
+     * @param jsonb the Jsonb instance
+     * @param types the generic type arguments
+     */
+    public ImmutableListMultimapAdapter(Jsonb jsonb, Type[] types) {
+        this.multimapJson = new MultimapJson<>(jsonb, types);
+    }
+
+    @Override
+    public ImmutableListMultimap<K, V> fromJson(JsonReader reader) {
+        ImmutableListMultimap.Builder<K, V> builder = ImmutableListMultimap.<K, V>builderWithExpectedKeys(
+                        multimapJson.expectedKeys())
+                .expectedValuesPerKey(multimapJson.expectedValuesPerKey());
+        multimapJson.read(reader, builder::put);
+        return builder.build();
+    }
+
+    @Override
+    public void toJson(JsonWriter writer, ImmutableListMultimap<K, V> value) {
+        if (value == null) {
+            writer.nullValue();
+            return;
+        }
+        if (value.isEmpty()) {
+            writer.beginObject();
+            writer.endObject();
+            return;
+        }
+        multimapJson.write(writer, value);
+    }
+}
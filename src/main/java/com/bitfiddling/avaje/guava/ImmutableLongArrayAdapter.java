@@ -0,0 +1,55 @@
+package com.bitfiddling.avaje.guava;
+
+import com.google.common.primitives.ImmutableLongArray;
+import io.avaje.json.JsonAdapter;
+import io.avaje.json.JsonReader;
+import io.avaje.json.JsonWriter;
+import io.avaje.jsonb.Jsonb;
+
+/**
+ * JsonAdapter for Guava ImmutableLongArray.
+ *
+ * <p>Values are read and written as longs without boxing and stored in the array's
+ * primitive backing storage.
+ */
+public final class ImmutableLongArrayAdapter implements JsonAdapter<ImmutableLongArray> {
+
+    private final SizeEstimate sizeEstimate = new SizeEstimate();
+
+    /**
+     * Creates a new ImmutableLongArrayAdapter.
+     *
+     * @param jsonb the Jsonb instance
+     */
+    public ImmutableLongArrayAdapter(Jsonb jsonb) {}
+
+    @Override
+    public ImmutableLongArray fromJson(JsonReader reader) {
+        ImmutableLongArray.Builder builder = ImmutableLongArray.builder(sizeEstimate.expectedSize());
+        reader.beginArray();
+        while (reader.hasNextElement()) {
+            builder.add(reader.readLong());
+        }
+        reader.endArray();
+        ImmutableLongArray array = builder.build().trimmed();
+        sizeEstimate.record(array.length());
+        return array;
+    }
+
+    @Override
+    public void toJson(JsonWriter writer, ImmutableLongArray value) {
+        if (value == null) {
+            writer.nullValue();
+            return;
+        }
+        if (value.isEmpty()) {
+            writer.emptyArray();
+            return;
+        }
+        writer.beginArray();
+        for (int i = 0; i < value.length(); i++) {
+            writer.value(value.get(i));
+        }
+        writer.endArray();
+    }
+}
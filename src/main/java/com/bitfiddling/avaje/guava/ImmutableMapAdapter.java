@@ -5,7 +5,6 @@ import io.avaje.json.JsonAdapter;
 import io.avaje.json.JsonReader;
 import io.avaje.json.JsonWriter;
 import io.avaje.jsonb.AdapterFactory;
-import io.avaje.jsonb.CustomAdapter;
 import io.avaje.jsonb.Jsonb;
 import io.avaje.jsonb.Types;
 import java.lang.reflect.Type;
@@ -16,7 +15,6 @@ import java.lang.reflect.Type;
  * @param <K> the key type
  * @param <V> the value type
  */
-@CustomAdapter
 public final class ImmutableMapAdapter<K, V> implements JsonAdapter<ImmutableMap<K, V>> {
 
     /** Factory for creating ImmutableMapAdapter instances. */
@@ -27,7 +25,10 @@ public final class ImmutableMapAdapter<K, V> implements JsonAdapter<ImmutableMap
         return null;
     };
 
+    private final KeyCodec<K> keyCodec;
+    private final KeyNames<K> keyNames;
     private final JsonAdapter<V> valueAdapter;
+    private final SizeEstimate sizeEstimate = new SizeEstimate();
 
     /**
      * Creates a new ImmutableMapAdapter.
@@ -36,21 +37,35 @@ public final class ImmutableMapAdapter<K, V> implements JsonAdapter<ImmutableMap
      * @param types the generic type arguments
      */
     public ImmutableMapAdapter(Jsonb jsonb, Type[] types) {
-        this.valueAdapter = jsonb.adapter(types[1]);
+        this(jsonb, types, null);
+    }
+
+    /**
+     * Creates a new ImmutableMapAdapter that interns decoded strings.
+     *
+     * @param jsonb the Jsonb instance
+     * @param types the generic type arguments
+     * @param interning the string interning, or null for none
+     */
+    ImmutableMapAdapter(Jsonb jsonb, Type[] types, StringInterning interning) {
+        this.keyCodec = KeyCodec.of(jsonb, types[0], interning);
+        this.keyNames = new KeyNames<>(jsonb, keyCodec);
+        this.valueAdapter = StringInterning.elementAdapter(jsonb, types[1], interning);
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public ImmutableMap<K, V> fromJson(JsonReader reader) {
-        ImmutableMap.Builder<K, V> builder = ImmutableMap.builder();
+        ImmutableMap.Builder<K, V> builder = ImmutableMap.builderWithExpectedSize(sizeEstimate.expectedSize());
+        int size = 0;
         reader.beginObject();
         while (reader.hasNextField()) {
-            String keyString = reader.nextField();
-            K key = (K) keyString; // Assume String keys for JSON objects
+            K key = keyCodec.decode(reader.nextField());
             V value = valueAdapter.fromJson(reader);
             builder.put(key, value);
+            size++;
         }
         reader.endObject();
+        sizeEstimate.record(size);
         return builder.build();
     }
 
@@ -65,11 +80,6 @@ public final class ImmutableMapAdapter<K, V> implements JsonAdapter<ImmutableMap
             writer.endObject();
             return;
         }
-        writer.beginObject();
-        for (var entry : value.entrySet()) {
-            writer.name(entry.getKey().toString());
-            valueAdapter.toJson(writer, entry.getValue());
-        }
-        writer.endObject();
+        keyNames.write(writer, value, valueAdapter);
     }
 }
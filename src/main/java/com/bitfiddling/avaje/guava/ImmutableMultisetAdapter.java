@@ -5,7 +5,6 @@ import io.avaje.json.JsonAdapter;
 import io.avaje.json.JsonReader;
 import io.avaje.json.JsonWriter;
 import io.avaje.jsonb.AdapterFactory;
-import io.avaje.jsonb.CustomAdapter;
 import io.avaje.jsonb.Jsonb;
 import io.avaje.jsonb.Types;
 import java.lang.reflect.Type;
@@ -15,18 +14,27 @@ import java.lang.reflect.Type;
  *
  * @param <T> the element type
  */
-@CustomAdapter
 public final class ImmutableMultisetAdapter<T> implements JsonAdapter<ImmutableMultiset<T>> {
 
     /** Factory for creating ImmutableMultisetAdapter instances. */
-    public static final AdapterFactory FACTORY = (Type type, Jsonb jsonb) -> {
-        if (Types.isGenericTypeOf(type, ImmutableMultiset.class)) {
-            return new ImmutableMultisetAdapter<>(jsonb, Types.typeArguments(type));
-        }
-        return null;
-    };
+    public static final AdapterFactory FACTORY = factory(MultisetFormat.ELEMENTS);
+
+    /**
+     * Returns a factory for ImmutableMultisetAdapter instances that write the given format.
+     *
+     * @param format the format to write
+     * @return the adapter factory
+     */
+    public static AdapterFactory factory(MultisetFormat format) {
+        return (Type type, Jsonb jsonb) -> {
+            if (Types.isGenericTypeOf(type, ImmutableMultiset.class)) {
+                return new ImmutableMultisetAdapter<>(jsonb, Types.typeArguments(type), format);
+            }
+            return null;
+        };
+    }
 
-    private final JsonAdapter<T> genericType;
+    private final MultisetJson<T> multisetJson;
 
     /**
      * Creates a new ImmutableMultisetAdapter.
@@ -35,18 +43,36 @@ public final class ImmutableMultisetAdapter<T> implements JsonAdapter<ImmutableM
      * @param types the generic type arguments
      */
     public ImmutableMultisetAdapter(Jsonb jsonb, Type[] types) {
-        this.genericType = jsonb.adapter(types[0]);
+        this(jsonb, types, MultisetFormat.ELEMENTS);
+    }
+
+    /**
+     * Creates a new ImmutableMultisetAdapter that writes the given format.
+     *
+     * @param jsonb the Jsonb instance
+     * @param types the generic type arguments
+     * @param format the format to write
+     */
+    public ImmutableMultisetAdapter(Jsonb jsonb, Type[] types, MultisetFormat format) {
+        this(jsonb, types, format, null);
+    }
+
+    /**
+     * Creates a new ImmutableMultisetAdapter that writes the given format and interns decoded strings.
+     *
+     * @param jsonb the Jsonb instance
+     * @param types the generic type arguments
+     * @param format the format to write
+     * @param interning the string interning, or null for none
+     */
+    ImmutableMultisetAdapter(Jsonb jsonb, Type[] types, MultisetFormat format, StringInterning interning) {
+        this.multisetJson = new MultisetJson<>(jsonb, types[0], format, interning);
     }
 
     @Override
     public ImmutableMultiset<T> fromJson(JsonReader reader) {
         ImmutableMultiset.Builder<T> builder = ImmutableMultiset.builder();
-        reader.beginArray();
-        while (reader.hasNextElement()) {
-            T element = genericType.fromJson(reader);
-            builder.add(element);
-        }
-        reader.endArray();
+        multisetJson.read(reader, builder::addCopies);
         return builder.build();
     }
 
@@ -60,10 +86,6 @@ public final class ImmutableMultisetAdapter<T> implements JsonAdapter<ImmutableM
             writer.emptyArray();
             return;
         }
-        writer.beginArray();
-        for (T element : value) {
-            genericType.toJson(writer, element);
-        }
-        writer.endArray();
+        multisetJson.write(writer, value);
     }
 }
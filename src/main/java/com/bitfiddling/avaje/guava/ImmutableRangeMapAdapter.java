@@ -0,0 +1,84 @@
+package com.bitfiddling.avaje.guava;
+
+import com.google.common.collect.ImmutableRangeMap;
+import com.google.common.collect.Range;
+import io.avaje.json.JsonAdapter;
+import io.avaje.json.JsonReader;
+import io.avaje.json.JsonWriter;
+import io.avaje.jsonb.AdapterFactory;
+import io.avaje.jsonb.Jsonb;
+import io.avaje.jsonb.Types;
+import java.lang.reflect.Type;
+import java.util.Map;
+
+/**
+ * JsonAdapter for Guava ImmutableRangeMap, written as an array of
+ * {@code [lower,upper,"[)",value]} entries in ascending order.
+ *
+ * @param <K> the range endpoint type
+ * @param <V> the value type
+ */
+public final class ImmutableRangeMapAdapter<K extends Comparable<K>, V>
+        implements JsonAdapter<ImmutableRangeMap<K, V>> {
+
+    /** Factory for creating ImmutableRangeMapAdapter instances. */
+    public static final AdapterFactory FACTORY = (Type type, Jsonb jsonb) -> {
+        if (Types.isGenericTypeOf(type, ImmutableRangeMap.class)) {
+            return new ImmutableRangeMapAdapter<>(jsonb, Types.typeArguments(type));
+        }
+        return null;
+    };
+
+    private final RangeJson<K> rangeJson;
+    private final JsonAdapter<V> valueAdapter;
+
+    /**
+     * Creates a new ImmutableRangeMapAdapter.
+     *
+     * @param jsonb the Jsonb instance
+     * @param types the generic type arguments
+     */
+    public ImmutableRangeMapAdapter(Jsonb jsonb, Type[] types) {
+        this.rangeJson = new RangeJson<>(jsonb.<K>adapter(types[0]));
+        this.valueAdapter = jsonb.adapter(types[1]);
+    }
+
+    @Override
+    public ImmutableRangeMap<K, V> fromJson(JsonReader reader) {
+        ImmutableRangeMap.Builder<K, V> builder = ImmutableRangeMap.builder();
+        reader.beginArray();
+        while (reader.hasNextElement()) {
+            reader.beginArray();
+            Range<K> range = rangeJson.readBounds(reader);
+            RangeJson.nextElement(reader);
+            V value = valueAdapter.fromJson(reader);
+            if (!range.isEmpty()) {
+                // an empty range is skipped, as by RangeMap.put
+                builder.put(range, value);
+            }
+            RangeJson.endRange(reader);
+        }
+        reader.endArray();
+        return builder.build();
+    }
+
+    @Override
+    public void toJson(JsonWriter writer, ImmutableRangeMap<K, V> value) {
+        if (value == null) {
+            writer.nullValue();
+            return;
+        }
+        if (value.asMapOfRanges().isEmpty()) {
+            writer.emptyArray();
+            return;
+        }
+        writer.beginArray();
+        for (Map.Entry<Range<K>, V> entry : value.asMapOfRanges().entrySet()) {
+            JsonSupport.beginNestedArray(writer);
+            rangeJson.writeBounds(writer, entry.getKey());
+            valueAdapter.toJson(writer, entry.getValue());
+            writer.endArray();
+        }
+        writer.endArray();
+    }
+}
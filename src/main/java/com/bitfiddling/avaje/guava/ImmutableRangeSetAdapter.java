@@ -0,0 +1,105 @@
+package com.bitfiddling.avaje.guava;
+
+import com.google.common.collect.ImmutableRangeSet;
+import com.google.common.collect.Range;
+import com.google.common.collect.TreeRangeSet;
+import io.avaje.json.JsonAdapter;
+import io.avaje.json.JsonReader;
+import io.avaje.json.JsonWriter;
+import io.avaje.jsonb.AdapterFactory;
+import io.avaje.jsonb.Jsonb;
+import io.avaje.jsonb.Types;
+import java.lang.reflect.Type;
+
+/**
+ * JsonAdapter for Guava ImmutableRangeSet, written as an array of ranges in ascending
+ * order.
+ *
+ * @param <C> the endpoint type
+ */
+public final class ImmutableRangeSetAdapter<C extends Comparable<C>> implements JsonAdapter<ImmutableRangeSet<C>> {
+
+    /** Factory for creating ImmutableRangeSetAdapter instances. */
+    public static final AdapterFactory FACTORY = (Type type, Jsonb jsonb) -> {
+        if (Types.isGenericTypeOf(type, ImmutableRangeSet.class)) {
+            return new ImmutableRangeSetAdapter<>(jsonb, Types.typeArguments(type));
+        }
+        return null;
+    };
+
+    private final RangeJson<C> rangeJson;
+    private final SizeEstimate sizeEstimate = new SizeEstimate();
+    private final ScratchBuffer scratch = new ScratchBuffer();
+
+    /**
+     * Creates a new ImmutableRangeSetAdapter.
+     *
+     * @param jsonb the Jsonb instance
+     * @param types the generic type arguments
+     */
+    public ImmutableRangeSetAdapter(Jsonb jsonb, Type[] types) {
+        this.rangeJson = new RangeJson<>(jsonb.<C>adapter(types[0]));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public ImmutableRangeSet<C> fromJson(JsonReader reader) {
+        Object[] ranges = scratch.acquire(sizeEstimate.expectedSize());
+        int size = 0;
+        boolean ascending = true;
+        Range<C> previous = null;
+        reader.beginArray();
+        while (reader.hasNextElement()) {
+            if (size == ranges.length) {
+                ranges = ScratchBuffer.grow(ranges);
+            }
+            Range<C> range = rangeJson.read(reader);
+            if (range.isEmpty()) {
+                // skipped, as by RangeSet.add
+                continue;
+            }
+            if (ascending && previous != null && !RangeJson.isAfter(previous, range)) {
+                ascending = false;
+            }
+            ranges[size++] = range;
+            previous = range;
+        }
+        reader.endArray();
+        sizeEstimate.record(size);
+        ImmutableRangeSet<C> result;
+        if (ascending) {
+            // Sorted, disjoint input is taken by the builder in a single pass
+            ImmutableRangeSet.Builder<C> builder = ImmutableRangeSet.builder();
+            for (int i = 0; i < size; i++) {
+                builder.add((Range<C>) ranges[i]);
+            }
+            result = builder.build();
+        } else {
+            // Unsorted or overlapping ranges are coalesced, as they would be by RangeSet.add
+            TreeRangeSet<C> rangeSet = TreeRangeSet.create();
+            for (int i = 0; i < size; i++) {
+                rangeSet.add((Range<C>) ranges[i]);
+            }
+            result = ImmutableRangeSet.copyOf(rangeSet);
+        }
+        scratch.release(ranges, size);
+        return result;
+    }
+
+    @Override
+    public void toJson(JsonWriter writer, ImmutableRangeSet<C> value) {
+        if (value == null) {
+            writer.nullValue();
+            return;
+        }
+        if (value.isEmpty()) {
+            writer.emptyArray();
+            return;
+        }
+        writer.beginArray();
+        for (Range<C> range : value.asRanges()) {
+            rangeJson.write(writer, range);
+        }
+        writer.endArray();
+    }
+}
@@ -0,0 +1,62 @@
+package com.bitfiddling.avaje.guava;
+
+import com.google.common.collect.ImmutableSetMultimap;
+import io.avaje.json.JsonAdapter;
+import io.avaje.json.JsonReader;
+import io.avaje.json.JsonWriter;
+import io.avaje.jsonb.AdapterFactory;
+import io.avaje.jsonb.Jsonb;
+import io.avaje.jsonb.Types;
+import java.lang.reflect.Type;
+
+/**
+ * JsonAdapter for Guava ImmutableSetMultimap.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public final class ImmutableSetMultimapAdapter<K, V> implements JsonAdapter<ImmutableSetMultimap<K, V>> {
+
+    /** Factory for creating ImmutableSetMultimapAdapter instances. */
+    public static final AdapterFactory FACTORY = (Type type, Jsonb jsonb) -> {
+        if (Types.isGenericTypeOf(type, ImmutableSetMultimap.class)) {
+            return new ImmutableSetMultimapAdapter<>(jsonb, Types.typeArguments(type));
+        }
+        return null;
+    };
+
+    private final MultimapJson<K, V> multimapJson;
+
+    /**
+     * Creates a new ImmutableSetMultimapAdapter.
+     *
+     * @param jsonb the Jsonb instance
+     * @param types the generic type arguments
+     */
+    public ImmutableSetMultimapAdapter(Jsonb jsonb, Type[] types) {
+        this.multimapJson = new MultimapJson<>(jsonb, types);
+    }
+
+    @Override
+    public ImmutableSetMultimap<K, V> fromJson(JsonReader reader) {
+        ImmutableSetMultimap.Builder<K, V> builder = ImmutableSetMultimap.<K, V>builderWithExpectedKeys(
+                        multimapJson.expectedKeys())
+                .expectedValuesPerKey(multimapJson.expectedValuesPerKey());
+        multimapJson.read(reader, builder::put);
+        return builder.build();
+    }
+
+    @Override
+    public void toJson(JsonWriter writer, ImmutableSetMultimap<K, V> value) {
+        if (value == null) {
+            writer.nullValue();
+            return;
+        }
+        if (value.isEmpty()) {
+            writer.beginObject();
+            writer.endObject();
+            return;
+        }
+        multimapJson.write(writer, value);
+    }
+}
@@ -0,0 +1,71 @@
+package com.bitfiddling.avaje.guava;
+
+import com.google.common.collect.ImmutableSortedMap;
+import io.avaje.json.JsonAdapter;
+import io.avaje.json.JsonReader;
+import io.avaje.json.JsonWriter;
+import io.avaje.jsonb.AdapterFactory;
+import io.avaje.jsonb.Jsonb;
+import io.avaje.jsonb.Types;
+import java.lang.reflect.Type;
+
+/**
+ * JsonAdapter for Guava ImmutableSortedMap.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public final class ImmutableSortedMapAdapter<K extends Comparable<K>, V>
+        implements JsonAdapter<ImmutableSortedMap<K, V>> {
+
+    /** Factory for creating ImmutableSortedMapAdapter instances. */
+    public static final AdapterFactory FACTORY = (Type type, Jsonb jsonb) -> {
+        if (Types.isGenericTypeOf(type, ImmutableSortedMap.class)) {
+            return new ImmutableSortedMapAdapter<>(jsonb, Types.typeArguments(type));
+        }
+        return null;
+    };
+
+    private final KeyCodec<K> keyCodec;
+    private final KeyNames<K> keyNames;
+    private final JsonAdapter<V> valueAdapter;
+
+    /**
+     * Creates a new ImmutableSortedMapAdapter.
+     *
+     * @param jsonb the Jsonb instance
+     * @param types the generic type arguments
+     */
+    public ImmutableSortedMapAdapter(Jsonb jsonb, Type[] types) {
+        this.keyCodec = KeyCodec.of(jsonb, types[0]);
+        this.keyNames = new KeyNames<>(jsonb, keyCodec);
+        this.valueAdapter = jsonb.adapter(types[1]);
+    }
+
+    @Override
+    public ImmutableSortedMap<K, V> fromJson(JsonReader reader) {
+        ImmutableSortedMap.Builder<K, V> builder = ImmutableSortedMap.naturalOrder();
+        reader.beginObject();
+        while (reader.hasNextField()) {
+            K key = keyCodec.decode(reader.nextField());
+            builder.put(key, valueAdapter.fromJson(reader));
+        }
+        reader.endObject();
+        // the builder's merge sort takes one pass over keys that are already in order
+        return builder.build();
+    }
+
+    @Override
+    public void toJson(JsonWriter writer, ImmutableSortedMap<K, V> value) {
+        if (value == null) {
+            writer.nullValue();
+            return;
+        }
+        if (value.isEmpty()) {
+            writer.beginObject();
+            writer.endObject();
+            return;
+        }
+        keyNames.write(writer, value, valueAdapter);
+    }
+}
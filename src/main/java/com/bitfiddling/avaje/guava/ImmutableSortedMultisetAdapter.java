@@ -5,7 +5,6 @@ import io.avaje.json.JsonAdapter;
 import io.avaje.json.JsonReader;
 import io.avaje.json.JsonWriter;
 import io.avaje.jsonb.AdapterFactory;
-import io.avaje.jsonb.CustomAdapter;
 import io.avaje.jsonb.Jsonb;
 import io.avaje.jsonb.Types;
 import java.lang.reflect.Type;
@@ -15,19 +14,28 @@ import java.lang.reflect.Type;
  *
  * @param <T> the element type
  */
-@CustomAdapter
 public final class ImmutableSortedMultisetAdapter<T extends Comparable<T>>
         implements JsonAdapter<ImmutableSortedMultiset<T>> {
 
     /** Factory for creating ImmutableSortedMultisetAdapter instances. */
-    public static final AdapterFactory FACTORY = (Type type, Jsonb jsonb) -> {
-        if (Types.isGenericTypeOf(type, ImmutableSortedMultiset.class)) {
-            return new ImmutableSortedMultisetAdapter<>(jsonb, Types.typeArguments(type));
-        }
-        return null;
-    };
+    public static final AdapterFactory FACTORY = factory(MultisetFormat.ELEMENTS);
+
+    /**
+     * Returns a factory for ImmutableSortedMultisetAdapter instances that write the given format.
+     *
+     * @param format the format to write
+     * @return the adapter factory
+     */
+    public static AdapterFactory factory(MultisetFormat format) {
+        return (Type type, Jsonb jsonb) -> {
+            if (Types.isGenericTypeOf(type, ImmutableSortedMultiset.class)) {
+                return new ImmutableSortedMultisetAdapter<>(jsonb, Types.typeArguments(type), format);
+            }
+            return null;
+        };
+    }
 
-    private final JsonAdapter<T> genericType;
+    private final MultisetJson<T> multisetJson;
 
     /**
      * Creates a new ImmutableSortedMultisetAdapter.
@@ -36,18 +44,36 @@ public final class ImmutableSortedMultisetAdapter<T extends Comparable<T>>
      * @param types the generic type arguments
      */
     public ImmutableSortedMultisetAdapter(Jsonb jsonb, Type[] types) {
-        this.genericType = jsonb.adapter(types[0]);
+        this(jsonb, types, MultisetFormat.ELEMENTS);
+    }
+
+    /**
+     * Creates a new ImmutableSortedMultisetAdapter that writes the given format.
+     *
+     * @param jsonb the Jsonb instance
+     * @param types the generic type arguments
+     * @param format the format to write
+     */
+    public ImmutableSortedMultisetAdapter(Jsonb jsonb, Type[] types, MultisetFormat format) {
+        this(jsonb, types, format, null);
+    }
+
+    /**
+     * Creates a new ImmutableSortedMultisetAdapter that writes the given format and interns decoded strings.
+     *
+     * @param jsonb the Jsonb instance
+     * @param types the generic type arguments
+     * @param format the format to write
+     * @param interning the string interning, or null for none
+     */
+    ImmutableSortedMultisetAdapter(Jsonb jsonb, Type[] types, MultisetFormat format, StringInterning interning) {
+        this.multisetJson = new MultisetJson<>(jsonb, types[0], format, interning);
     }
 
     @Override
     public ImmutableSortedMultiset<T> fromJson(JsonReader reader) {
         ImmutableSortedMultiset.Builder<T> builder = ImmutableSortedMultiset.naturalOrder();
-        reader.beginArray();
-        while (reader.hasNextElement()) {
-            T element = genericType.fromJson(reader);
-            builder.add(element);
-        }
-        reader.endArray();
+        multisetJson.read(reader, builder::addCopies);
         return builder.build();
     }
 
@@ -61,10 +87,6 @@ public final class ImmutableSortedMultisetAdapter<T extends Comparable<T>>
             writer.emptyArray();
             return;
         }
-        writer.beginArray();
-        for (T element : value) {
-            genericType.toJson(writer, element);
-        }
-        writer.endArray();
+        multisetJson.write(writer, value);
     }
 }
@@ -1,32 +1,68 @@
 package com.bitfiddling.avaje.guava;
 
+import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.Ordering;
 import io.avaje.json.JsonAdapter;
 import io.avaje.json.JsonReader;
 import io.avaje.json.JsonWriter;
 import io.avaje.jsonb.AdapterFactory;
-import io.avaje.jsonb.CustomAdapter;
 import io.avaje.jsonb.Jsonb;
 import io.avaje.jsonb.Types;
 import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * JsonAdapter for Guava ImmutableSortedSet.
  *
  * @param <T> the element type
  */
-@CustomAdapter
 public final class ImmutableSortedSetAdapter<T extends Comparable<T>> implements JsonAdapter<ImmutableSortedSet<T>> {
 
+    /**
+     * Default maximum number of members of a set decoded from the deltas format, where a
+     * single number can stand for any number of members.
+     */
+    public static final int DEFAULT_MAXIMUM_DELTAS_SIZE = 1 << 20;
+
     /** Factory for creating ImmutableSortedSetAdapter instances. */
-    public static final AdapterFactory FACTORY = (Type type, Jsonb jsonb) -> {
-        if (Types.isGenericTypeOf(type, ImmutableSortedSet.class)) {
-            return new ImmutableSortedSetAdapter<>(jsonb, Types.typeArguments(type));
-        }
-        return null;
-    };
+    public static final AdapterFactory FACTORY = factory(SortedSetFormat.ELEMENTS);
+
+    /**
+     * Returns a factory for ImmutableSortedSetAdapter instances that write the given format.
+     *
+     * @param format the format to write
+     * @return the adapter factory
+     */
+    public static AdapterFactory factory(SortedSetFormat format) {
+        return factory(format, DEFAULT_MAXIMUM_DELTAS_SIZE);
+    }
+
+    /**
+     * Returns a factory for ImmutableSortedSetAdapter instances that write the given format
+     * and decode sets of up to {@code maximumDeltasSize} members from the deltas format.
+     *
+     * @param format the format to write
+     * @param maximumDeltasSize the maximum number of members decoded from the deltas format
+     * @return the adapter factory
+     */
+    public static AdapterFactory factory(SortedSetFormat format, int maximumDeltasSize) {
+        Preconditions.checkArgument(
+                maximumDeltasSize >= 0, "maximumDeltasSize must not be negative: %s", maximumDeltasSize);
+        return (Type type, Jsonb jsonb) -> {
+            if (Types.isGenericTypeOf(type, ImmutableSortedSet.class)) {
+                return new ImmutableSortedSetAdapter<>(jsonb, Types.typeArguments(type), format, maximumDeltasSize);
+            }
+            return null;
+        };
+    }
 
     private final JsonAdapter<T> genericType;
+    private final DeltaJson deltaJson;
+    private final boolean writeDeltas;
+    private final SizeEstimate sizeEstimate = new SizeEstimate();
+    private final ScratchBuffer scratch = new ScratchBuffer();
 
     /**
      * Creates a new ImmutableSortedSetAdapter.
@@ -35,22 +71,77 @@ public final class ImmutableSortedSetAdapter<T extends Comparable<T>> implements
      * @param types the generic type arguments
      */
     public ImmutableSortedSetAdapter(Jsonb jsonb, Type[] types) {
-        this.genericType = jsonb.adapter(types[0]);
+        this(jsonb, types, SortedSetFormat.ELEMENTS);
+    }
+
+    /**
+     * Creates a new ImmutableSortedSetAdapter that writes the given format.
+     *
+     * @param jsonb the Jsonb instance
+     * @param types the generic type arguments
+     * @param format the format to write
+     */
+    public ImmutableSortedSetAdapter(Jsonb jsonb, Type[] types, SortedSetFormat format) {
+        this(jsonb, types, format, DEFAULT_MAXIMUM_DELTAS_SIZE);
+    }
+
+    /**
+     * Creates a new ImmutableSortedSetAdapter that writes the given format and decodes sets
+     * of up to {@code maximumDeltasSize} members from the deltas format.
+     *
+     * @param jsonb the Jsonb instance
+     * @param types the generic type arguments
+     * @param format the format to write
+     * @param maximumDeltasSize the maximum number of members decoded from the deltas format
+     */
+    public ImmutableSortedSetAdapter(Jsonb jsonb, Type[] types, SortedSetFormat format, int maximumDeltasSize) {
+        this(jsonb, types, format, maximumDeltasSize, null);
+    }
+
+    /**
+     * Creates a new ImmutableSortedSetAdapter that interns decoded strings.
+     *
+     * @param jsonb the Jsonb instance
+     * @param types the generic type arguments
+     * @param interning the string interning, or null for none
+     */
+    ImmutableSortedSetAdapter(Jsonb jsonb, Type[] types, StringInterning interning) {
+        this(jsonb, types, SortedSetFormat.ELEMENTS, DEFAULT_MAXIMUM_DELTAS_SIZE, interning);
+    }
+
+    private ImmutableSortedSetAdapter(
+            Jsonb jsonb, Type[] types, SortedSetFormat format, int maximumDeltasSize, StringInterning interning) {
+        this.genericType = StringInterning.elementAdapter(jsonb, types[0], interning);
+        this.deltaJson = DeltaJson.of(types[0], maximumDeltasSize);
+        this.writeDeltas = deltaJson != null && format == SortedSetFormat.DELTAS;
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public ImmutableSortedSet<T> fromJson(JsonReader reader) {
-        ImmutableSortedSet.Builder<T> builder = ImmutableSortedSet.naturalOrder();
+        if (deltaJson != null && reader.currentToken() == JsonReader.Token.BEGIN_OBJECT) {
+            return deltaJson.read(reader, scratch, sizeEstimate);
+        }
+        Object[] elements = scratch.acquire(sizeEstimate.expectedSize());
+        int size = 0;
         reader.beginArray();
         while (reader.hasNextElement()) {
-            T element = genericType.fromJson(reader);
-            builder.add(element);
+            if (size == elements.length) {
+                elements = ScratchBuffer.grow(elements);
+            }
+            elements[size++] = genericType.fromJson(reader);
         }
         reader.endArray();
-        return builder.build();
+        sizeEstimate.record(size);
+        List<T> decoded = (List<T>) (List<?>) Arrays.asList(elements).subList(0, size);
+        // the merge sort in copyOf takes one pass over input that is already in order
+        ImmutableSortedSet<T> result = ImmutableSortedSet.copyOf(Ordering.natural(), decoded);
+        scratch.release(elements, size);
+        return result;
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public void toJson(JsonWriter writer, ImmutableSortedSet<T> value) {
         if (value == null) {
             writer.nullValue();
@@ -60,6 +151,9 @@ public final class ImmutableSortedSetAdapter<T extends Comparable<T>> implements
             writer.emptyArray();
             return;
         }
+        if (writeDeltas && deltaJson.write(writer, (ImmutableSortedSet<? extends Number>) value)) {
+            return;
+        }
         writer.beginArray();
         for (T element : value) {
             genericType.toJson(writer, element);
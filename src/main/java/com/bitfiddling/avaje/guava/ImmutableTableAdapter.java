@@ -0,0 +1,93 @@
+package com.bitfiddling.avaje.guava;
+
+import com.google.common.collect.ImmutableTable;
+import io.avaje.json.JsonAdapter;
+import io.avaje.json.JsonReader;
+import io.avaje.json.JsonWriter;
+import io.avaje.jsonb.AdapterFactory;
+import io.avaje.jsonb.Jsonb;
+import io.avaje.jsonb.Types;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * JsonAdapter for Guava ImmutableTable.
+ *
+ * @param <R> the row key type
+ * @param <C> the column key type
+ * @param <V> the value type
+ */
+public final class ImmutableTableAdapter<R, C, V> implements JsonAdapter<ImmutableTable<R, C, V>> {
+
+    /** Factory for creating ImmutableTableAdapter instances. */
+    public static final AdapterFactory FACTORY = factory(TableFormat.ROW_MAJOR);
+
+    /**
+     * Returns a factory for ImmutableTableAdapter instances that write the given format.
+     *
+     * @param format the format to write
+     * @return the adapter factory
+     */
+    public static AdapterFactory factory(TableFormat format) {
+        return (Type type, Jsonb jsonb) -> {
+            if (Types.isGenericTypeOf(type, ImmutableTable.class)) {
+                return new ImmutableTableAdapter<>(jsonb, Types.typeArguments(type), format);
+            }
+            return null;
+        };
+    }
+
+    private final TableJson<R, C, V> tableJson;
+
+    /**
+     * Creates a new ImmutableTableAdapter.
+     *
+     * @param jsonb the Jsonb instance
+     * @param types the generic type arguments
+     */
+    public ImmutableTableAdapter(Jsonb jsonb, Type[] types) {
+        this(jsonb, types, TableFormat.ROW_MAJOR);
+    }
+
+    /**
+     * Creates a new ImmutableTableAdapter that writes the given format.
+     *
+     * @param jsonb the Jsonb instance
+     * @param types the generic type arguments
+     * @param format the format to write
+     */
+    public ImmutableTableAdapter(Jsonb jsonb, Type[] types, TableFormat format) {
+        this.tableJson = new TableJson<>(jsonb, types, format);
+    }
+
+    @Override
+    public ImmutableTable<R, C, V> fromJson(JsonReader reader) {
+        ImmutableTable.Builder<R, C, V> builder = ImmutableTable.builder();
+        tableJson.read(reader, new TableJson.Sink<>() {
+            @Override
+            public void start(List<R> rowKeys, List<C> columnKeys) {}
+
+            @Override
+            public void put(R row, C column, V value) {
+                if (value != null) {
+                    builder.put(row, column, value);
+                }
+            }
+        });
+        return builder.build();
+    }
+
+    @Override
+    public void toJson(JsonWriter writer, ImmutableTable<R, C, V> value) {
+        if (value == null) {
+            writer.nullValue();
+            return;
+        }
+        if (value.isEmpty()) {
+            writer.beginObject();
+            writer.endObject();
+            return;
+        }
+        tableJson.write(writer, value);
+    }
+}
@@ -0,0 +1,204 @@
+package com.bitfiddling.avaje.guava;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.RangeMap;
+import com.google.common.collect.RangeSet;
+import com.google.common.collect.Table;
+import com.google.common.primitives.ImmutableDoubleArray;
+import com.google.common.primitives.ImmutableIntArray;
+import com.google.common.primitives.ImmutableLongArray;
+import io.avaje.json.JsonAdapter;
+import io.avaje.json.JsonReader;
+import io.avaje.json.JsonWriter;
+import io.avaje.jsonb.AdapterFactory;
+import io.avaje.jsonb.Jsonb;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.Map;
+import jdk.jfr.EventType;
+
+/**
+ * Decorates adapters to record call counts, latency and sizes through an
+ * {@link AdapterMetrics}, and to emit {@code com.bitfiddling.avaje.guava.AdapterCall}
+ * Flight Recorder events for values of at least a size threshold.
+ *
+ * <p>{@link #factory()} wraps the adapters of this library and {@link #factory(AdapterFactory)}
+ * those of any other factory, such as {@link StringInterning#factory()}. Instrumentation
+ * can be switched off and on at runtime; while off, a wrapped adapter only reads one
+ * flag before delegating, and no Flight Recorder event is even allocated unless a
+ * recording enables it.
+ *
+ * <pre>{@code
+ * AdapterStatistics statistics = new AdapterStatistics();
+ * Instrumentation instrumentation = Instrumentation.create(statistics, 10_000);
+ * Jsonb jsonb = Jsonb.builder().add(instrumentation.factory()).build();
+ * }</pre>
+ */
+public final class Instrumentation {
+
+    private static final EventType EVENT_TYPE = EventType.getEventType(AdapterEvent.class);
+
+    private final AdapterMetrics metrics;
+    private final int eventThreshold;
+    private volatile boolean enabled = true;
+
+    private Instrumentation(AdapterMetrics metrics, int eventThreshold) {
+        this.metrics = metrics;
+        this.eventThreshold = eventThreshold;
+    }
+
+    /**
+     * Returns instrumentation that records to the given metrics, without Flight Recorder
+     * events.
+     *
+     * @param metrics the metrics to record to
+     * @return the instrumentation
+     */
+    public static Instrumentation create(AdapterMetrics metrics) {
+        return create(metrics, -1);
+    }
+
+    /**
+     * Returns instrumentation that records to the given metrics and emits a Flight
+     * Recorder event for every value with at least {@code eventThreshold} elements.
+     *
+     * @param metrics the metrics to record to
+     * @param eventThreshold the smallest size to emit an event for, or -1 for none
+     * @return the instrumentation
+     */
+    public static Instrumentation create(AdapterMetrics metrics, int eventThreshold) {
+        Preconditions.checkNotNull(metrics, "metrics");
+        Preconditions.checkArgument(eventThreshold >= -1, "eventThreshold must be -1 or more: %s", eventThreshold);
+        return new Instrumentation(metrics, eventThreshold);
+    }
+
+    /**
+     * Switches recording on or off.
+     *
+     * @param enabled whether to record
+     */
+    public void enabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Returns whether recording is on.
+     *
+     * @return whether to record
+     */
+    public boolean enabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns a factory for the adapters of this library that records their calls.
+     *
+     * @return the adapter factory
+     */
+    public AdapterFactory factory() {
+        return factory(GuavaJsonbComponent.FACTORY);
+    }
+
+    /**
+     * Returns a factory that records the calls of the adapters created by another factory.
+     *
+     * @param delegate the factory whose adapters to record
+     * @return the adapter factory
+     */
+    public AdapterFactory factory(AdapterFactory delegate) {
+        return (Type type, Jsonb jsonb) -> {
+            JsonAdapter<?> adapter = delegate.create(type, jsonb);
+            return adapter == null ? null : new InstrumentedAdapter<>(type, adapter);
+        };
+    }
+
+    /** Returns the number of elements, entries or cells of a value, or 1 for a single value. */
+    static int sizeOf(Object value) {
+        if (value instanceof Collection<?> collection) {
+            return collection.size();
+        } else if (value instanceof Map<?, ?> map) {
+            return map.size();
+        } else if (value instanceof Multimap<?, ?> multimap) {
+            return multimap.size();
+        } else if (value instanceof Table<?, ?, ?> table) {
+            return table.size();
+        } else if (value instanceof RangeSet<?> rangeSet) {
+            return rangeSet.asRanges().size();
+        } else if (value instanceof RangeMap<?, ?> rangeMap) {
+            return rangeMap.asMapOfRanges().size();
+        } else if (value instanceof ImmutableIntArray array) {
+            return array.length();
+        } else if (value instanceof ImmutableLongArray array) {
+            return array.length();
+        } else if (value instanceof ImmutableDoubleArray array) {
+            return array.length();
+        }
+        return value == null ? 0 : 1;
+    }
+
+    private final class InstrumentedAdapter<T> implements JsonAdapter<T> {
+
+        private final Type type;
+        private final JsonAdapter<T> delegate;
+
+        @SuppressWarnings("unchecked")
+        InstrumentedAdapter(Type type, JsonAdapter<?> delegate) {
+            this.type = type;
+            this.delegate = (JsonAdapter<T>) delegate;
+        }
+
+        @Override
+        public T fromJson(JsonReader reader) {
+            if (!enabled) {
+                return delegate.fromJson(reader);
+            }
+            AdapterEvent event = beginEvent();
+            long start = System.nanoTime();
+            T value = delegate.fromJson(reader);
+            long nanos = System.nanoTime() - start;
+            int size = sizeOf(value);
+            metrics.decoded(type, size, nanos);
+            commit(event, "decode", size);
+            return value;
+        }
+
+        @Override
+        public void toJson(JsonWriter writer, T value) {
+            if (!enabled) {
+                delegate.toJson(writer, value);
+                return;
+            }
+            AdapterEvent event = beginEvent();
+            long start = System.nanoTime();
+            delegate.toJson(writer, value);
+            long nanos = System.nanoTime() - start;
+            int size = sizeOf(value);
+            metrics.encoded(type, size, nanos);
+            commit(event, "encode", size);
+        }
+
+        /** Starts an event, or returns {@code null} if no recording could commit it. */
+        private AdapterEvent beginEvent() {
+            if (eventThreshold < 0 || !EVENT_TYPE.isEnabled()) {
+                return null;
+            }
+            AdapterEvent event = new AdapterEvent();
+            event.begin();
+            return event;
+        }
+
+        private void commit(AdapterEvent event, String operation, int size) {
+            if (event == null || size < eventThreshold) {
+                return;
+            }
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = operation;
+                event.type = type.getTypeName();
+                event.size = size;
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.bitfiddling.avaje.guava;
+
+import io.avaje.json.JsonWriter;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/** Small helpers shared by the adapters. */
+final class JsonSupport {
+
+    /** Characters of raw JSON copied into the writer at a time. */
+    private static final int RAW_PIECE = 1024;
+
+    private JsonSupport() {}
+
+    /**
+     * Begins an array that is itself an element of an enclosing array.
+     *
+     * <p>The avaje writer does not emit the separating comma when an array directly
+     * follows another array element ({@code [[1][2]]}), so an empty raw value is written
+     * first to put the separator in place.
+     */
+    static void beginNestedArray(JsonWriter writer) {
+        writer.rawValue("");
+        writer.beginArray();
+    }
+
+    /**
+     * Writes ASCII JSON as one raw value. Long values are copied in pieces, as the writer
+     * copies a long raw string into its buffer piece by piece without enlarging it.
+     */
+    static void writeRaw(JsonWriter writer, String json) {
+        writer.rawChunkStart();
+        for (int start = 0; start < json.length(); start += RAW_PIECE) {
+            writer.rawChunk(json.substring(start, Math.min(json.length(), start + RAW_PIECE)));
+        }
+        writer.rawChunkEnd();
+    }
+
+    /**
+     * Writes a {@code null} that holds a position, such as a missing table cell or an
+     * unbounded range endpoint, even when the writer is set not to serialize nulls.
+     */
+    static void writePositionalNull(JsonWriter writer) {
+        boolean serializeNulls = writer.serializeNulls();
+        writer.serializeNulls(true);
+        writer.nullValue();
+        writer.serializeNulls(serializeNulls);
+    }
+
+    /**
+     * Waits for a parallel range task, rethrowing its unchecked failure, such as a
+     * JsonDataException, as is.
+     */
+    static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
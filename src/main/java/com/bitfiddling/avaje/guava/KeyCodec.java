@@ -0,0 +1,228 @@
+package com.bitfiddling.avaje.guava;
+
+import io.avaje.json.JsonAdapter;
+import io.avaje.json.JsonDataException;
+import io.avaje.json.JsonReader;
+import io.avaje.json.JsonWriter;
+import io.avaje.json.stream.BufferRecycleStrategy;
+import io.avaje.json.stream.BufferedJsonWriter;
+import io.avaje.json.stream.JsonStream;
+import io.avaje.jsonb.Jsonb;
+import io.avaje.jsonb.Types;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Converts map keys to and from JSON field names.
+ *
+ * <p>String keys are used as is. Numeric, boolean and UUID keys are parsed directly, and
+ * any other key type (enums, {@code @Json.Value} types) goes through its registered
+ * adapter as a single JSON value. Decoded non-String keys are kept in a bounded cache so
+ * repeated field names are only parsed once; enum keys are fully cached up front.
+ *
+ * @param <K> the key type
+ */
+final class KeyCodec<K> {
+
+    /** Upper bound on the number of keys cached per adapter. */
+    static final int MAX_CACHED_KEYS = 1024;
+
+    /**
+     * Stream used to run key adapters while the enclosing document is being read or
+     * written. It must not recycle buffers, as the recycled reader or writer would be the
+     * one that is already in use.
+     */
+    private static final JsonStream VALUE_STREAM = JsonStream.builder()
+            .bufferRecycling(BufferRecycleStrategy.NO_RECYCLING)
+            .build();
+
+    private final Type keyType;
+    private final StringInterning interning;
+    private final Function<String, K> parser;
+    private final JsonAdapter<K> keyAdapter;
+    private final JsonAdapter<String> stringAdapter;
+    private final Map<String, K> keys;
+    private final Map<K, String> names;
+
+    private KeyCodec(
+            Jsonb jsonb, Type keyType, StringInterning interning, Function<String, K> parser, boolean useAdapter) {
+        this.keyType = keyType;
+        this.interning = interning;
+        this.parser = parser;
+        this.keyAdapter = useAdapter ? jsonb.adapter(keyType) : null;
+        this.stringAdapter = useAdapter ? jsonb.adapter(String.class) : null;
+        this.keys = parser != null || useAdapter ? new ConcurrentHashMap<>() : null;
+        this.names = useAdapter ? new ConcurrentHashMap<>() : null;
+    }
+
+    /**
+     * Returns the codec for the given key type.
+     */
+    static <K> KeyCodec<K> of(Jsonb jsonb, Type keyType) {
+        return of(jsonb, keyType, null);
+    }
+
+    /**
+     * Returns the codec for the given key type, interning String keys with the given
+     * interning if it is not null.
+     */
+    @SuppressWarnings("unchecked")
+    static <K> KeyCodec<K> of(Jsonb jsonb, Type keyType, StringInterning interning) {
+        Class<?> rawType = Types.rawType(keyType);
+        if (rawType == String.class || rawType == Object.class || rawType == CharSequence.class) {
+            return new KeyCodec<>(jsonb, keyType, interning, null, false);
+        }
+        Function<String, ?> parser = parser(rawType);
+        if (parser != null) {
+            return new KeyCodec<>(jsonb, keyType, null, (Function<String, K>) parser, false);
+        }
+        KeyCodec<K> codec = new KeyCodec<>(jsonb, keyType, null, null, true);
+        if (rawType.isEnum()) {
+            for (Object constant : rawType.getEnumConstants()) {
+                K key = (K) constant;
+                codec.keys.put(codec.encode(key), key);
+            }
+        }
+        return codec;
+    }
+
+    private static Function<String, ?> parser(Class<?> rawType) {
+        if (rawType == Integer.class) {
+            return Integer::valueOf;
+        } else if (rawType == Long.class) {
+            return Long::valueOf;
+        } else if (rawType == Short.class) {
+            return Short::valueOf;
+        } else if (rawType == Byte.class) {
+            return Byte::valueOf;
+        } else if (rawType == Double.class) {
+            return Double::valueOf;
+        } else if (rawType == Float.class) {
+            return Float::valueOf;
+        } else if (rawType == BigInteger.class) {
+            return BigInteger::new;
+        } else if (rawType == BigDecimal.class) {
+            return BigDecimal::new;
+        } else if (rawType == Boolean.class) {
+            return KeyCodec::parseBoolean;
+        } else if (rawType == UUID.class) {
+            return UUID::fromString;
+        }
+        return null;
+    }
+
+    private static Boolean parseBoolean(String name) {
+        if ("true".equals(name)) {
+            return Boolean.TRUE;
+        } else if ("false".equals(name)) {
+            return Boolean.FALSE;
+        }
+        throw new IllegalArgumentException("Not a boolean: " + name);
+    }
+
+    /** Decodes a JSON field name into a key. */
+    @SuppressWarnings("unchecked")
+    K decode(String name) {
+        if (keys == null) {
+            return (K) (interning != null ? interning.intern(name) : name);
+        }
+        K key = keys.get(name);
+        if (key == null) {
+            key = parse(name);
+            if (keys.size() < MAX_CACHED_KEYS) {
+                keys.putIfAbsent(name, key);
+            }
+        }
+        return key;
+    }
+
+    private K parse(String name) {
+        K key;
+        try {
+            key = parser != null ? parser.apply(name) : parseWithAdapter(name);
+        } catch (RuntimeException e) {
+            throw new JsonDataException("Invalid map key '" + name + "' for " + keyType.getTypeName(), e);
+        }
+        if (key == null) {
+            throw new JsonDataException("Map key '" + name + "' decoded to null for " + keyType.getTypeName());
+        }
+        return key;
+    }
+
+    private K parseWithAdapter(String name) {
+        try {
+            // Most value types (enums, string-backed @Json.Value types) read a JSON string
+            return readValue(keyAdapter, writeValue(stringAdapter, name));
+        } catch (JsonDataException e) {
+            // @Json.Value types backed by a number read the bare value
+            return readValue(keyAdapter, name);
+        }
+    }
+
+    /** Encodes a key as a JSON field name. */
+    String encode(K key) {
+        if (names == null) {
+            return key.toString();
+        }
+        String name = names.get(key);
+        if (name == null) {
+            String json = writeValue(keyAdapter, key);
+            name = json.startsWith("\"") ? readValue(stringAdapter, json) : json;
+            if (names.size() < MAX_CACHED_KEYS) {
+                names.putIfAbsent(key, name);
+            }
+        }
+        return name;
+    }
+
+    /** Writes a single value with the given adapter and returns its JSON. */
+    static <T> String writeValue(JsonAdapter<T> adapter, T value) {
+        BufferedJsonWriter writer = VALUE_STREAM.bufferedWriter();
+        adapter.toJson(writer, value);
+        writer.close();
+        return writer.result();
+    }
+
+    /**
+     * Writes a single value with the given adapter, serializing nulls and empty collections
+     * as the given writer does, and returns its JSON.
+     */
+    static <T> String writeValue(JsonAdapter<T> adapter, T value, JsonWriter like) {
+        BufferedJsonWriter writer = VALUE_STREAM.bufferedWriter();
+        writer.serializeNulls(like.serializeNulls());
+        writer.serializeEmpty(like.serializeEmpty());
+        adapter.toJson(writer, value);
+        writer.close();
+        return writer.result();
+    }
+
+    /** Reads the elements of a JSON array with the given action, which starts before the first. */
+    static void readArray(String json, Consumer<JsonReader> elements) {
+        try (JsonReader reader = VALUE_STREAM.reader(json)) {
+            reader.beginArray();
+            elements.accept(reader);
+        }
+    }
+
+    /**
+     * Reads a single JSON value. The value is wrapped in an array as the avaje reader
+     * does not accept a bare top-level string, and anything after the value is rejected.
+     */
+    static <T> T readValue(JsonAdapter<T> adapter, String json) {
+        try (JsonReader reader = VALUE_STREAM.reader("[" + json + "]")) {
+            reader.beginArray();
+            reader.hasNextElement();
+            T value = adapter.fromJson(reader);
+            if (reader.hasNextElement()) {
+                throw new JsonDataException("Unexpected content after the value in '" + json + "'");
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.bitfiddling.avaje.guava;
+
+import com.google.common.collect.ImmutableMap;
+import io.avaje.json.JsonAdapter;
+import io.avaje.json.JsonWriter;
+import io.avaje.json.PropertyNames;
+import io.avaje.jsonb.Jsonb;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Writes maps as JSON objects using a bounded per-adapter cache of pre-escaped field
+ * names.
+ *
+ * <p>Keys are collected into a {@link PropertyNames} snapshot, the same facility the
+ * generated adapters use for their property names, so a repeated key is written by
+ * copying its encoded bytes instead of converting and escaping it again. A key is only
+ * admitted once it is seen by a second write, so keys that do not repeat, such as ids,
+ * do not fill the cache. A write only considers as many missing keys as the cache has
+ * room for, and the keys seen once are forgotten whenever
+ * {@link KeyCodec#MAX_CACHED_KEYS} of them pile up. The snapshot is immutable and is
+ * replaced once the admitted keys are as many as it holds, so it at least doubles each
+ * time and building the snapshots costs time linear in the keys they end up holding.
+ * Admitted keys are written through the {@link KeyCodec} until the next snapshot, as are
+ * keys beyond the bound, so an unbounded key space only costs a few lookups per key.
+ *
+ * @param <K> the key type
+ */
+final class KeyNames<K> {
+
+    private final Jsonb jsonb;
+    private final KeyCodec<K> keyCodec;
+    private final Set<K> seen = ConcurrentHashMap.newKeySet();
+    private final Set<K> admitted = ConcurrentHashMap.newKeySet();
+    private volatile Snapshot<K> snapshot = new Snapshot<>(ImmutableMap.of(), new String[0], null);
+
+    KeyNames(Jsonb jsonb, KeyCodec<K> keyCodec) {
+        this.jsonb = jsonb;
+        this.keyCodec = keyCodec;
+    }
+
+    /** Writes a map as a JSON object, including its braces. */
+    <V> void write(JsonWriter writer, Map<K, V> map, JsonAdapter<V> valueAdapter) {
+        Snapshot<K> current = snapshot;
+        if (current.names == null) {
+            writer.beginObject();
+        } else {
+            writer.beginObject(current.names);
+        }
+        int room = KeyCodec.MAX_CACHED_KEYS - current.size();
+        boolean admittedAny = false;
+        for (var entry : map.entrySet()) {
+            K key = entry.getKey();
+            Integer position = current.index.get(key);
+            if (position != null) {
+                writer.name(position);
+            } else {
+                writer.name(keyCodec.encode(key));
+                if (room > 0) {
+                    room--;
+                    admittedAny |= see(key);
+                }
+            }
+            valueAdapter.toJson(writer, entry.getValue());
+        }
+        writer.endObject();
+        if (admittedAny
+                && admitted.size()
+                        >= Math.max(1, Math.min(current.size(), KeyCodec.MAX_CACHED_KEYS - current.size()))) {
+            grow();
+        }
+    }
+
+    /**
+     * Records a key missing from the snapshot, returning whether it is admitted by this
+     * call because it was seen before.
+     */
+    private boolean see(K key) {
+        if (admitted.contains(key)) {
+            return false;
+        } else if (seen.remove(key)) {
+            return admitted.add(key);
+        }
+        if (seen.size() >= KeyCodec.MAX_CACHED_KEYS) {
+            seen.clear();
+        }
+        seen.add(key);
+        return false;
+    }
+
+    /** Replaces the snapshot with one that also holds the admitted keys, up to the bound. */
+    private synchronized void grow() {
+        Snapshot<K> current = snapshot;
+        int size = current.size();
+        String[] encoded = Arrays.copyOf(current.encoded, Math.min(KeyCodec.MAX_CACHED_KEYS, size + admitted.size()));
+        ImmutableMap.Builder<K, Integer> index = ImmutableMap.builderWithExpectedSize(encoded.length);
+        index.putAll(current.index);
+        for (K key : admitted) {
+            if (size == encoded.length) {
+                break;
+            }
+            if (admitted.remove(key) && !current.index.containsKey(key)) {
+                index.put(key, size);
+                encoded[size++] = keyCodec.encode(key);
+            }
+        }
+        if (size == current.size()) {
+            return;
+        }
+        encoded = Arrays.copyOf(encoded, size);
+        snapshot = new Snapshot<>(index.buildOrThrow(), encoded, jsonb.properties(encoded));
+        if (size >= KeyCodec.MAX_CACHED_KEYS) {
+            seen.clear();
+            admitted.clear();
+        }
+    }
+
+    /** Cached keys with their positions in the matching property names. */
+    private static final class Snapshot<K> {
+
+        final ImmutableMap<K, Integer> index;
+        final String[] encoded;
+        final PropertyNames names;
+
+        Snapshot(ImmutableMap<K, Integer> index, String[] encoded, PropertyNames names) {
+            this.index = index;
+            this.encoded = encoded;
+            this.names = names;
+        }
+
+        int size() {
+            return encoded.length;
+        }
+    }
+}
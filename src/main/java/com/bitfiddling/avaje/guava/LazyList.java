@@ -0,0 +1,125 @@
+package com.bitfiddling.avaje.guava;
+
+import com.google.common.base.CharMatcher;
+import com.google.common.collect.ImmutableList;
+import io.avaje.json.JsonAdapter;
+import io.avaje.json.JsonWriter;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * An immutable list decoded from JSON one element at a time, on first access.
+ *
+ * <p>Reading a LazyList only skims the JSON array, keeping the raw JSON of its elements
+ * and where each one starts, so a list that is never read costs little more than
+ * skipping it, and one that is partly read costs the elements read. Each element is
+ * decoded once; its value is kept and returned by later calls. {@link #toImmutableList()}
+ * decodes the remaining elements. Writing a list whose JSON is ASCII copies that JSON
+ * without decoding it.
+ *
+ * <p>Declare a field as {@code LazyList<T>} rather than {@code ImmutableList<T>} to read it
+ * lazily, as ImmutableList cannot be implemented outside Guava. Elements must not be
+ * {@code null} for {@link #toImmutableList()} to succeed. When reading from a stream,
+ * each element's JSON must fit the reader's raw buffer; see {@link LazyListAdapter}.
+ *
+ * @param <T> the element type
+ */
+public final class LazyList<T> extends AbstractList<T> implements RandomAccess {
+
+    private static final Object NULL = new Object();
+
+    private final JsonAdapter<T> elementAdapter;
+    private final String json;
+    private final int[] bounds;
+    private final AtomicReferenceArray<Object> values;
+    private volatile ImmutableList<T> immutableList;
+    private volatile Boolean ascii;
+
+    /**
+     * @param elementAdapter decodes and writes the elements
+     * @param json the elements as a JSON array, such as {@code [1,2]}
+     * @param bounds the start of each element in the array, followed by the array length;
+     *     each element ends one character before the next starts
+     */
+    LazyList(JsonAdapter<T> elementAdapter, String json, int[] bounds) {
+        this.elementAdapter = elementAdapter;
+        this.json = json;
+        this.bounds = bounds;
+        this.values = new AtomicReferenceArray<>(bounds.length - 1);
+    }
+
+    @Override
+    public int size() {
+        return values.length();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        Object value = values.get(index);
+        if (value == null) {
+            T decoded = KeyCodec.readValue(elementAdapter, json.substring(bounds[index], bounds[index + 1] - 1));
+            // racing threads keep the first value decoded
+            values.compareAndSet(index, null, decoded == null ? NULL : decoded);
+            value = values.get(index);
+        }
+        return value == NULL ? null : (T) value;
+    }
+
+    /**
+     * Returns the elements as an ImmutableList, decoding those not read yet.
+     *
+     * @return the elements
+     */
+    public ImmutableList<T> toImmutableList() {
+        ImmutableList<T> list = immutableList;
+        if (list == null) {
+            decodeAll();
+            list = ImmutableList.copyOf(this);
+            immutableList = list;
+        }
+        return list;
+    }
+
+    /** Decodes the elements not read yet in one pass over the array. */
+    private void decodeAll() {
+        KeyCodec.readArray(json, reader -> {
+            for (int i = 0; i < size(); i++) {
+                reader.hasNextElement();
+                if (values.get(i) == null) {
+                    T decoded = elementAdapter.fromJson(reader);
+                    values.compareAndSet(i, null, decoded == null ? NULL : decoded);
+                } else {
+                    reader.skipValue();
+                }
+            }
+        });
+    }
+
+    /**
+     * Writes the elements as a JSON array, which may be an element of an enclosing array.
+     */
+    void write(JsonWriter writer) {
+        Boolean isAscii = ascii;
+        if (isAscii == null) {
+            isAscii = CharMatcher.ascii().matchesAllOf(json);
+            ascii = isAscii;
+        }
+        if (isAscii) {
+            JsonSupport.writeRaw(writer, json);
+            return;
+        }
+        decodeAll();
+        JsonSupport.beginNestedArray(writer);
+        for (int i = 0; i < size(); i++) {
+            T value = get(i);
+            if (value == null) {
+                JsonSupport.writePositionalNull(writer);
+            } else {
+                elementAdapter.toJson(writer, value);
+            }
+        }
+        writer.endArray();
+    }
+}
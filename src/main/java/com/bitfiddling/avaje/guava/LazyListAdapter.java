@@ -0,0 +1,86 @@
+package com.bitfiddling.avaje.guava;
+
+import io.avaje.json.JsonAdapter;
+import io.avaje.json.JsonReader;
+import io.avaje.json.JsonWriter;
+import io.avaje.jsonb.AdapterFactory;
+import io.avaje.jsonb.Jsonb;
+import io.avaje.jsonb.Types;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+
+/**
+ * JsonAdapter for {@link LazyList}, reading the raw JSON of each element of an array
+ * without decoding it.
+ *
+ * <p>Each element is skimmed by the reader and its raw JSON appended to one string, with
+ * its start recorded, so reading works on streams, where a reader only buffers a bounded
+ * amount of raw JSON for one value. That bound applies to each element: on a reader over
+ * an {@code InputStream}, an element whose JSON exceeds about 50 KB fails with a
+ * JsonDataException, while the same document reads fine as an {@code ImmutableList}.
+ * Readers over a {@code String} or {@code byte[]} have no such limit.
+ *
+ * @param <T> the element type
+ */
+public final class LazyListAdapter<T> implements JsonAdapter<LazyList<T>> {
+
+    /** Factory for creating LazyListAdapter instances. */
+    public static final AdapterFactory FACTORY = (Type type, Jsonb jsonb) -> {
+        if (Types.isGenericTypeOf(type, LazyList.class)) {
+            return new LazyListAdapter<>(jsonb, Types.typeArguments(type));
+        }
+        return null;
+    };
+
+    private final JsonAdapter<T> elementAdapter;
+    private final SizeEstimate sizeEstimate = new SizeEstimate();
+    private final SizeEstimate lengthEstimate = new SizeEstimate();
+
+    /**
+     * Creates a new LazyListAdapter.
+     *
+     * @param jsonb the Jsonb instance
+     * @param types the generic type arguments
+     */
+    public LazyListAdapter(Jsonb jsonb, Type[] types) {
+        this.elementAdapter = jsonb.adapter(types[0]);
+    }
+
+    @Override
+    public LazyList<T> fromJson(JsonReader reader) {
+        int[] bounds = new int[sizeEstimate.expectedSize() + 1];
+        int size = 0;
+        StringBuilder json = new StringBuilder(Math.max(16, lengthEstimate.expectedSize()));
+        json.append('[');
+        reader.beginArray();
+        while (reader.hasNextElement()) {
+            if (size > 0) {
+                json.append(',');
+            }
+            if (size + 1 == bounds.length) {
+                bounds = Arrays.copyOf(bounds, bounds.length * 2);
+            }
+            bounds[size++] = json.length();
+            json.append(reader.readRaw());
+        }
+        reader.endArray();
+        json.append(']');
+        bounds[size] = json.length();
+        sizeEstimate.record(size);
+        lengthEstimate.record(json.length());
+        return new LazyList<>(elementAdapter, json.toString(), Arrays.copyOf(bounds, size + 1));
+    }
+
+    @Override
+    public void toJson(JsonWriter writer, LazyList<T> value) {
+        if (value == null) {
+            writer.nullValue();
+            return;
+        }
+        if (value.isEmpty() && !writer.serializeEmpty()) {
+            writer.emptyArray();
+            return;
+        }
+        value.write(writer);
+    }
+}
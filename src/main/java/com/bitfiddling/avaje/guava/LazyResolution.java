@@ -0,0 +1,237 @@
+package com.bitfiddling.avaje.guava;
+
+import com.google.common.base.Preconditions;
+import io.avaje.json.JsonAdapter;
+import io.avaje.json.JsonReader;
+import io.avaje.json.JsonWriter;
+import io.avaje.json.PropertyNames;
+import io.avaje.json.stream.JsonOutput;
+import io.avaje.json.view.ViewBuilderAware;
+import io.avaje.jsonb.AdapterFactory;
+import io.avaje.jsonb.JsonType;
+import io.avaje.jsonb.Jsonb;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+
+/**
+ * Opt-in lazy resolution of the element, key and value adapters of Guava adapters.
+ *
+ * <p>By default an adapter resolves the adapters of its type arguments when it is created,
+ * so resolving the root type of a model resolves every type reachable from it, including
+ * branches that a given process never reads or writes. Adapters from this factory instead
+ * resolve each of them on first use, which moves that cost from startup to the first
+ * value of each branch. Resolution failures, such as a type argument with no adapter,
+ * surface on first use rather than when the adapter is created.
+ *
+ * <pre>{@code
+ * Jsonb jsonb = Jsonb.builder().add(LazyResolution.factory()).build();
+ * }</pre>
+ */
+public final class LazyResolution {
+
+    private LazyResolution() {}
+
+    /**
+     * Returns a factory for the adapters of this library that resolves their element, key
+     * and value adapters on first use.
+     *
+     * @return the adapter factory
+     */
+    public static AdapterFactory factory() {
+        return factory(GuavaJsonbComponent.FACTORY);
+    }
+
+    /**
+     * Returns a factory that creates adapters with another factory of this library, such as
+     * {@link HashConsing#factory()}, resolving their element, key and value adapters on
+     * first use.
+     *
+     * @param delegate the factory whose adapters to create
+     * @return the adapter factory
+     */
+    public static AdapterFactory factory(AdapterFactory delegate) {
+        Preconditions.checkNotNull(delegate, "delegate");
+        return (Type type, Jsonb jsonb) -> delegate.create(type, new LazyJsonb(jsonb));
+    }
+
+    /**
+     * Jsonb handed to adapter constructors, returning adapters that resolve through the
+     * real Jsonb on first use.
+     */
+    private static final class LazyJsonb implements Jsonb {
+
+        private final Jsonb jsonb;
+
+        LazyJsonb(Jsonb jsonb) {
+            this.jsonb = jsonb;
+        }
+
+        @Override
+        public <T> JsonAdapter<T> adapter(Class<T> cls) {
+            return new LazyAdapter<>(jsonb, cls);
+        }
+
+        @Override
+        public <T> JsonAdapter<T> adapter(Type type) {
+            return new LazyAdapter<>(jsonb, type);
+        }
+
+        @Override
+        public String toJson(Object value) {
+            return jsonb.toJson(value);
+        }
+
+        @Override
+        public String toJsonPretty(Object value) {
+            return jsonb.toJsonPretty(value);
+        }
+
+        @Override
+        public byte[] toJsonBytes(Object value) {
+            return jsonb.toJsonBytes(value);
+        }
+
+        @Override
+        public void toJson(Object value, Writer writer) {
+            jsonb.toJson(value, writer);
+        }
+
+        @Override
+        public void toJson(Object value, OutputStream outputStream) {
+            jsonb.toJson(value, outputStream);
+        }
+
+        @Override
+        public void toJson(Object value, JsonWriter jsonWriter) {
+            jsonb.toJson(value, jsonWriter);
+        }
+
+        @Override
+        public void toJson(Object value, JsonOutput jsonOutput) {
+            jsonb.toJson(value, jsonOutput);
+        }
+
+        @Override
+        public <T> JsonType<T> type(Class<T> cls) {
+            return jsonb.type(cls);
+        }
+
+        @Override
+        public <T> JsonType<T> type(Type type) {
+            return jsonb.type(type);
+        }
+
+        @Override
+        public <T> JsonType<T> typeOf(Object value) {
+            return jsonb.typeOf(value);
+        }
+
+        @Override
+        public JsonReader reader(String json) {
+            return jsonb.reader(json);
+        }
+
+        @Override
+        public JsonReader reader(byte[] jsonBytes) {
+            return jsonb.reader(jsonBytes);
+        }
+
+        @Override
+        public JsonReader reader(Reader reader) {
+            return jsonb.reader(reader);
+        }
+
+        @Override
+        public JsonReader reader(InputStream inputStream) {
+            return jsonb.reader(inputStream);
+        }
+
+        @Override
+        public JsonWriter writer(Writer writer) {
+            return jsonb.writer(writer);
+        }
+
+        @Override
+        public JsonWriter writer(OutputStream outputStream) {
+            return jsonb.writer(outputStream);
+        }
+
+        @Override
+        public JsonWriter writer(JsonOutput jsonOutput) {
+            return jsonb.writer(jsonOutput);
+        }
+
+        @Override
+        public PropertyNames properties(String... names) {
+            return jsonb.properties(names);
+        }
+
+        @Override
+        public <T> JsonAdapter<T> customAdapter(Class<? extends JsonAdapter<?>> cls) {
+            return jsonb.customAdapter(cls);
+        }
+
+        @Override
+        public JsonAdapter<String> rawAdapter() {
+            return jsonb.rawAdapter();
+        }
+
+        @Override
+        public boolean hasAdapter(Class<?> cls) {
+            return jsonb.hasAdapter(cls);
+        }
+
+        @Override
+        public boolean hasAdapter(Type type) {
+            return jsonb.hasAdapter(type);
+        }
+    }
+
+    private static final class LazyAdapter<T> implements JsonAdapter<T> {
+
+        private final Jsonb jsonb;
+        private final Type type;
+        private volatile JsonAdapter<T> delegate;
+
+        LazyAdapter(Jsonb jsonb, Type type) {
+            this.jsonb = jsonb;
+            this.type = type;
+        }
+
+        /**
+         * Returns the resolved adapter. Threads racing on first use may each resolve it, but
+         * Jsonb caches adapters by type, so they all end up with the same one.
+         */
+        private JsonAdapter<T> delegate() {
+            JsonAdapter<T> adapter = delegate;
+            if (adapter == null) {
+                adapter = jsonb.adapter(type);
+                delegate = adapter;
+            }
+            return adapter;
+        }
+
+        @Override
+        public T fromJson(JsonReader reader) {
+            return delegate().fromJson(reader);
+        }
+
+        @Override
+        public void toJson(JsonWriter writer, T value) {
+            delegate().toJson(writer, value);
+        }
+
+        @Override
+        public boolean isViewBuilderAware() {
+            return delegate().isViewBuilderAware();
+        }
+
+        @Override
+        public ViewBuilderAware viewBuild() {
+            return delegate().viewBuild();
+        }
+    }
+}
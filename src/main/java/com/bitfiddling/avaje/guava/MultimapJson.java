@@ -0,0 +1,85 @@
+package com.bitfiddling.avaje.guava;
+
+import com.google.common.collect.Multimap;
+import io.avaje.json.JsonAdapter;
+import io.avaje.json.JsonReader;
+import io.avaje.json.JsonWriter;
+import io.avaje.jsonb.Jsonb;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Reading and writing shared by the Multimap adapters, using the grouped
+ * {@code {"key":[value,...]}} form.
+ *
+ * <p>Also keeps running estimates of the number of keys and values per key, so each
+ * adapter can pre-size its multimap or builder from the shape of previous payloads. The
+ * values-per-key hint applies to every key, so it is clamped to a small constant: one
+ * key with a huge list of values must not make each key of the next payload huge.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+final class MultimapJson<K, V> {
+
+    /** Upper bound on the values-per-key hint. */
+    static final int MAX_EXPECTED_VALUES_PER_KEY = 8;
+
+    private final KeyCodec<K> keyCodec;
+    private final JsonAdapter<V> valueAdapter;
+    private final SizeEstimate keys = new SizeEstimate();
+    private final SizeEstimate valuesPerKey = new SizeEstimate();
+
+    MultimapJson(Jsonb jsonb, Type[] types) {
+        this.keyCodec = KeyCodec.of(jsonb, types[0]);
+        this.valueAdapter = jsonb.adapter(types[1]);
+    }
+
+    /** Returns the expected number of distinct keys of the next decoded multimap. */
+    int expectedKeys() {
+        return keys.expectedSize();
+    }
+
+    /** Returns the expected number of values per key, between one and {@link #MAX_EXPECTED_VALUES_PER_KEY}. */
+    int expectedValuesPerKey() {
+        return Math.clamp(valuesPerKey.expectedSize(), 1, MAX_EXPECTED_VALUES_PER_KEY);
+    }
+
+    /** Reads the grouped form, passing each key and value pair to the sink. */
+    void read(JsonReader reader, BiConsumer<K, V> sink) {
+        int keyCount = 0;
+        long valueCount = 0;
+        reader.beginObject();
+        while (reader.hasNextField()) {
+            K key = keyCodec.decode(reader.nextField());
+            reader.beginArray();
+            while (reader.hasNextElement()) {
+                sink.accept(key, valueAdapter.fromJson(reader));
+                valueCount++;
+            }
+            reader.endArray();
+            keyCount++;
+        }
+        reader.endObject();
+        keys.record(keyCount);
+        if (keyCount > 0) {
+            valuesPerKey.record((int) Math.min(Integer.MAX_VALUE, (valueCount + keyCount - 1) / keyCount));
+        }
+    }
+
+    /** Writes a multimap in the grouped form. */
+    void write(JsonWriter writer, Multimap<K, V> value) {
+        writer.beginObject();
+        for (Map.Entry<K, Collection<V>> entry : value.asMap().entrySet()) {
+            writer.name(keyCodec.encode(entry.getKey()));
+            writer.beginArray();
+            for (V element : entry.getValue()) {
+                valueAdapter.toJson(writer, element);
+            }
+            writer.endArray();
+        }
+        writer.endObject();
+    }
+}
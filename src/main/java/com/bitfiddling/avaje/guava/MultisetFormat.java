@@ -0,0 +1,24 @@
+package com.bitfiddling.avaje.guava;
+
+/**
+ * Wire format used when writing Guava Multisets.
+ *
+ * <p>Adapters configured with {@link #COUNTS} read both formats, so consumers can be
+ * switched before producers. Adapters using the default {@link #ELEMENTS} format also
+ * read the {@code {"elem":count}} object form.
+ */
+public enum MultisetFormat {
+
+    /** One array element per occurrence, e.g. {@code ["a","a","b"]}. This is the default. */
+    ELEMENTS,
+
+    /**
+     * One entry per distinct element with its count. String elements are written as
+     * {@code {"a":2,"b":1}} and all other elements as {@code [[elem,count],...]}.
+     *
+     * <p>Note that when reading an array in this format, entries that are themselves
+     * arrays are treated as {@code [elem,count]} pairs, so element types that are
+     * written as JSON arrays cannot mix in legacy one-per-occurrence entries.
+     */
+    COUNTS
+}
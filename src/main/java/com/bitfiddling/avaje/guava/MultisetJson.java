@@ -0,0 +1,121 @@
+package com.bitfiddling.avaje.guava;
+
+import com.google.common.collect.Multiset;
+import io.avaje.json.JsonAdapter;
+import io.avaje.json.JsonDataException;
+import io.avaje.json.JsonReader;
+import io.avaje.json.JsonWriter;
+import io.avaje.jsonb.Jsonb;
+import java.lang.reflect.Type;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Reading and writing shared by the Multiset adapters for both {@link MultisetFormat}s.
+ *
+ * @param <T> the element type
+ */
+final class MultisetJson<T> {
+
+    private final JsonAdapter<T> elementAdapter;
+    private final MultisetFormat format;
+    private final boolean stringElements;
+    private final StringInterning interning;
+
+    MultisetJson(Jsonb jsonb, Type elementType, MultisetFormat format, StringInterning interning) {
+        this(
+                StringInterning.elementAdapter(jsonb, elementType, interning),
+                format,
+                elementType == String.class,
+                interning);
+    }
+
+    /** Uses the given adapter for elements that are not strings. */
+    MultisetJson(JsonAdapter<T> elementAdapter, MultisetFormat format) {
+        this(elementAdapter, format, false, null);
+    }
+
+    private MultisetJson(
+            JsonAdapter<T> elementAdapter, MultisetFormat format, boolean stringElements, StringInterning interning) {
+        this.elementAdapter = elementAdapter;
+        this.format = format;
+        this.stringElements = stringElements;
+        this.interning = interning;
+    }
+
+    /**
+     * Reads either format, passing each element and its number of occurrences to the sink.
+     */
+    @SuppressWarnings("unchecked")
+    void read(JsonReader reader, ObjIntConsumer<T> sink) {
+        if (reader.currentToken() == JsonReader.Token.BEGIN_OBJECT) {
+            if (!stringElements) {
+                throw new JsonDataException("Multiset counts object requires String elements at " + reader.location());
+            }
+            reader.beginObject();
+            while (reader.hasNextField()) {
+                String name = reader.nextField();
+                T element = (T) (interning != null ? interning.intern(name) : name);
+                sink.accept(element, reader.readInt());
+            }
+            reader.endObject();
+            return;
+        }
+        boolean pairs = format == MultisetFormat.COUNTS;
+        reader.beginArray();
+        while (reader.hasNextElement()) {
+            if (pairs && reader.currentToken() == JsonReader.Token.BEGIN_ARRAY) {
+                sink.accept(readPairElement(reader), readPairCount(reader));
+            } else {
+                sink.accept(elementAdapter.fromJson(reader), 1);
+            }
+        }
+        reader.endArray();
+    }
+
+    private T readPairElement(JsonReader reader) {
+        reader.beginArray();
+        if (!reader.hasNextElement()) {
+            throw new JsonDataException("Expected [element,count] at " + reader.location());
+        }
+        return elementAdapter.fromJson(reader);
+    }
+
+    private static int readPairCount(JsonReader reader) {
+        if (!reader.hasNextElement()) {
+            throw new JsonDataException("Expected [element,count] at " + reader.location());
+        }
+        int count = reader.readInt();
+        if (reader.hasNextElement()) {
+            throw new JsonDataException("Expected [element,count] at " + reader.location());
+        }
+        reader.endArray();
+        return count;
+    }
+
+    /** Writes a non-empty multiset in the configured format. */
+    void write(JsonWriter writer, Multiset<T> value) {
+        if (format == MultisetFormat.ELEMENTS) {
+            writer.beginArray();
+            for (T element : value) {
+                elementAdapter.toJson(writer, element);
+            }
+            writer.endArray();
+        } else if (stringElements) {
+            writer.beginObject();
+            for (Multiset.Entry<T> entry : value.entrySet()) {
+                writer.name((String) entry.getElement());
+                writer.value(entry.getCount());
+            }
+            writer.endObject();
+        } else {
+            writer.beginArray();
+            for (Multiset.Entry<T> entry : value.entrySet()) {
+                JsonSupport.beginNestedArray(writer);
+                elementAdapter.toJson(writer, entry.getElement());
+                writer.value(entry.getCount());
+                writer.endArray();
+            }
+            writer.endArray();
+        }
+    }
+}
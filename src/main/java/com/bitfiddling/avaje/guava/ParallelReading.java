@@ -0,0 +1,245 @@
+package com.bitfiddling.avaje.guava;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableCollection;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.primitives.ImmutableIntArray;
+import io.avaje.json.JsonAdapter;
+import io.avaje.json.JsonDataException;
+import io.avaje.json.JsonReader;
+import io.avaje.jsonb.Jsonb;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Parallel decode of large top-level JSON arrays held in memory, such as byte arrays or
+ * memory-mapped files, into ImmutableList and ImmutableSet values.
+ *
+ * <p>Inputs of at least the threshold number of bytes are decoded in two phases. A
+ * structural scan, which only tracks strings and nesting depth, finds the separators
+ * between top-level elements and cuts the array into byte ranges. The ranges are then
+ * decoded on the executor with the adapter registered for the element type, and the
+ * results are added to the builder in order, so the collection equals the one decoded
+ * sequentially. Smaller inputs are decoded on the calling thread.
+ *
+ * <pre>{@code
+ * ParallelReading parallel = ParallelReading.create(16 << 20);
+ * ImmutableList<Order> orders = parallel.readList(jsonb, bytes, Order.class);
+ * }</pre>
+ */
+public final class ParallelReading {
+
+    /** Smallest number of bytes decoded as one range. */
+    static final int MIN_RANGE_BYTES = 64 * 1024;
+
+    private final int threshold;
+    private final Executor executor;
+    private final int ranges;
+
+    private ParallelReading(int threshold, Executor executor, int parallelism) {
+        this.threshold = threshold;
+        this.executor = executor;
+        this.ranges = 4 * parallelism;
+    }
+
+    /**
+     * Returns parallel reading of inputs with at least {@code threshold} bytes on the
+     * common fork-join pool.
+     *
+     * @param threshold the smallest input size in bytes decoded in parallel
+     * @return the parallel reading
+     */
+    public static ParallelReading create(int threshold) {
+        return create(threshold, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns parallel reading of inputs with at least {@code threshold} bytes on the
+     * given executor.
+     *
+     * @param threshold the smallest input size in bytes decoded in parallel
+     * @param executor the executor to decode ranges on
+     * @return the parallel reading
+     */
+    public static ParallelReading create(int threshold, Executor executor) {
+        Preconditions.checkArgument(threshold > 0, "threshold must be positive: %s", threshold);
+        Preconditions.checkNotNull(executor, "executor");
+        int parallelism = executor instanceof ForkJoinPool pool
+                ? pool.getParallelism()
+                : Runtime.getRuntime().availableProcessors();
+        return new ParallelReading(threshold, executor, parallelism);
+    }
+
+    /**
+     * Decodes a JSON array into an ImmutableList.
+     *
+     * @param jsonb the Jsonb instance providing the element adapter
+     * @param json the UTF-8 encoded array
+     * @param elementType the element type
+     * @param <T> the element type
+     * @return the decoded list
+     */
+    public <T> ImmutableList<T> readList(Jsonb jsonb, byte[] json, Type elementType) {
+        return readList(jsonb, ByteBuffer.wrap(json), elementType);
+    }
+
+    /**
+     * Decodes a JSON array between the buffer's position and limit into an ImmutableList.
+     * The buffer's position is not changed.
+     *
+     * @param jsonb the Jsonb instance providing the element adapter
+     * @param json the UTF-8 encoded array
+     * @param elementType the element type
+     * @param <T> the element type
+     * @return the decoded list
+     */
+    public <T> ImmutableList<T> readList(Jsonb jsonb, ByteBuffer json, Type elementType) {
+        List<List<T>> decoded = read(jsonb, jsonb.adapter(elementType), json);
+        ImmutableList.Builder<T> builder = ImmutableList.builderWithExpectedSize(totalSize(decoded));
+        return addAll(builder, decoded).build();
+    }
+
+    /**
+     * Decodes a JSON array into an ImmutableSet.
+     *
+     * @param jsonb the Jsonb instance providing the element adapter
+     * @param json the UTF-8 encoded array
+     * @param elementType the element type
+     * @param <T> the element type
+     * @return the decoded set
+     */
+    public <T> ImmutableSet<T> readSet(Jsonb jsonb, byte[] json, Type elementType) {
+        return readSet(jsonb, ByteBuffer.wrap(json), elementType);
+    }
+
+    /**
+     * Decodes a JSON array between the buffer's position and limit into an ImmutableSet.
+     * The buffer's position is not changed.
+     *
+     * @param jsonb the Jsonb instance providing the element adapter
+     * @param json the UTF-8 encoded array
+     * @param elementType the element type
+     * @param <T> the element type
+     * @return the decoded set
+     */
+    public <T> ImmutableSet<T> readSet(Jsonb jsonb, ByteBuffer json, Type elementType) {
+        List<List<T>> decoded = read(jsonb, jsonb.adapter(elementType), json);
+        ImmutableSet.Builder<T> builder = ImmutableSet.builderWithExpectedSize(totalSize(decoded));
+        return addAll(builder, decoded).build();
+    }
+
+    @Override
+    public String toString() {
+        return "ParallelReading{threshold=" + threshold + ", ranges=" + ranges + "}";
+    }
+
+    /** Decodes the elements of each range, in order. */
+    private <T> List<List<T>> read(Jsonb jsonb, JsonAdapter<T> elementAdapter, ByteBuffer json) {
+        int length = json.remaining();
+        int rangeBytes = length < threshold ? Integer.MAX_VALUE : Math.max(MIN_RANGE_BYTES, length / ranges);
+        int[] cuts = scan(json, rangeBytes);
+        if (cuts.length == 2) {
+            return List.of(readRange(jsonb, elementAdapter, json, cuts[0], cuts[1]));
+        }
+        List<CompletableFuture<List<T>>> futures = new ArrayList<>(cuts.length / 2);
+        for (int i = 0; i < cuts.length; i += 2) {
+            int from = cuts[i];
+            int to = cuts[i + 1];
+            futures.add(
+                    CompletableFuture.supplyAsync(() -> readRange(jsonb, elementAdapter, json, from, to), executor));
+        }
+        List<List<T>> decoded = new ArrayList<>(futures.size());
+        for (CompletableFuture<List<T>> future : futures) {
+            decoded.add(JsonSupport.join(future));
+        }
+        return decoded;
+    }
+
+    /**
+     * Finds the ranges of a top-level array, returned as pairs of absolute start and end
+     * offsets of their elements. A range ends at the first separator after
+     * {@code rangeBytes} bytes.
+     */
+    static int[] scan(ByteBuffer json, int rangeBytes) {
+        int limit = json.limit();
+        int position = skipWhitespace(json, json.position(), limit);
+        if (position == limit || json.get(position) != '[') {
+            throw new JsonDataException("Expected a JSON array at offset " + position);
+        }
+        ImmutableIntArray.Builder cuts = ImmutableIntArray.builder();
+        int start = position + 1;
+        int depth = 0;
+        boolean inString = false;
+        for (int i = start; i < limit; i++) {
+            byte b = json.get(i);
+            if (inString) {
+                if (b == '\\') {
+                    i++;
+                } else if (b == '"') {
+                    inString = false;
+                }
+            } else if (b == '"') {
+                inString = true;
+            } else if (b == '[' || b == '{') {
+                depth++;
+            } else if (b == ']' || b == '}') {
+                if (depth-- == 0) {
+                    if (skipWhitespace(json, i + 1, limit) != limit) {
+                        throw new JsonDataException("Unexpected content after JSON array at offset " + (i + 1));
+                    }
+                    return cuts.add(start).add(i).build().toArray();
+                }
+            } else if (b == ',' && depth == 0 && i - start >= rangeBytes) {
+                cuts.add(start).add(i);
+                start = i + 1;
+            }
+        }
+        throw new JsonDataException("Unterminated JSON array");
+    }
+
+    private static int skipWhitespace(ByteBuffer json, int position, int limit) {
+        while (position < limit) {
+            byte b = json.get(position);
+            if (b != ' ' && b != '\n' && b != '\r' && b != '\t') {
+                break;
+            }
+            position++;
+        }
+        return position;
+    }
+
+    /** Decodes the elements between two offsets, wrapped in brackets as an array. */
+    private static <T> List<T> readRange(
+            Jsonb jsonb, JsonAdapter<T> elementAdapter, ByteBuffer json, int from, int to) {
+        byte[] range = new byte[to - from + 2];
+        range[0] = '[';
+        json.get(from, range, 1, to - from);
+        range[range.length - 1] = ']';
+        List<T> elements = new ArrayList<>();
+        try (JsonReader reader = jsonb.reader(range)) {
+            GuavaStreams.forEach(reader, elementAdapter, elements::add);
+        }
+        return elements;
+    }
+
+    private static int totalSize(List<? extends List<?>> decoded) {
+        int size = 0;
+        for (List<?> elements : decoded) {
+            size += elements.size();
+        }
+        return size;
+    }
+
+    private static <T, B extends ImmutableCollection.Builder<T>> B addAll(B builder, List<List<T>> decoded) {
+        for (List<T> elements : decoded) {
+            builder.addAll(elements);
+        }
+        return builder;
+    }
+}
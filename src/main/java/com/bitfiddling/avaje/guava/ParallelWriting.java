@@ -0,0 +1,285 @@
+package com.bitfiddling.avaje.guava;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableCollection;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import io.avaje.json.JsonAdapter;
+import io.avaje.json.JsonReader;
+import io.avaje.json.JsonWriter;
+import io.avaje.json.stream.BufferRecycleStrategy;
+import io.avaje.json.stream.BytesJsonWriter;
+import io.avaje.json.stream.JsonStream;
+import io.avaje.jsonb.AdapterFactory;
+import io.avaje.jsonb.Jsonb;
+import io.avaje.jsonb.Types;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Opt-in parallel writing of large ImmutableList, ImmutableSet and ImmutableMap values.
+ *
+ * <p>A collection with at least the threshold number of elements or entries is split
+ * into index ranges. The first range is written straight to the target writer while the
+ * others are written to their own buffers on the executor, and the buffers are then
+ * copied to the target in order. The output is byte-identical to the sequential
+ * adapters; collections nested inside a range are written sequentially. Reading is
+ * unchanged.
+ *
+ * <p>Ranges are written with compact formatting, so the factory is meant for writers
+ * without pretty printing.
+ *
+ * <pre>{@code
+ * ParallelWriting parallel = ParallelWriting.create(100_000);
+ * Jsonb jsonb = Jsonb.builder().add(parallel.factory()).build();
+ * }</pre>
+ */
+public final class ParallelWriting {
+
+    /** Smallest number of elements written as one range. */
+    static final int MIN_RANGE_SIZE = 1024;
+
+    /**
+     * Stream for the range buffers. It must not recycle buffers, as they are written on
+     * other threads while the target writer is in use.
+     */
+    private static final JsonStream RANGE_STREAM = JsonStream.builder()
+            .bufferRecycling(BufferRecycleStrategy.NO_RECYCLING)
+            .build();
+
+    /** Set while a range is written, so that nested collections are not split again. */
+    private static final ThreadLocal<Boolean> IN_RANGE = new ThreadLocal<>();
+
+    private final int threshold;
+    private final Executor executor;
+    private final int ranges;
+
+    private ParallelWriting(int threshold, Executor executor, int parallelism) {
+        this.threshold = threshold;
+        this.executor = executor;
+        this.ranges = 4 * parallelism;
+    }
+
+    /**
+     * Returns parallel writing of collections with at least {@code threshold} elements on
+     * the common fork-join pool.
+     *
+     * @param threshold the smallest collection size written in parallel
+     * @return the parallel writing
+     */
+    public static ParallelWriting create(int threshold) {
+        return create(threshold, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns parallel writing of collections with at least {@code threshold} elements on
+     * the given executor, for example a virtual-thread-per-task executor.
+     *
+     * @param threshold the smallest collection size written in parallel
+     * @param executor the executor to write ranges on
+     * @return the parallel writing
+     */
+    public static ParallelWriting create(int threshold, Executor executor) {
+        Preconditions.checkArgument(threshold > 0, "threshold must be positive: %s", threshold);
+        Preconditions.checkNotNull(executor, "executor");
+        int parallelism = executor instanceof ForkJoinPool pool
+                ? pool.getParallelism()
+                : Runtime.getRuntime().availableProcessors();
+        return new ParallelWriting(threshold, executor, parallelism);
+    }
+
+    /**
+     * Returns a factory for ImmutableList, ImmutableSet and ImmutableMap adapters that
+     * write large values in parallel.
+     *
+     * @return the adapter factory
+     */
+    public AdapterFactory factory() {
+        return factory(GuavaJsonbComponent.FACTORY);
+    }
+
+    /**
+     * Returns a factory that writes large ImmutableList, ImmutableSet and ImmutableMap
+     * values in parallel and otherwise uses the adapters of another factory, such as
+     * {@link HashConsing#factory()}. Large values are written as plain arrays and objects,
+     * so the delegate's adapters must write those for these types. Adapters of other types
+     * are returned unchanged.
+     *
+     * @param delegate the factory whose adapters read values and write small ones
+     * @return the adapter factory
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public AdapterFactory factory(AdapterFactory delegate) {
+        Preconditions.checkNotNull(delegate, "delegate");
+        return (Type type, Jsonb jsonb) -> {
+            JsonAdapter adapter = delegate.create(type, jsonb);
+            if (adapter == null) {
+                return null;
+            } else if (Types.isGenericTypeOf(type, ImmutableList.class)
+                    || Types.isGenericTypeOf(type, ImmutableSet.class)) {
+                return new ElementsAdapter<>(adapter, jsonb.adapter(Types.typeArguments(type)[0]));
+            } else if (Types.isGenericTypeOf(type, ImmutableMap.class)) {
+                Type[] types = Types.typeArguments(type);
+                return new EntriesAdapter<>(adapter, KeyCodec.of(jsonb, types[0]), jsonb.adapter(types[1]));
+            }
+            return adapter;
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "ParallelWriting{threshold=" + threshold + ", ranges=" + ranges + "}";
+    }
+
+    private boolean splits(int size) {
+        return size >= threshold && size >= 2 * MIN_RANGE_SIZE && IN_RANGE.get() == null;
+    }
+
+    /**
+     * Writes the elements of a started array or object: the first range directly, the
+     * others from buffers written on the executor.
+     */
+    private <E> void writeRanges(JsonWriter writer, ImmutableList<E> elements, RangeWriter<E> rangeWriter) {
+        int size = elements.size();
+        int rangeSize = Math.max(MIN_RANGE_SIZE, (size + ranges - 1) / ranges);
+        boolean serializeNulls = writer.serializeNulls();
+        boolean serializeEmpty = writer.serializeEmpty();
+        List<CompletableFuture<byte[]>> buffers = new ArrayList<>();
+        for (int from = rangeSize; from < size; from += rangeSize) {
+            var range = elements.subList(from, Math.min(size, from + rangeSize));
+            buffers.add(CompletableFuture.supplyAsync(
+                    () -> writeBuffer(range, rangeWriter, serializeNulls, serializeEmpty), executor));
+        }
+        IN_RANGE.set(Boolean.TRUE);
+        try {
+            for (E element : elements.subList(0, rangeSize)) {
+                rangeWriter.write(writer, element);
+            }
+        } finally {
+            IN_RANGE.remove();
+        }
+        for (CompletableFuture<byte[]> buffer : buffers) {
+            copy(writer, JsonSupport.join(buffer));
+        }
+    }
+
+    /**
+     * Writes a range to a buffer, as it appears after earlier elements: a placeholder raw
+     * value makes the first element write the same separator it does sequentially, and
+     * the enclosing brackets are dropped.
+     */
+    private static <E> byte[] writeBuffer(
+            List<E> range, RangeWriter<E> rangeWriter, boolean serializeNulls, boolean serializeEmpty) {
+        IN_RANGE.set(Boolean.TRUE);
+        try {
+            BytesJsonWriter buffer = RANGE_STREAM.bufferedWriterAsBytes();
+            buffer.serializeNulls(serializeNulls);
+            buffer.serializeEmpty(serializeEmpty);
+            buffer.beginArray();
+            buffer.rawValue("");
+            for (E element : range) {
+                rangeWriter.write(buffer, element);
+            }
+            buffer.endArray();
+            buffer.close();
+            return buffer.result();
+        } finally {
+            IN_RANGE.remove();
+        }
+    }
+
+    /**
+     * Copies a range buffer, without its brackets, to the target writer. The raw chunk
+     * methods write chars as single bytes, so runs of UTF-8 multi-byte sequences are
+     * decoded and written re-encoded.
+     */
+    private static void copy(JsonWriter writer, byte[] bytes) {
+        int end = bytes.length - 1;
+        int start = 1;
+        while (start < end) {
+            int next = start;
+            if (bytes[start] >= 0) {
+                while (next < end && bytes[next] >= 0) {
+                    next++;
+                }
+                writer.rawChunk(new String(bytes, start, next - start, StandardCharsets.ISO_8859_1));
+            } else {
+                while (next < end && bytes[next] < 0) {
+                    next++;
+                }
+                writer.rawChunkEncode(new String(bytes, start, next - start, StandardCharsets.UTF_8));
+            }
+            start = next;
+        }
+    }
+
+    /** Writes one element of a range. */
+    private interface RangeWriter<E> {
+
+        void write(JsonWriter writer, E element);
+    }
+
+    private final class ElementsAdapter<C extends ImmutableCollection<E>, E> implements JsonAdapter<C> {
+
+        private final JsonAdapter<C> delegate;
+        private final RangeWriter<E> rangeWriter;
+
+        ElementsAdapter(JsonAdapter<C> delegate, JsonAdapter<E> elementAdapter) {
+            this.delegate = delegate;
+            this.rangeWriter = elementAdapter::toJson;
+        }
+
+        @Override
+        public C fromJson(JsonReader reader) {
+            return delegate.fromJson(reader);
+        }
+
+        @Override
+        public void toJson(JsonWriter writer, C value) {
+            if (value == null || !splits(value.size())) {
+                delegate.toJson(writer, value);
+                return;
+            }
+            writer.beginArray();
+            writeRanges(writer, value.asList(), rangeWriter);
+            writer.endArray();
+        }
+    }
+
+    private final class EntriesAdapter<K, V> implements JsonAdapter<ImmutableMap<K, V>> {
+
+        private final JsonAdapter<ImmutableMap<K, V>> delegate;
+        private final RangeWriter<Map.Entry<K, V>> rangeWriter;
+
+        EntriesAdapter(JsonAdapter<ImmutableMap<K, V>> delegate, KeyCodec<K> keyCodec, JsonAdapter<V> valueAdapter) {
+            this.delegate = delegate;
+            this.rangeWriter = (writer, entry) -> {
+                writer.name(keyCodec.encode(entry.getKey()));
+                valueAdapter.toJson(writer, entry.getValue());
+            };
+        }
+
+        @Override
+        public ImmutableMap<K, V> fromJson(JsonReader reader) {
+            return delegate.fromJson(reader);
+        }
+
+        @Override
+        public void toJson(JsonWriter writer, ImmutableMap<K, V> value) {
+            if (value == null || !splits(value.size())) {
+                delegate.toJson(writer, value);
+                return;
+            }
+            writer.beginObject();
+            writeRanges(writer, value.entrySet().asList(), rangeWriter);
+            writer.endObject();
+        }
+    }
+}
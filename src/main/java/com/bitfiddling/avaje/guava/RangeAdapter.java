@@ -0,0 +1,52 @@
+package com.bitfiddling.avaje.guava;
+
+import com.google.common.collect.Range;
+import io.avaje.json.JsonAdapter;
+import io.avaje.json.JsonReader;
+import io.avaje.json.JsonWriter;
+import io.avaje.jsonb.AdapterFactory;
+import io.avaje.jsonb.Jsonb;
+import io.avaje.jsonb.Types;
+import java.lang.reflect.Type;
+
+/**
+ * JsonAdapter for Guava Range, written as {@code [lower,upper,"[)"]}.
+ *
+ * @param <C> the endpoint type
+ */
+public final class RangeAdapter<C extends Comparable<C>> implements JsonAdapter<Range<C>> {
+
+    /** Factory for creating RangeAdapter instances. */
+    public static final AdapterFactory FACTORY = (Type type, Jsonb jsonb) -> {
+        if (Types.isGenericTypeOf(type, Range.class)) {
+            return new RangeAdapter<>(jsonb, Types.typeArguments(type));
+        }
+        return null;
+    };
+
+    private final RangeJson<C> rangeJson;
+
+    /**
+     * Creates a new RangeAdapter.
+     *
+     * @param jsonb the Jsonb instance
+     * @param types the generic type arguments
+     */
+    public RangeAdapter(Jsonb jsonb, Type[] types) {
+        this.rangeJson = new RangeJson<>(jsonb.<C>adapter(types[0]));
+    }
+
+    @Override
+    public Range<C> fromJson(JsonReader reader) {
+        return rangeJson.read(reader);
+    }
+
+    @Override
+    public void toJson(JsonWriter writer, Range<C> value) {
+        if (value == null) {
+            writer.nullValue();
+            return;
+        }
+        rangeJson.write(writer, value);
+    }
+}
@@ -0,0 +1,115 @@
+package com.bitfiddling.avaje.guava;
+
+import com.google.common.collect.BoundType;
+import com.google.common.collect.Range;
+import io.avaje.json.JsonAdapter;
+import io.avaje.json.JsonDataException;
+import io.avaje.json.JsonReader;
+import io.avaje.json.JsonWriter;
+
+/**
+ * Reading and writing of a Range as {@code [lower,upper,"[)"]}, shared by the Range,
+ * RangeSet and RangeMap adapters.
+ *
+ * <p>The bounds string gives the bound types in interval notation, {@code [} and
+ * {@code ]} for closed and {@code (} and {@code )} for open bounds. An unbounded side is
+ * written as a {@code null} endpoint with an open bound, e.g. {@code [5,null,"[)"]} for
+ * {@code [5..+inf)}.
+ *
+ * @param <C> the endpoint type
+ */
+final class RangeJson<C extends Comparable<C>> {
+
+    private final JsonAdapter<C> endpointAdapter;
+
+    RangeJson(JsonAdapter<C> endpointAdapter) {
+        this.endpointAdapter = endpointAdapter;
+    }
+
+    /** Reads a range array, including its brackets. */
+    Range<C> read(JsonReader reader) {
+        reader.beginArray();
+        Range<C> range = readBounds(reader);
+        endRange(reader);
+        return range;
+    }
+
+    /**
+     * Reads the endpoints and bounds string of a range array whose opening bracket has
+     * been read, leaving the reader before any further elements.
+     */
+    Range<C> readBounds(JsonReader reader) {
+        nextElement(reader);
+        C lower = endpointAdapter.fromJson(reader);
+        nextElement(reader);
+        C upper = endpointAdapter.fromJson(reader);
+        nextElement(reader);
+        String bounds = reader.readString();
+        if (bounds == null
+                || bounds.length() != 2
+                || (bounds.charAt(0) != '[' && bounds.charAt(0) != '(')
+                || (bounds.charAt(1) != ']' && bounds.charAt(1) != ')')) {
+            throw new JsonDataException("Invalid range bounds '" + bounds + "' at " + reader.location());
+        }
+        BoundType lowerType = bounds.charAt(0) == '[' ? BoundType.CLOSED : BoundType.OPEN;
+        BoundType upperType = bounds.charAt(1) == ']' ? BoundType.CLOSED : BoundType.OPEN;
+        try {
+            if (lower == null) {
+                return upper == null ? Range.all() : Range.upTo(upper, upperType);
+            }
+            return upper == null ? Range.downTo(lower, lowerType) : Range.range(lower, lowerType, upper, upperType);
+        } catch (IllegalArgumentException e) {
+            throw new JsonDataException("Invalid range at " + reader.location() + ": " + e.getMessage(), e);
+        }
+    }
+
+    /** Reads the closing bracket of a range array, after all its elements. */
+    static void endRange(JsonReader reader) {
+        if (reader.hasNextElement()) {
+            throw new JsonDataException("Unexpected element after range at " + reader.location());
+        }
+        reader.endArray();
+    }
+
+    /** Moves to the next element of a range array, which must be present. */
+    static void nextElement(JsonReader reader) {
+        if (!reader.hasNextElement()) {
+            throw new JsonDataException("Expected [lower,upper,bounds] range at " + reader.location());
+        }
+    }
+
+    /** Writes a range array, including its brackets, which may follow other array elements. */
+    void write(JsonWriter writer, Range<C> range) {
+        JsonSupport.beginNestedArray(writer);
+        writeBounds(writer, range);
+        writer.endArray();
+    }
+
+    /** Writes the endpoints and bounds string of a range array. */
+    void writeBounds(JsonWriter writer, Range<C> range) {
+        writeEndpoint(writer, range.hasLowerBound() ? range.lowerEndpoint() : null);
+        writeEndpoint(writer, range.hasUpperBound() ? range.upperEndpoint() : null);
+        char lower = range.hasLowerBound() && range.lowerBoundType() == BoundType.CLOSED ? '[' : '(';
+        char upper = range.hasUpperBound() && range.upperBoundType() == BoundType.CLOSED ? ']' : ')';
+        writer.value(new String(new char[] {lower, upper}));
+    }
+
+    private void writeEndpoint(JsonWriter writer, C endpoint) {
+        if (endpoint == null) {
+            JsonSupport.writePositionalNull(writer);
+        } else {
+            endpointAdapter.toJson(writer, endpoint);
+        }
+    }
+
+    /**
+     * Returns whether {@code next} lies entirely above {@code previous} with a gap between
+     * them, as in the normalised ranges of a RangeSet.
+     */
+    static <C extends Comparable<C>> boolean isAfter(Range<C> previous, Range<C> next) {
+        return previous.hasUpperBound()
+                && next.hasLowerBound()
+                && !previous.isConnected(next)
+                && previous.upperEndpoint().compareTo(next.lowerEndpoint()) <= 0;
+    }
+}
@@ -0,0 +1,24 @@
+package com.bitfiddling.avaje.guava;
+
+/**
+ * Wire format used when writing Guava ImmutableLists and ImmutableSets of records.
+ *
+ * <p>List and set adapters for record elements read both formats whichever one they are
+ * configured to write. Collections of other element types, and of records without a
+ * generated {@code @Json} adapter of their components, are always written as arrays.
+ */
+public enum RecordFormat {
+
+    /** One object per element, e.g. {@code [{"id":1,"price":2.5},{"id":2,"price":4.0}]}. This is the default. */
+    ROWS,
+
+    /**
+     * The record component names once, followed by one array per component, e.g.
+     * {@code {"cols":["id","price"],"data":[[1,2],[2.5,4.0]]}}. Property names are not
+     * repeated per element, which suits large collections of small records.
+     *
+     * <p>Columns take the property names of the record's generated adapter, including
+     * {@code @Json.Property} names and naming conventions.
+     */
+    COLUMNS
+}
@@ -0,0 +1,45 @@
+package com.bitfiddling.avaje.guava;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A reusable {@code Object[]} that elements are decoded into before one exact-size copy
+ * into the immutable collection.
+ *
+ * <p>A single buffer is pooled per adapter and handed out by an atomic swap rather than
+ * a ThreadLocal, so it is shared by virtual threads instead of being allocated once per
+ * thread. A decode that finds the pool empty (concurrent or re-entrant use) simply
+ * allocates its own buffer.
+ */
+final class ScratchBuffer {
+
+    /** Buffers larger than this are not retained between decodes. */
+    static final int MAX_RETAINED_LENGTH = 1 << 16;
+
+    private static final int MIN_LENGTH = 16;
+
+    private final AtomicReference<Object[]> pooled = new AtomicReference<>();
+
+    /** Takes the pooled buffer, or allocates one with at least the expected length. */
+    Object[] acquire(int expectedSize) {
+        Object[] buffer = pooled.getAndSet(null);
+        if (buffer == null || buffer.length < expectedSize) {
+            buffer = new Object[Math.max(MIN_LENGTH, expectedSize)];
+        }
+        return buffer;
+    }
+
+    /** Returns a buffer to the pool after clearing the first {@code used} slots. */
+    void release(Object[] buffer, int used) {
+        Arrays.fill(buffer, 0, used, null);
+        if (buffer.length <= MAX_RETAINED_LENGTH) {
+            pooled.set(buffer);
+        }
+    }
+
+    /** Returns a larger copy of a full buffer. */
+    static Object[] grow(Object[] buffer) {
+        return Arrays.copyOf(buffer, buffer.length + (buffer.length >> 1));
+    }
+}
@@ -0,0 +1,32 @@
+package com.bitfiddling.avaje.guava;
+
+/**
+ * Running estimate of the collection sizes decoded by one adapter, used to pre-size
+ * builders and avoid repeated growth.
+ *
+ * <p>The estimate tracks the largest recent size and decays by an eighth per decode, or
+ * by half once decodes come in at under a quarter of it, so a steady payload size is hit
+ * exactly while a one-off large payload is soon forgotten. The hint never exceeds the
+ * largest pooled scratch buffer, so an outlier cannot make later small decodes allocate
+ * huge buffers. Updates are deliberately unsynchronized: a lost update only costs a less
+ * accurate hint.
+ */
+final class SizeEstimate {
+
+    /** Upper bound on the hint so one huge payload cannot force huge allocations. */
+    static final int MAX_EXPECTED_SIZE = ScratchBuffer.MAX_RETAINED_LENGTH;
+
+    private int estimate;
+
+    /** Returns the expected size of the next decoded collection. */
+    int expectedSize() {
+        return estimate;
+    }
+
+    /** Records the size of a decoded collection. */
+    void record(int size) {
+        int current = estimate;
+        int decayed = size < current >> 2 ? current >> 1 : current - (current >> 3);
+        estimate = Math.min(MAX_EXPECTED_SIZE, Math.max(size, decayed));
+    }
+}
@@ -0,0 +1,21 @@
+package com.bitfiddling.avaje.guava;
+
+/**
+ * Wire format used when writing Guava ImmutableSortedSets of integral elements
+ * ({@code Byte}, {@code Short}, {@code Integer} or {@code Long}).
+ *
+ * <p>Adapters for integral elements read both formats whichever one they are configured
+ * to write. Sorted sets of other element types are always written as plain arrays.
+ */
+public enum SortedSetFormat {
+
+    /** One array element per member, e.g. {@code [1000,1001,1002,1003,1010]}. This is the default. */
+    ELEMENTS,
+
+    /**
+     * The first member followed by the gap to each next member, with {@code -n} standing for
+     * {@code n} further consecutive members, e.g. {@code {"deltas":[1000,-3,7]}}. Large sets
+     * of nearly consecutive ids shrink to a fraction of their plain size.
+     */
+    DELTAS
+}
@@ -0,0 +1,186 @@
+package com.bitfiddling.avaje.guava;
+
+import com.google.common.base.Preconditions;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import io.avaje.json.JsonAdapter;
+import io.avaje.json.JsonReader;
+import io.avaje.json.JsonWriter;
+import io.avaje.jsonb.AdapterFactory;
+import io.avaje.jsonb.Jsonb;
+import java.lang.reflect.Type;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Opt-in interning of decoded strings, so that equal String elements, map keys and map
+ * values of the collections decoded across documents share one instance.
+ *
+ * <p>The adapters from {@link #factory()} intern the String elements of ImmutableList,
+ * ImmutableSet, ImmutableSortedSet and the five Multiset types, and the String keys and
+ * values of ImmutableMap and ImmutableBiMap. Register the factory ahead of the default
+ * adapters, and keep the instance to read its hit statistics. The factory can be the
+ * delegate of {@link HashConsing#factory(AdapterFactory)} and
+ * {@link ParallelWriting#factory(AdapterFactory)} to combine them.
+ *
+ * <pre>{@code
+ * StringInterning interning = StringInterning.weak();
+ * Jsonb jsonb = Jsonb.builder().add(interning.factory()).build();
+ * }</pre>
+ */
+public final class StringInterning {
+
+    private final Interner<String> interner;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private StringInterning(Interner<String> interner) {
+        this.interner = interner;
+    }
+
+    /**
+     * Returns interning backed by a weak interner, whose strings are collected once no
+     * decoded collection refers to them.
+     *
+     * @return the string interning
+     */
+    public static StringInterning weak() {
+        return new StringInterning(Interners.newWeakInterner());
+    }
+
+    /**
+     * Returns interning backed by a strong interner, which keeps every distinct string.
+     * Only suitable for a small, fixed vocabulary.
+     *
+     * @return the string interning
+     */
+    public static StringInterning strong() {
+        return new StringInterning(Interners.newStrongInterner());
+    }
+
+    /**
+     * Returns interning backed by a concurrent cache holding up to {@code maximumSize}
+     * strings, evicting the least recently used beyond that.
+     *
+     * @param maximumSize the maximum number of cached strings
+     * @return the string interning
+     */
+    public static StringInterning bounded(int maximumSize) {
+        Preconditions.checkArgument(maximumSize > 0, "maximumSize must be positive: %s", maximumSize);
+        ConcurrentMap<String, String> cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .<String, String>build()
+                .asMap();
+        return new StringInterning(value -> {
+            String existing = cache.putIfAbsent(value, value);
+            return existing != null ? existing : value;
+        });
+    }
+
+    /**
+     * Returns a factory for the adapters of the ten core collection types that intern
+     * decoded strings, with multisets in the default {@link MultisetFormat#ELEMENTS} format.
+     *
+     * @return the adapter factory
+     */
+    public AdapterFactory factory() {
+        return factory(MultisetFormat.ELEMENTS);
+    }
+
+    /**
+     * Returns a factory for the adapters of the ten core collection types that intern
+     * decoded strings, with multisets written in the given format.
+     *
+     * @param multisetFormat the format to write multisets in
+     * @return the adapter factory
+     */
+    public AdapterFactory factory(MultisetFormat multisetFormat) {
+        return (Type type, Jsonb jsonb) -> GuavaJsonbComponent.createInterning(type, jsonb, multisetFormat, this);
+    }
+
+    /**
+     * Returns the canonical instance of a string.
+     *
+     * @param value the string
+     * @return the equal string held by this interning
+     */
+    public String intern(String value) {
+        String canonical = interner.intern(value);
+        if (canonical == value) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return canonical;
+    }
+
+    /**
+     * Returns the number of strings that were replaced by an existing instance.
+     *
+     * @return the hit count
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of strings that became the canonical instance themselves.
+     *
+     * @return the miss count
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the ratio of hits to interned strings, or {@code 1.0} when none were interned.
+     *
+     * @return the hit rate
+     */
+    public double hitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 1.0 : (double) hitCount / total;
+    }
+
+    @Override
+    public String toString() {
+        return "StringInterning{hits=" + hitCount() + ", misses=" + missCount() + "}";
+    }
+
+    /**
+     * Returns the adapter to decode elements of the given type with, interning them if
+     * they are strings and interning is enabled.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> JsonAdapter<T> elementAdapter(Jsonb jsonb, Type type, StringInterning interning) {
+        JsonAdapter<T> adapter = jsonb.adapter(type);
+        if (interning == null || type != String.class) {
+            return adapter;
+        }
+        return (JsonAdapter<T>) new InterningAdapter((JsonAdapter<String>) adapter, interning);
+    }
+
+    private static final class InterningAdapter implements JsonAdapter<String> {
+
+        private final JsonAdapter<String> delegate;
+        private final StringInterning interning;
+
+        InterningAdapter(JsonAdapter<String> delegate, StringInterning interning) {
+            this.delegate = delegate;
+            this.interning = interning;
+        }
+
+        @Override
+        public String fromJson(JsonReader reader) {
+            String value = delegate.fromJson(reader);
+            return value == null ? null : interning.intern(value);
+        }
+
+        @Override
+        public void toJson(JsonWriter writer, String value) {
+            delegate.toJson(writer, value);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.bitfiddling.avaje.guava;
+
+/**
+ * Wire format used when writing Guava Tables.
+ *
+ * <p>Table adapters read both formats whichever one they are configured to write.
+ */
+public enum TableFormat {
+
+    /**
+     * One nested object per row, e.g. {@code {"r1":{"c1":1.0,"c2":2.0},"r2":{"c1":3.0}}}.
+     * This is the default, and suits sparse tables.
+     */
+    ROW_MAJOR,
+
+    /**
+     * Row keys, column keys and a flat row-major value matrix, e.g.
+     * {@code {"rows":["r1","r2"],"columns":["c1","c2"],"values":[1.0,2.0,3.0,null]}}.
+     * Missing cells are written as {@code null}. Column keys are written once instead of
+     * once per row, which suits dense tables.
+     */
+    COLUMNAR
+}
@@ -0,0 +1,208 @@
+package com.bitfiddling.avaje.guava;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Table;
+import io.avaje.json.JsonAdapter;
+import io.avaje.json.JsonDataException;
+import io.avaje.json.JsonReader;
+import io.avaje.json.JsonWriter;
+import io.avaje.jsonb.Jsonb;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reading and writing shared by the Table adapters for both {@link TableFormat}s.
+ *
+ * @param <R> the row key type
+ * @param <C> the column key type
+ * @param <V> the value type
+ */
+final class TableJson<R, C, V> {
+
+    private static final String ROWS = "rows";
+    private static final String COLUMNS = "columns";
+    private static final String VALUES = "values";
+
+    /**
+     * Receives the decoded table.
+     *
+     * @param <R> the row key type
+     * @param <C> the column key type
+     * @param <V> the value type
+     */
+    interface Sink<R, C, V> {
+
+        /**
+         * Called once before any cell. The columnar form passes all row and column keys,
+         * the row-major form passes {@code null} for both.
+         */
+        void start(List<R> rowKeys, List<C> columnKeys);
+
+        /** Called for each cell; the value is {@code null} for a missing cell. */
+        void put(R row, C column, V value);
+    }
+
+    private final KeyCodec<R> rowCodec;
+    private final KeyCodec<C> columnCodec;
+    private final JsonAdapter<R> rowAdapter;
+    private final JsonAdapter<C> columnAdapter;
+    private final JsonAdapter<V> valueAdapter;
+    private final TableFormat format;
+    private final SizeEstimate rows = new SizeEstimate();
+
+    TableJson(Jsonb jsonb, Type[] types, TableFormat format) {
+        this.rowCodec = KeyCodec.of(jsonb, types[0]);
+        this.columnCodec = KeyCodec.of(jsonb, types[1]);
+        this.rowAdapter = jsonb.adapter(types[0]);
+        this.columnAdapter = jsonb.adapter(types[1]);
+        this.valueAdapter = jsonb.adapter(types[2]);
+        this.format = format;
+    }
+
+    /**
+     * Returns the expected number of rows of the next decoded table. No per-row hint is
+     * kept, as it would size every row from the widest row of an earlier payload.
+     */
+    int expectedRows() {
+        return rows.expectedSize();
+    }
+
+    /**
+     * Reads either format. The columnar form is recognised by a leading {@code "rows"}
+     * field holding an array, as rows of the row-major form are always objects.
+     */
+    void read(JsonReader reader, Sink<R, C, V> sink) {
+        reader.beginObject();
+        if (!reader.hasNextField()) {
+            sink.start(null, null);
+        } else {
+            String field = reader.nextField();
+            if (ROWS.equals(field) && reader.currentToken() == JsonReader.Token.BEGIN_ARRAY) {
+                readColumnar(reader, sink);
+            } else {
+                readRowMajor(reader, field, sink);
+            }
+        }
+        reader.endObject();
+    }
+
+    private void readRowMajor(JsonReader reader, String firstField, Sink<R, C, V> sink) {
+        sink.start(null, null);
+        int rowCount = 0;
+        String field = firstField;
+        while (field != null) {
+            R row = rowCodec.decode(field);
+            reader.beginObject();
+            while (reader.hasNextField()) {
+                C column = columnCodec.decode(reader.nextField());
+                sink.put(row, column, valueAdapter.fromJson(reader));
+            }
+            reader.endObject();
+            rowCount++;
+            field = reader.hasNextField() ? reader.nextField() : null;
+        }
+        rows.record(rowCount);
+    }
+
+    private void readColumnar(JsonReader reader, Sink<R, C, V> sink) {
+        ImmutableList<R> rowKeys = readKeys(reader, rowAdapter);
+        expectField(reader, COLUMNS);
+        ImmutableList<C> columnKeys = readKeys(reader, columnAdapter);
+        expectField(reader, VALUES);
+        sink.start(rowKeys, columnKeys);
+        int columnCount = columnKeys.size();
+        long cellCount = (long) rowKeys.size() * columnCount;
+        long index = 0;
+        reader.beginArray();
+        while (reader.hasNextElement()) {
+            if (index == cellCount) {
+                throw new JsonDataException("Table has more than " + cellCount + " values at " + reader.location());
+            }
+            V value = valueAdapter.fromJson(reader);
+            sink.put(rowKeys.get((int) (index / columnCount)), columnKeys.get((int) (index % columnCount)), value);
+            index++;
+        }
+        reader.endArray();
+        if (index != cellCount) {
+            throw new JsonDataException(
+                    "Table has " + index + " values, expected " + cellCount + " at " + reader.location());
+        }
+        rows.record(rowKeys.size());
+    }
+
+    private static <K> ImmutableList<K> readKeys(JsonReader reader, JsonAdapter<K> keyAdapter) {
+        ImmutableList.Builder<K> keys = ImmutableList.builder();
+        reader.beginArray();
+        while (reader.hasNextElement()) {
+            keys.add(keyAdapter.fromJson(reader));
+        }
+        reader.endArray();
+        return keys.build();
+    }
+
+    private static void expectField(JsonReader reader, String name) {
+        if (!reader.hasNextField() || !name.equals(reader.nextField())) {
+            throw new JsonDataException("Expected columnar table field '" + name + "' at " + reader.location());
+        }
+    }
+
+    /** Writes a non-empty table in the configured format. */
+    void write(JsonWriter writer, Table<R, C, V> table) {
+        if (format == TableFormat.ROW_MAJOR) {
+            writeRowMajor(writer, table);
+        } else {
+            writeColumnar(writer, table);
+        }
+    }
+
+    private void writeRowMajor(JsonWriter writer, Table<R, C, V> table) {
+        writer.beginObject();
+        for (Map.Entry<R, Map<C, V>> row : table.rowMap().entrySet()) {
+            writer.name(rowCodec.encode(row.getKey()));
+            writer.beginObject();
+            for (Map.Entry<C, V> cell : row.getValue().entrySet()) {
+                writer.name(columnCodec.encode(cell.getKey()));
+                writeValue(writer, cell.getValue());
+            }
+            writer.endObject();
+        }
+        writer.endObject();
+    }
+
+    private void writeColumnar(JsonWriter writer, Table<R, C, V> table) {
+        // Copied once, as the column key set of most tables is a view computed from all rows
+        ImmutableList<C> columnKeys = ImmutableList.copyOf(table.columnKeySet());
+        Map<R, Map<C, V>> rowMap = table.rowMap();
+        writer.beginObject();
+        writer.name(ROWS);
+        writer.beginArray();
+        for (R row : rowMap.keySet()) {
+            rowAdapter.toJson(writer, row);
+        }
+        writer.endArray();
+        writer.name(COLUMNS);
+        writer.beginArray();
+        for (C column : columnKeys) {
+            columnAdapter.toJson(writer, column);
+        }
+        writer.endArray();
+        writer.name(VALUES);
+        writer.beginArray();
+        for (Map<C, V> cells : rowMap.values()) {
+            for (C column : columnKeys) {
+                writeValue(writer, cells.get(column));
+            }
+        }
+        writer.endArray();
+        writer.endObject();
+    }
+
+    private void writeValue(JsonWriter writer, V value) {
+        if (value == null) {
+            JsonSupport.writePositionalNull(writer);
+        } else {
+            valueAdapter.toJson(writer, value);
+        }
+    }
+}
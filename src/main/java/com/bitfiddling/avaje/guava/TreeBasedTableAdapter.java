@@ -0,0 +1,94 @@
+package com.bitfiddling.avaje.guava;
+
+import com.google.common.collect.TreeBasedTable;
+import io.avaje.json.JsonAdapter;
+import io.avaje.json.JsonReader;
+import io.avaje.json.JsonWriter;
+import io.avaje.jsonb.AdapterFactory;
+import io.avaje.jsonb.Jsonb;
+import io.avaje.jsonb.Types;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * JsonAdapter for Guava TreeBasedTable.
+ *
+ * @param <R> the row key type
+ * @param <C> the column key type
+ * @param <V> the value type
+ */
+public final class TreeBasedTableAdapter<R extends Comparable<R>, C extends Comparable<C>, V>
+        implements JsonAdapter<TreeBasedTable<R, C, V>> {
+
+    /** Factory for creating TreeBasedTableAdapter instances. */
+    public static final AdapterFactory FACTORY = factory(TableFormat.ROW_MAJOR);
+
+    /**
+     * Returns a factory for TreeBasedTableAdapter instances that write the given format.
+     *
+     * @param format the format to write
+     * @return the adapter factory
+     */
+    public static AdapterFactory factory(TableFormat format) {
+        return (Type type, Jsonb jsonb) -> {
+            if (Types.isGenericTypeOf(type, TreeBasedTable.class)) {
+                return new TreeBasedTableAdapter<>(jsonb, Types.typeArguments(type), format);
+            }
+            return null;
+        };
+    }
+
+    private final TableJson<R, C, V> tableJson;
+
+    /**
+     * Creates a new TreeBasedTableAdapter.
+     *
+     * @param jsonb the Jsonb instance
+     * @param types the generic type arguments
+     */
+    public TreeBasedTableAdapter(Jsonb jsonb, Type[] types) {
+        this(jsonb, types, TableFormat.ROW_MAJOR);
+    }
+
+    /**
+     * Creates a new TreeBasedTableAdapter that writes the given format.
+     *
+     * @param jsonb the Jsonb instance
+     * @param types the generic type arguments
+     * @param format the format to write
+     */
+    public TreeBasedTableAdapter(Jsonb jsonb, Type[] types, TableFormat format) {
+        this.tableJson = new TableJson<>(jsonb, types, format);
+    }
+
+    @Override
+    public TreeBasedTable<R, C, V> fromJson(JsonReader reader) {
+        TreeBasedTable<R, C, V> table = TreeBasedTable.create();
+        tableJson.read(reader, new TableJson.Sink<>() {
+            @Override
+            public void start(List<R> rowKeys, List<C> columnKeys) {}
+
+            @Override
+            public void put(R row, C column, V value) {
+                if (value != null) {
+                    table.put(row, column, value);
+                }
+            }
+        });
+        return table;
+    }
+
+    @Override
+    public void toJson(JsonWriter writer, TreeBasedTable<R, C, V> value) {
+        if (value == null) {
+            writer.nullValue();
+            return;
+        }
+        if (value.isEmpty()) {
+            writer.beginObject();
+            writer.endObject();
+            return;
+        }
+        tableJson.write(writer, value);
+    }
+}
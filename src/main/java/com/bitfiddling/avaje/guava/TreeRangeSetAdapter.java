@@ -0,0 +1,67 @@
+package com.bitfiddling.avaje.guava;
+
+import com.google.common.collect.Range;
+import com.google.common.collect.TreeRangeSet;
+import io.avaje.json.JsonAdapter;
+import io.avaje.json.JsonReader;
+import io.avaje.json.JsonWriter;
+import io.avaje.jsonb.AdapterFactory;
+import io.avaje.jsonb.Jsonb;
+import io.avaje.jsonb.Types;
+import java.lang.reflect.Type;
+
+/**
+ * JsonAdapter for Guava TreeRangeSet, written as an array of ranges in ascending order.
+ *
+ * @param <C> the endpoint type
+ */
+public final class TreeRangeSetAdapter<C extends Comparable<C>> implements JsonAdapter<TreeRangeSet<C>> {
+
+    /** Factory for creating TreeRangeSetAdapter instances. */
+    public static final AdapterFactory FACTORY = (Type type, Jsonb jsonb) -> {
+        if (Types.isGenericTypeOf(type, TreeRangeSet.class)) {
+            return new TreeRangeSetAdapter<>(jsonb, Types.typeArguments(type));
+        }
+        return null;
+    };
+
+    private final RangeJson<C> rangeJson;
+
+    /**
+     * Creates a new TreeRangeSetAdapter.
+     *
+     * @param jsonb the Jsonb instance
+     * @param types the generic type arguments
+     */
+    public TreeRangeSetAdapter(Jsonb jsonb, Type[] types) {
+        this.rangeJson = new RangeJson<>(jsonb.<C>adapter(types[0]));
+    }
+
+    @Override
+    public TreeRangeSet<C> fromJson(JsonReader reader) {
+        TreeRangeSet<C> rangeSet = TreeRangeSet.create();
+        reader.beginArray();
+        while (reader.hasNextElement()) {
+            rangeSet.add(rangeJson.read(reader));
+        }
+        reader.endArray();
+        return rangeSet;
+    }
+
+    @Override
+    public void toJson(JsonWriter writer, TreeRangeSet<C> value) {
+        if (value == null) {
+            writer.nullValue();
+            return;
+        }
+        if (value.isEmpty()) {
+            writer.emptyArray();
+            return;
+        }
+        writer.beginArray();
+        for (Range<C> range : value.asRanges()) {
+            rangeJson.write(writer, range);
+        }
+        writer.endArray();
+    }
+}
@@ -0,0 +1,110 @@
+package com.bitfiddling.avaje.guava.testing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.bitfiddling.avaje.guava.BloomFilterAdapter;
+import com.bitfiddling.avaje.guava.FunnelRegistry;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import io.avaje.json.JsonDataException;
+import io.avaje.jsonb.JsonType;
+import io.avaje.jsonb.Jsonb;
+import io.avaje.jsonb.Types;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the chunked base64 form of the BloomFilter adapter, its {@link FunnelRegistry},
+ * and the HashCode adapter.
+ */
+class BloomFilterTest {
+
+    private final Jsonb defaults = Jsonb.builder().build();
+
+    private static <T> JsonType<BloomFilter<T>> filterType(Jsonb jsonb, Class<T> elementType) {
+        return jsonb.type(Types.newParameterizedType(BloomFilter.class, elementType));
+    }
+
+    @Test
+    void writesLargeFiltersInChunks() {
+        var filter = BloomFilter.create(Funnels.longFunnel(), 1_000_000, 0.01);
+        for (long i = 0; i < 1_000_000; i += 3) {
+            filter.put(i);
+        }
+        var type = filterType(defaults, Long.class);
+
+        var json = type.toJson(filter);
+        var restored = type.fromJson(json);
+
+        assertThat(json).startsWith("[\"").endsWith("\"]").doesNotContain("=\",");
+        var chunks = json.split("\",\"");
+        assertThat(chunks).hasSizeGreaterThan(10);
+        assertThat(chunks[1]).hasSize(4 << 12);
+        assertThat(restored).isEqualTo(filter);
+        assertThat(restored.mightContain(999_999L)).isTrue();
+    }
+
+    @Test
+    void readsASingleBase64String() throws IOException {
+        var filter = BloomFilter.create(Funnels.integerFunnel(), 100);
+        filter.put(42);
+        var bytes = new ByteArrayOutputStream();
+        filter.writeTo(bytes);
+
+        var restored = filterType(defaults, Integer.class)
+                .fromJson("\"" + Base64.getEncoder().encodeToString(bytes.toByteArray()) + "\"");
+
+        assertThat(restored).isEqualTo(filter);
+    }
+
+    @Test
+    void readsWithRegisteredFunnels() {
+        var funnel = Funnels.stringFunnel(StandardCharsets.UTF_8);
+        BloomFilter<String> filter = BloomFilter.create(funnel, 100);
+        filter.put("node-1");
+        var jsonb = Jsonb.builder()
+                .add(BloomFilterAdapter.factory(FunnelRegistry.defaults().with(String.class, funnel)))
+                .build();
+
+        var json = filterType(jsonb, String.class).toJson(filter);
+
+        assertThat(filterType(jsonb, String.class).fromJson(json).mightContain("node-1"))
+                .isTrue();
+        assertThatThrownBy(() -> filterType(defaults, String.class).fromJson(json))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Funnel");
+    }
+
+    @Test
+    void rejectsTruncatedAndTrailingData() {
+        var type = filterType(defaults, Long.class);
+        var json = type.toJson(BloomFilter.create(Funnels.longFunnel(), 1000));
+
+        assertThatThrownBy(() -> type.fromJson(json.substring(0, 20) + "\"]"))
+                .isInstanceOf(JsonDataException.class)
+                .hasMessageContaining("BloomFilter");
+        assertThatThrownBy(() -> type.fromJson(json.replace("\"]", "\",\"AAAA\"]")))
+                .isInstanceOf(JsonDataException.class)
+                .hasMessageContaining("Unexpected data");
+    }
+
+    @Test
+    void writesHashCodesAsHex() {
+        var type = defaults.type(HashCode.class);
+        JsonType<List<HashCode>> listType = defaults.type(Types.listOf(HashCode.class));
+        var hash = Hashing.sha256().hashString("avaje", StandardCharsets.UTF_8);
+
+        assertThat(type.toJson(HashCode.fromInt(0xcafebabe))).isEqualTo("\"bebafeca\"");
+        assertThat(listType.fromJson(listType.toJson(List.of(hash)))).containsExactly(hash);
+        assertThatThrownBy(() -> listType.fromJson("[\"xyz\"]"))
+                .isInstanceOf(JsonDataException.class)
+                .hasMessageContaining("xyz");
+    }
+}
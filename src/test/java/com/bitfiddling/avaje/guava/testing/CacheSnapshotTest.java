@@ -0,0 +1,84 @@
+package com.bitfiddling.avaje.guava.testing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.bitfiddling.avaje.guava.CacheAdapter;
+import com.bitfiddling.avaje.guava.testing.TestRecords.TestPerson;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import io.avaje.json.JsonDataException;
+import io.avaje.jsonb.JsonType;
+import io.avaje.jsonb.Jsonb;
+import io.avaje.jsonb.Types;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for saving and restoring Cache and LoadingCache snapshots with the {@link CacheAdapter}.
+ */
+class CacheSnapshotTest {
+
+    private final Jsonb defaults = Jsonb.builder().build();
+
+    private static <K, V> JsonType<Cache<K, V>> cacheType(Jsonb jsonb, Class<K> keyType, Class<V> valueType) {
+        return jsonb.type(Types.newParameterizedType(Cache.class, keyType, valueType));
+    }
+
+    @Test
+    void roundTripsEntries() {
+        Cache<Integer, TestPerson> cache = CacheBuilder.newBuilder().build();
+        cache.put(1, new TestPerson("Ann", 41));
+        cache.put(2, new TestPerson("Bo", 7));
+        var type = cacheType(defaults, Integer.class, TestPerson.class);
+
+        var json = type.toJson(cache);
+        var restored = type.fromJson(json);
+
+        assertThat(json).contains("\"1\":{\"name\":\"Ann\",\"age\":41}");
+        assertThat(restored.asMap()).isEqualTo(cache.asMap());
+        assertThat(type.toJson(CacheBuilder.newBuilder().build())).isEqualTo("{}");
+    }
+
+    @Test
+    void restoresIntoCachesFromTheSupplier() {
+        var jsonb = Jsonb.builder()
+                .add(CacheAdapter.factory(() -> CacheBuilder.newBuilder()
+                        .concurrencyLevel(1)
+                        .maximumSize(2)
+                        .build()))
+                .build();
+
+        var restored = cacheType(jsonb, String.class, Integer.class).fromJson("{\"a\":1,\"b\":2,\"c\":3,\"d\":4}");
+
+        assertThat(restored.size()).isEqualTo(2);
+        assertThat(restored.asMap()).containsAnyOf(Map.entry("a", 1), Map.entry("b", 2), Map.entry("c", 3));
+    }
+
+    @Test
+    void restoresLoadingCaches() {
+        var jsonb = Jsonb.builder()
+                .add(CacheAdapter.factory(() -> CacheBuilder.newBuilder().build(CacheLoader.from(String::length))))
+                .build();
+        JsonType<LoadingCache<String, Integer>> type =
+                jsonb.type(Types.newParameterizedType(LoadingCache.class, String.class, Integer.class));
+
+        var restored = type.fromJson("{\"warm\":99}");
+
+        assertThat(restored.getUnchecked("warm")).isEqualTo(99);
+        assertThat(restored.getUnchecked("cold")).isEqualTo(4);
+        assertThatThrownBy(() ->
+                        defaults.type(Types.newParameterizedType(LoadingCache.class, String.class, Integer.class)))
+                .hasMessageContaining("LoadingCache");
+    }
+
+    @Test
+    void rejectsNullValues() {
+        assertThatThrownBy(
+                        () -> cacheType(defaults, String.class, Integer.class).fromJson("{\"a\":null}"))
+                .isInstanceOf(JsonDataException.class)
+                .hasMessageContaining("'a'");
+    }
+}
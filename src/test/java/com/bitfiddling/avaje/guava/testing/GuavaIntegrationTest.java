@@ -1,30 +1,72 @@
 package com.bitfiddling.avaje.guava.testing;
 
 import static org.assertj.core.api.Assertions.assertThat;
-
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.bitfiddling.avaje.guava.GuavaJsonbComponent;
+import com.bitfiddling.avaje.guava.ImmutableEnumMapAdapter;
+import com.bitfiddling.avaje.guava.ImmutableEnumSetAdapter;
+import com.bitfiddling.avaje.guava.ImmutableIntArrayAdapter;
+import com.bitfiddling.avaje.guava.ImmutableListAdapter;
+import com.bitfiddling.avaje.guava.testing.TestRecords.TestColor;
+import com.bitfiddling.avaje.guava.testing.TestRecords.TestDataWithCounters;
+import com.bitfiddling.avaje.guava.testing.TestRecords.TestDataWithEnums;
 import com.bitfiddling.avaje.guava.testing.TestRecords.TestDataWithHashMultiset;
 import com.bitfiddling.avaje.guava.testing.TestRecords.TestDataWithImmutableBiMap;
 import com.bitfiddling.avaje.guava.testing.TestRecords.TestDataWithImmutableList;
 import com.bitfiddling.avaje.guava.testing.TestRecords.TestDataWithImmutableMap;
 import com.bitfiddling.avaje.guava.testing.TestRecords.TestDataWithImmutableMultiset;
 import com.bitfiddling.avaje.guava.testing.TestRecords.TestDataWithImmutableSet;
+import com.bitfiddling.avaje.guava.testing.TestRecords.TestDataWithImmutableSortedMap;
 import com.bitfiddling.avaje.guava.testing.TestRecords.TestDataWithImmutableSortedMultiset;
 import com.bitfiddling.avaje.guava.testing.TestRecords.TestDataWithImmutableSortedSet;
 import com.bitfiddling.avaje.guava.testing.TestRecords.TestDataWithLinkedHashMultiset;
+import com.bitfiddling.avaje.guava.testing.TestRecords.TestDataWithMultimaps;
+import com.bitfiddling.avaje.guava.testing.TestRecords.TestDataWithRanges;
+import com.bitfiddling.avaje.guava.testing.TestRecords.TestDataWithShelves;
 import com.bitfiddling.avaje.guava.testing.TestRecords.TestDataWithTreeMultiset;
+import com.bitfiddling.avaje.guava.testing.TestRecords.TestDataWithTypedKeys;
 import com.bitfiddling.avaje.guava.testing.TestRecords.TestPerson;
+import com.bitfiddling.avaje.guava.testing.TestRecords.TestShelf;
+import com.bitfiddling.avaje.guava.testing.TestRecords.TestSize;
+import com.bitfiddling.avaje.guava.testing.TestRecords.TestSku;
+import com.bitfiddling.avaje.guava.testing.TestRecords.TestTreeNode;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ConcurrentHashMultiset;
+import com.google.common.collect.EnumBiMap;
+import com.google.common.collect.EnumMultiset;
+import com.google.common.collect.HashMultimap;
 import com.google.common.collect.HashMultiset;
 import com.google.common.collect.ImmutableBiMap;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMultiset;
+import com.google.common.collect.ImmutableRangeMap;
+import com.google.common.collect.ImmutableRangeSet;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.collect.ImmutableSortedMultiset;
 import com.google.common.collect.ImmutableSortedSet;
 import com.google.common.collect.LinkedHashMultiset;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Range;
 import com.google.common.collect.TreeMultiset;
+import com.google.common.collect.TreeRangeSet;
+import com.google.common.primitives.ImmutableDoubleArray;
+import com.google.common.primitives.ImmutableIntArray;
+import com.google.common.primitives.ImmutableLongArray;
+import com.google.common.util.concurrent.AtomicLongMap;
+import io.avaje.json.JsonDataException;
+import io.avaje.jsonb.JsonType;
 import io.avaje.jsonb.Jsonb;
+import io.avaje.jsonb.Types;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -83,6 +125,332 @@ class GuavaIntegrationTest {
         assertThat(restored.properties()).containsEntry("key2", "value2");
     }
 
+    @Test
+    void testTypedMapKeys() {
+        var uuid = UUID.fromString("3b241101-e2bb-4255-8caf-4136c566a962");
+        var original = new TestDataWithTypedKeys(
+                ImmutableMap.of(1L, "one", 20_000_000_000L, "big"),
+                ImmutableMap.of(uuid, 7),
+                ImmutableMap.of(TestColor.RED, "warm", TestColor.BLUE, "cold"),
+                ImmutableMap.of(new TestSku("A-1"), 9.5),
+                ImmutableBiMap.of(1, "a", 2, "b"));
+
+        var json = jsonb.toJson(original);
+        assertThat(json)
+                .contains("\"20000000000\":\"big\"")
+                .contains("\"" + uuid + "\":7")
+                .contains("\"RED\":\"warm\"")
+                .contains("\"A-1\":9.5");
+
+        var restored = jsonb.type(TestDataWithTypedKeys.class).fromJson(json);
+        assertThat(restored).isEqualTo(original);
+        assertThat(restored.byId().keySet()).first().isInstanceOf(Long.class);
+        assertThat(restored.byColor()).containsEntry(TestColor.BLUE, "cold");
+        assertThat(restored.bySku()).containsEntry(new TestSku("A-1"), 9.5);
+        assertThat(restored.codes().inverse()).containsEntry("b", 2);
+    }
+
+    @Test
+    void testCachedKeyNamesAcrossWrites() {
+        JsonType<ImmutableMap<Integer, Integer>> type = Jsonb.builder()
+                .build()
+                .type(Types.newParameterizedType(ImmutableMap.class, Integer.class, Integer.class));
+        var fixed = IntStream.range(0, 2000).boxed().collect(ImmutableMap.toImmutableMap(i -> i, i -> -i));
+        var expected = fixed.entrySet().stream()
+                .map(e -> "\"" + e.getKey() + "\":" + e.getValue())
+                .collect(Collectors.joining(",", "{", "}"));
+
+        for (int round = 0; round < 5; round++) {
+            var ids = ImmutableMap.of(100_000 + 2 * round, round, 100_001 + 2 * round, round);
+            assertThat(type.toJson(ids))
+                    .isEqualTo("{\"" + (100_000 + 2 * round) + "\":" + round + ",\"" + (100_001 + 2 * round) + "\":"
+                            + round + "}");
+            assertThat(type.toJson(fixed)).isEqualTo(expected);
+            assertThat(type.toJson(ImmutableMap.of(5, -5, 6, -6, 7, -7, 8, -8, 9, -9)))
+                    .isEqualTo("{\"5\":-5,\"6\":-6,\"7\":-7,\"8\":-8,\"9\":-9}");
+        }
+    }
+
+    @Test
+    void testEnumCollections() {
+        var votes = EnumMultiset.create(TestColor.class);
+        votes.add(TestColor.BLUE, 2);
+        votes.add(TestColor.RED);
+        var sizes = EnumBiMap.create(TestColor.class, TestSize.class);
+        sizes.put(TestColor.RED, TestSize.LARGE);
+        sizes.put(TestColor.GREEN, TestSize.SMALL);
+        var original = new TestDataWithEnums(
+                ImmutableSet.of(TestColor.BLUE, TestColor.RED),
+                ImmutableMap.of(TestColor.GREEN, 2, TestColor.RED, 1),
+                votes,
+                sizes,
+                ImmutableSet.of(TestSize.SMALL));
+
+        var json = jsonb.toJson(original);
+        assertThat(json)
+                .isEqualTo("{\"colors\":[\"BLUE\",\"RED\"],\"counts\":{\"GREEN\":2,\"RED\":1},"
+                        + "\"votes\":[\"RED\",\"BLUE\",\"BLUE\"],\"sizes\":{\"RED\":\"l\",\"GREEN\":\"s\"},"
+                        + "\"available\":[\"s\"]}");
+
+        var type = jsonb.type(TestDataWithEnums.class);
+        var restored = type.fromJson(json);
+        assertThat(restored).isEqualTo(original);
+        assertThat(restored.colors()).containsExactly(TestColor.BLUE, TestColor.RED);
+        assertThat(restored.counts().keySet()).containsExactly(TestColor.GREEN, TestColor.RED);
+        assertThat(restored.sizes().inverse()).containsEntry(TestSize.SMALL, TestColor.GREEN);
+
+        assertThatThrownBy(() -> type.fromJson("{\"sizes\":{\"RED\":\"s\",\"BLUE\":\"s\"}}"))
+                .isInstanceOf(JsonDataException.class);
+    }
+
+    @Test
+    void testOptInEnumSetAndMap() {
+        var enums = Jsonb.builder()
+                .add(ImmutableEnumSetAdapter.FACTORY)
+                .add(ImmutableEnumMapAdapter.FACTORY)
+                .build();
+        var type = enums.type(TestDataWithEnums.class);
+
+        var restored = type.fromJson("{\"colors\":[\"BLUE\",\"RED\"],\"counts\":{\"GREEN\":2,\"RED\":1}}");
+
+        assertThat(restored.colors()).containsExactly(TestColor.RED, TestColor.BLUE);
+        assertThat(restored.counts().keySet()).containsExactly(TestColor.RED, TestColor.GREEN);
+        assertThat(restored.colors().getClass().getSimpleName()).isEqualTo("ImmutableEnumSet");
+        assertThat(restored.counts().getClass().getSimpleName()).isEqualTo("ImmutableEnumMap");
+        assertThat(type.toJson(restored))
+                .startsWith("{\"colors\":[\"RED\",\"BLUE\"],\"counts\":{\"RED\":1,\"GREEN\":2}");
+        assertThatThrownBy(() -> type.fromJson("{\"colors\":[\"PINK\"]}"))
+                .isInstanceOf(JsonDataException.class)
+                .hasMessageContaining("PINK");
+    }
+
+    @Test
+    void testConcurrentCounters() throws InterruptedException {
+        var hits = ConcurrentHashMultiset.<String>create();
+        hits.add("home", 3);
+        hits.add("about");
+        var totals = AtomicLongMap.<TestColor>create();
+        totals.addAndGet(TestColor.RED, 20_000_000_000L);
+        totals.put(TestColor.BLUE, 0);
+        var original = new TestDataWithCounters(hits, totals);
+
+        var type = jsonb.type(TestDataWithCounters.class);
+        var json = type.toJson(original);
+        assertThat(json).contains("\"home\":3").contains("\"RED\":20000000000").contains("\"BLUE\":0");
+
+        var restored = type.fromJson(json);
+        assertThat(restored.hits()).isEqualTo(hits);
+        assertThat(restored.totals().asMap()).isEqualTo(totals.asMap());
+        assertThat(type.fromJson("{\"hits\":[\"a\",\"a\"],\"totals\":{\"RED\":1,\"RED\":2}}"))
+                .satisfies(counters -> {
+                    assertThat(counters.hits().count("a")).isEqualTo(2);
+                    assertThat(counters.totals().get(TestColor.RED)).isEqualTo(3);
+                });
+
+        var updater = new Thread(() -> {
+            for (int i = 0; i < 200_000; i++) {
+                hits.add("k" + (i % 1000));
+                totals.incrementAndGet(TestColor.GREEN);
+            }
+        });
+        updater.start();
+        while (updater.isAlive()) {
+            var snapshot = type.fromJson(type.toJson(original));
+            assertThat(snapshot.hits().count("home")).isEqualTo(3);
+            assertThat(snapshot.totals().get(TestColor.RED)).isEqualTo(20_000_000_000L);
+        }
+        updater.join();
+        assertThat(type.fromJson(type.toJson(original)).totals().get(TestColor.GREEN))
+                .isEqualTo(200_000);
+    }
+
+    @Test
+    void testRepeatedMapKeys() {
+        JsonType<ImmutableMap<String, TestPerson>> type =
+                jsonb.type(Types.newParameterizedType(ImmutableMap.class, String.class, TestPerson.class));
+        var people = ImmutableMap.of(
+                "lead", new TestPerson("Ann", 41),
+                "quote\"d", new TestPerson("Bo", 7),
+                "caf\u00e9", new TestPerson("Cy", 30));
+        var expected = "{\"lead\":{\"name\":\"Ann\",\"age\":41},"
+                + "\"quote\\\"d\":{\"name\":\"Bo\",\"age\":7},"
+                + "\"caf\u00e9\":{\"name\":\"Cy\",\"age\":30}}";
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(type.toJson(people)).isEqualTo(expected);
+        }
+        assertThat(type.toJson(ImmutableMap.of("lead", new TestPerson("Di", 5), "new", new TestPerson("Ed", 6))))
+                .isEqualTo("{\"lead\":{\"name\":\"Di\",\"age\":5},\"new\":{\"name\":\"Ed\",\"age\":6}}");
+    }
+
+    @Test
+    void testUnboundedMapKeys() {
+        var type = jsonb.type(TestDataWithImmutableMap.class);
+        for (int round = 0; round < 3; round++) {
+            int offset = round * 1000;
+            var properties = IntStream.range(offset, offset + 1000)
+                    .boxed()
+                    .collect(ImmutableMap.toImmutableMap(i -> "k" + i, i -> "v" + i));
+            var original = new TestDataWithImmutableMap("round" + round, properties);
+
+            var json = jsonb.toJson(original);
+            assertThat(json).contains("\"k" + (offset + 999) + "\":\"v" + (offset + 999) + "\"");
+            assertThat(type.fromJson(json)).isEqualTo(original);
+        }
+    }
+
+    @Test
+    void testInvalidTypedMapKey() {
+        var type = jsonb.type(TestDataWithTypedKeys.class);
+        assertThatThrownBy(() -> type.fromJson("{\"byColor\":{\"PURPLE\":\"x\"}}"))
+                .isInstanceOf(JsonDataException.class)
+                .hasMessageContaining("PURPLE");
+    }
+
+    @Test
+    void testNumberBackedMapKeys() {
+        var type = jsonb.type(TestDataWithShelves.class);
+        var original = new TestDataWithShelves(ImmutableMap.of(new TestShelf(1), "top", new TestShelf(2), "bottom"));
+
+        var json = type.toJson(original);
+        assertThat(json).isEqualTo("{\"byShelf\":{\"1\":\"top\",\"2\":\"bottom\"}}");
+        assertThat(type.fromJson(json)).isEqualTo(original);
+        assertThatThrownBy(() -> type.fromJson("{\"byShelf\":{\"1,2\":\"x\"}}"))
+                .isInstanceOf(JsonDataException.class)
+                .hasMessageContaining("1,2");
+    }
+
+    @Test
+    void testMultimaps() {
+        var history = ArrayListMultimap.<Long, String>create();
+        history.putAll(2L, List.of("created", "updated", "updated"));
+        var aliases = HashMultimap.<String, String>create();
+        aliases.putAll("bob", List.of("rob", "robert"));
+        var original = new TestDataWithMultimaps(
+                ImmutableListMultimap.of("alice", 3, "bob", 5, "alice", 3),
+                ImmutableSetMultimap.of(TestColor.RED, "warm", TestColor.BLUE, "cool"),
+                history,
+                aliases);
+
+        var json = jsonb.toJson(original);
+        assertThat(json)
+                .contains("\"scores\":{\"alice\":[3,3],\"bob\":[5]}")
+                .contains("\"history\":{\"2\":[\"created\",\"updated\",\"updated\"]}");
+
+        var restored = jsonb.type(TestDataWithMultimaps.class).fromJson(json);
+        assertThat(restored).isEqualTo(original);
+        assertThat(restored.scores()).isInstanceOf(ImmutableListMultimap.class);
+        assertThat(restored.tags()).isInstanceOf(ImmutableSetMultimap.class);
+        assertThat(restored.history()).isInstanceOf(ArrayListMultimap.class);
+        assertThat(restored.aliases()).isInstanceOf(HashMultimap.class);
+    }
+
+    @Test
+    void testWideMultimapAfterSkewedMultimap() {
+        String skewed = IntStream.range(0, 1_000_000)
+                .mapToObj(Integer::toString)
+                .collect(Collectors.joining(",", "{\"k\":[", "]}"));
+        String wide = IntStream.range(0, 5_000)
+                .mapToObj(i -> "\"k" + i + "\":[" + i + "]")
+                .collect(Collectors.joining(",", "{", "}"));
+        for (Class<?> multimapType : List.of(
+                ArrayListMultimap.class, HashMultimap.class, ImmutableListMultimap.class, ImmutableSetMultimap.class)) {
+            JsonType<Multimap<String, Integer>> type =
+                    jsonb.type(Types.newParameterizedType(multimapType, String.class, Integer.class));
+
+            assertThat(type.fromJson(skewed).get("k")).hasSize(1_000_000);
+            var restored = type.fromJson(wide);
+            assertThat(restored.keySet()).hasSize(5_000);
+            assertThat(restored.get("k4999")).containsExactly(4999);
+        }
+    }
+
+    @Test
+    void testEmptyMultimaps() {
+        var original = new TestDataWithMultimaps(
+                ImmutableListMultimap.of(),
+                ImmutableSetMultimap.of(),
+                ArrayListMultimap.create(),
+                HashMultimap.create());
+
+        var json = jsonb.toJson(original);
+        assertThat(json).isEqualTo("{\"scores\":{},\"tags\":{},\"history\":{},\"aliases\":{}}");
+        assertThat(jsonb.type(TestDataWithMultimaps.class).fromJson(json)).isEqualTo(original);
+    }
+
+    @Test
+    void testRanges() {
+        var free = TreeRangeSet.<Long>create();
+        free.add(Range.atLeast(100L));
+        free.add(Range.lessThan(0L));
+        var original = new TestDataWithRanges(
+                Range.closedOpen(1, 10),
+                ImmutableRangeSet.<Integer>builder()
+                        .add(Range.closed(20, 29))
+                        .add(Range.openClosed(0, 9))
+                        .build(),
+                free,
+                ImmutableRangeMap.<Integer, String>builder()
+                        .put(Range.closedOpen(0, 100), "alice")
+                        .put(Range.closedOpen(100, 200), "bob")
+                        .build());
+
+        var json = jsonb.toJson(original);
+        assertThat(json)
+                .contains("\"window\":[1,10,\"[)\"]")
+                .contains("\"allocated\":[[0,9,\"(]\"],[20,29,\"[]\"]]")
+                .contains("\"free\":[[null,0,\"()\"],[100,null,\"[)\"]]")
+                .contains("\"owners\":[[0,100,\"[)\",\"alice\"],[100,200,\"[)\",\"bob\"]]");
+
+        var restored = jsonb.type(TestDataWithRanges.class).fromJson(json);
+        assertThat(restored).isEqualTo(original);
+        assertThat(restored.allocated()).isInstanceOf(ImmutableRangeSet.class);
+        assertThat(restored.free()).isInstanceOf(TreeRangeSet.class);
+        assertThat(restored.owners().get(150)).isEqualTo("bob");
+    }
+
+    @Test
+    void testUnsortedRangeSetInput() {
+        var restored = jsonb.type(TestDataWithRanges.class)
+                .fromJson("{\"allocated\":[[20,29,\"[]\"],[0,10,\"[)\"],[5,15,\"[)\"],[15,20,\"[)\"]]}");
+
+        assertThat(restored.allocated().asRanges()).containsExactly(Range.closed(0, 29));
+    }
+
+    @Test
+    void testListOfRanges() {
+        JsonType<ImmutableList<Range<Integer>>> type = jsonb.type(Types.newParameterizedType(
+                ImmutableList.class, Types.newParameterizedType(Range.class, Integer.class)));
+        var original = ImmutableList.of(Range.closed(1, 2), Range.closed(3, 4));
+
+        var json = type.toJson(original);
+        assertThat(json).isEqualTo("[[1,2,\"[]\"],[3,4,\"[]\"]]");
+        assertThat(type.fromJson(json)).isEqualTo(original);
+    }
+
+    @Test
+    void testEmptyRangesAreSkipped() {
+        var restored = jsonb.type(TestDataWithRanges.class)
+                .fromJson("{\"allocated\":[[1,1,\"[)\"],[5,9,\"[]\"],[3,3,\"(]\"]],"
+                        + "\"free\":[[7,7,\"[)\"]],"
+                        + "\"owners\":[[0,0,\"[)\",\"nobody\"],[0,100,\"[)\",\"alice\"]]}");
+
+        assertThat(restored.allocated().asRanges()).containsExactly(Range.closed(5, 9));
+        assertThat(restored.free().isEmpty()).isTrue();
+        assertThat(restored.owners().asMapOfRanges()).containsExactly(Map.entry(Range.closedOpen(0, 100), "alice"));
+    }
+
+    @Test
+    void testInvalidRange() {
+        var type = jsonb.type(TestDataWithRanges.class);
+        assertThatThrownBy(() -> type.fromJson("{\"window\":[10,1,\"[)\"]}"))
+                .isInstanceOf(JsonDataException.class)
+                .hasMessageContaining("Invalid range");
+        assertThatThrownBy(() -> type.fromJson("{\"window\":[1,10,\"<>\"]}"))
+                .isInstanceOf(JsonDataException.class)
+                .hasMessageContaining("Invalid range bounds");
+    }
+
     @Test
     void testEmptyCollections() {
         var emptyList = new TestDataWithImmutableList("empty", ImmutableList.of());
@@ -126,6 +494,45 @@ class GuavaIntegrationTest {
         assertThat(restored.sortedItems()).containsExactly("apple", "banana", "zebra"); // sorted order
     }
 
+    @Test
+    void testImmutableSortedSetUnsortedInput() {
+        var type = jsonb.type(TestDataWithImmutableSortedSet.class);
+
+        var restored =
+                type.fromJson("{\"name\":\"unsorted\",\"sortedItems\":[\"zebra\",\"apple\",\"zebra\",\"banana\"]}");
+        assertThat(restored.sortedItems()).containsExactly("apple", "banana", "zebra");
+
+        restored = type.fromJson("{\"name\":\"duplicates\",\"sortedItems\":[\"apple\",\"apple\",\"banana\"]}");
+        assertThat(restored.sortedItems()).containsExactly("apple", "banana");
+    }
+
+    @Test
+    void testImmutableSortedMapIntegration() {
+        var original =
+                new TestDataWithImmutableSortedMap("sortedMap", ImmutableSortedMap.of(10, "ten", 2, "two", 7, "seven"));
+
+        var json = jsonb.toJson(original);
+        assertThat(json).contains("{\"2\":\"two\",\"7\":\"seven\",\"10\":\"ten\"}");
+
+        var restored = jsonb.type(TestDataWithImmutableSortedMap.class).fromJson(json);
+        assertThat(restored).isEqualTo(original);
+        assertThat(restored.sortedMapping()).isInstanceOf(ImmutableSortedMap.class);
+        assertThat(restored.sortedMapping().keySet()).containsExactly(2, 7, 10);
+        assertThat(restored.sortedMapping().headMap(7)).containsExactly(Map.entry(2, "two"));
+    }
+
+    @Test
+    void testImmutableSortedMapUnsortedInput() {
+        var type = jsonb.type(TestDataWithImmutableSortedMap.class);
+
+        var restored = type.fromJson("{\"name\":\"unsorted\",\"sortedMapping\":{\"10\":\"ten\",\"2\":\"two\"}}");
+        assertThat(restored.sortedMapping().keySet()).containsExactly(2, 10);
+
+        assertThatThrownBy(() ->
+                        type.fromJson("{\"name\":\"dup\",\"sortedMapping\":{\"2\":\"a\",\"1\":\"b\",\"2\":\"c\"}}"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
     @Test
     void testImmutableBiMapIntegration() {
         var original = new TestDataWithImmutableBiMap("bimap", ImmutableBiMap.of("key1", 1, "key2", 2, "key3", 3));
@@ -173,6 +580,15 @@ class GuavaIntegrationTest {
         assertThat(restored.sortedMultiItems().elementSet()).containsExactly("apple", "banana", "zebra");
     }
 
+    @Test
+    void testImmutableSortedMultisetUnsortedInput() {
+        var restored = jsonb.type(TestDataWithImmutableSortedMultiset.class)
+                .fromJson("{\"name\":\"unsorted\",\"sortedMultiItems\":[\"apple\",\"zebra\",\"apple\",\"banana\"]}");
+
+        assertThat(restored.sortedMultiItems()).containsExactly("apple", "apple", "banana", "zebra");
+        assertThat(restored.sortedMultiItems().elementSet()).containsExactly("apple", "banana", "zebra");
+    }
+
     @Test
     void testHashMultisetIntegration() {
         var original = new TestDataWithHashMultiset(
@@ -222,4 +638,57 @@ class GuavaIntegrationTest {
         // Verify natural ordering is maintained
         assertThat(restored.treeMultiItems().elementSet()).containsExactly("apple", "banana", "zebra");
     }
+
+    @Test
+    void testPrimitiveArrays() {
+        var ints = jsonb.type(ImmutableIntArray.class);
+        var intArray = ImmutableIntArray.of(1, -2, Integer.MAX_VALUE);
+        assertThat(ints.toJson(intArray)).isEqualTo("[1,-2,2147483647]");
+        assertThat(ints.fromJson("[1,-2,2147483647]")).isEqualTo(intArray);
+        assertThat(ints.fromJson("[]")).isEqualTo(ImmutableIntArray.of());
+
+        var longs = jsonb.type(ImmutableLongArray.class);
+        var longArray = ImmutableLongArray.of(Long.MIN_VALUE, 0L, 20_000_000_000L);
+        assertThat(longs.fromJson(longs.toJson(longArray))).isEqualTo(longArray);
+
+        var doubles = jsonb.type(ImmutableDoubleArray.class);
+        var doubleArray = ImmutableDoubleArray.of(0.5, -1.25);
+        assertThat(doubles.toJson(doubleArray)).isEqualTo("[0.5,-1.25]");
+        assertThat(doubles.fromJson("[0.5,-1.25]")).isEqualTo(doubleArray);
+    }
+
+    @Test
+    void testComponentFactory() {
+        var factory = GuavaJsonbComponent.FACTORY;
+        assertThat(factory.create(Types.newParameterizedType(ImmutableList.class, String.class), jsonb))
+                .isInstanceOf(ImmutableListAdapter.class);
+        assertThat(factory.create(ImmutableIntArray.class, jsonb)).isInstanceOf(ImmutableIntArrayAdapter.class);
+        assertThat(factory.create(Types.newParameterizedType(List.class, String.class), jsonb))
+                .isNull();
+        assertThat(factory.create(ImmutableList.class, jsonb)).isNull();
+        assertThat(factory.create(String.class, jsonb)).isNull();
+    }
+
+    @Test
+    void testRepeatedDecodesOfVaryingSizes() {
+        var type = jsonb.type(TestDataWithImmutableSet.class);
+        for (int size : new int[] {50_000, 3, 0, 70_000, 1}) {
+            var numbers = IntStream.range(0, size).boxed().collect(ImmutableSet.toImmutableSet());
+            var original = new TestDataWithImmutableSet("sized", numbers);
+
+            var restored = type.fromJson(jsonb.toJson(original));
+            assertThat(restored).isEqualTo(original);
+        }
+    }
+
+    @Test
+    void testRecursiveImmutableList() {
+        var leaf = new TestTreeNode("leaf", ImmutableList.of());
+        var original = new TestTreeNode(
+                "root", ImmutableList.of(new TestTreeNode("left", ImmutableList.of(leaf, leaf)), leaf));
+
+        var restored = jsonb.type(TestTreeNode.class).fromJson(jsonb.toJson(original));
+        assertThat(restored).isEqualTo(original);
+        assertThat(restored.children().get(0).children()).hasSize(2);
+    }
 }
@@ -0,0 +1,88 @@
+package com.bitfiddling.avaje.guava.testing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.bitfiddling.avaje.guava.GuavaStreams;
+import com.bitfiddling.avaje.guava.testing.TestRecords.TestPerson;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import io.avaje.json.JsonReader;
+import io.avaje.jsonb.Jsonb;
+import io.avaje.jsonb.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the streaming decode API in {@link GuavaStreams}.
+ */
+class GuavaStreamsTest {
+
+    private final Jsonb jsonb = Jsonb.builder().build();
+
+    @Test
+    void forEachDecodesElementsInOrder() {
+        List<TestPerson> people = new ArrayList<>();
+        try (JsonReader reader = jsonb.reader("[{\"name\":\"Alice\",\"age\":30},{\"name\":\"Bob\",\"age\":25}]")) {
+            long count = GuavaStreams.<TestPerson>forEach(jsonb, reader, TestPerson.class, people::add);
+
+            assertThat(count).isEqualTo(2);
+        }
+        assertThat(people).containsExactly(new TestPerson("Alice", 30), new TestPerson("Bob", 25));
+    }
+
+    @Test
+    void forEachUsesGuavaElementAdapters() {
+        List<ImmutableSet<Integer>> sets = new ArrayList<>();
+        try (JsonReader reader = jsonb.reader("[[1,2],[],[3]]")) {
+            GuavaStreams.<ImmutableSet<Integer>>forEach(
+                    jsonb, reader, Types.newParameterizedType(ImmutableSet.class, Integer.class), sets::add);
+        }
+        assertThat(sets).containsExactly(ImmutableSet.of(1, 2), ImmutableSet.of(), ImmutableSet.of(3));
+    }
+
+    @Test
+    void forEachBatchSplitsIntoFullBatches() {
+        String json = IntStream.range(0, 10).mapToObj(Integer::toString).collect(Collectors.joining(",", "[", "]"));
+        List<ImmutableList<Integer>> batches = new ArrayList<>();
+        try (JsonReader reader = jsonb.reader(json)) {
+            long count = GuavaStreams.<Integer>forEachBatch(jsonb, reader, Integer.class, 4, batches::add);
+
+            assertThat(count).isEqualTo(10);
+        }
+        assertThat(batches)
+                .containsExactly(ImmutableList.of(0, 1, 2, 3), ImmutableList.of(4, 5, 6, 7), ImmutableList.of(8, 9));
+    }
+
+    @Test
+    void unboundedBatchSizePassesOneBatch() {
+        String json = IntStream.range(0, 3000).mapToObj(Integer::toString).collect(Collectors.joining(",", "[", "]"));
+        List<ImmutableList<Integer>> batches = new ArrayList<>();
+        try (JsonReader reader = jsonb.reader(json)) {
+            GuavaStreams.<Integer>forEachBatch(jsonb, reader, Integer.class, Integer.MAX_VALUE, batches::add);
+        }
+        assertThat(batches).hasSize(1);
+        assertThat(batches.get(0)).hasSize(3000).startsWith(0, 1).endsWith(2999);
+    }
+
+    @Test
+    void emptyArrayPassesNoBatches() {
+        List<ImmutableList<String>> batches = new ArrayList<>();
+        try (JsonReader reader = jsonb.reader("[]")) {
+            assertThat(GuavaStreams.<String>forEachBatch(jsonb, reader, String.class, 4, batches::add))
+                    .isZero();
+        }
+        assertThat(batches).isEmpty();
+    }
+
+    @Test
+    void rejectsNonPositiveBatchSize() {
+        try (JsonReader reader = jsonb.reader("[1]")) {
+            assertThatThrownBy(() -> GuavaStreams.<Integer>forEachBatch(jsonb, reader, Integer.class, 0, batch -> {}))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+}
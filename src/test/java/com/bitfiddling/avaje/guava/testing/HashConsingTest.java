@@ -0,0 +1,99 @@
+package com.bitfiddling.avaje.guava.testing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.bitfiddling.avaje.guava.HashConsing;
+import com.bitfiddling.avaje.guava.StringInterning;
+import com.bitfiddling.avaje.guava.testing.TestRecords.TestDataWithImmutableList;
+import com.bitfiddling.avaje.guava.testing.TestRecords.TestDataWithImmutableMap;
+import com.bitfiddling.avaje.guava.testing.TestRecords.TestDataWithImmutableSet;
+import io.avaje.jsonb.Jsonb;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the opt-in {@link HashConsing} of decoded collections.
+ */
+class HashConsingTest {
+
+    @Test
+    void equalCollectionsShareOneInstance() {
+        var hashConsing = HashConsing.create(100);
+        var jsonb = Jsonb.builder().add(hashConsing.factory()).build();
+        var lists = jsonb.type(TestDataWithImmutableList.class);
+        var sets = jsonb.type(TestDataWithImmutableSet.class);
+        var maps = jsonb.type(TestDataWithImmutableMap.class);
+
+        var first = lists.fromJson("{\"name\":\"a\",\"items\":[\"read\",\"write\"]}");
+        var second = lists.fromJson("{\"name\":\"b\",\"items\":[\"read\",\"write\"]}");
+        var reordered = lists.fromJson("{\"name\":\"c\",\"items\":[\"write\",\"read\"]}");
+        assertThat(second.items()).isSameAs(first.items());
+        assertThat(reordered.items()).isNotSameAs(first.items());
+
+        assertThat(sets.fromJson("{\"numbers\":[1,2]}").numbers())
+                .isSameAs(sets.fromJson("{\"numbers\":[1,2]}").numbers());
+        assertThat(maps.fromJson("{\"properties\":{\"flag\":\"on\"}}").properties())
+                .isSameAs(maps.fromJson("{\"properties\":{\"flag\":\"on\"}}").properties());
+
+        assertThat(hashConsing.hitCount()).isEqualTo(3);
+        assertThat(hashConsing.missCount()).isEqualTo(4);
+    }
+
+    @Test
+    void equalCollectionsInAnotherOrderKeepTheirOrder() {
+        var hashConsing = HashConsing.create(100);
+        var jsonb = Jsonb.builder().add(hashConsing.factory()).build();
+        var sets = jsonb.type(TestDataWithImmutableSet.class);
+        var maps = jsonb.type(TestDataWithImmutableMap.class);
+
+        sets.fromJson("{\"numbers\":[1,2]}");
+        assertThat(sets.fromJson("{\"numbers\":[2,1]}").numbers()).containsExactly(2, 1);
+        maps.fromJson("{\"properties\":{\"a\":\"1\",\"b\":\"2\"}}");
+        assertThat(maps.fromJson("{\"properties\":{\"b\":\"2\",\"a\":\"1\"}}").properties())
+                .containsExactly(Map.entry("b", "2"), Map.entry("a", "1"));
+
+        assertThat(hashConsing.hitCount()).isZero();
+        assertThat(hashConsing.missCount()).isEqualTo(4);
+    }
+
+    @Test
+    void largeCollectionsAreNotCached() {
+        var hashConsing = HashConsing.create(100, 2);
+        var type = Jsonb.builder().add(hashConsing.factory()).build().type(TestDataWithImmutableSet.class);
+
+        var first = type.fromJson("{\"numbers\":[1,2,3]}");
+        var second = type.fromJson("{\"numbers\":[1,2,3]}");
+
+        assertThat(second.numbers()).isEqualTo(first.numbers()).isNotSameAs(first.numbers());
+        assertThat(hashConsing.hitCount() + hashConsing.missCount()).isZero();
+    }
+
+    @Test
+    void leastRecentlyUsedAreEvicted() {
+        var hashConsing = HashConsing.create(1);
+        var type = Jsonb.builder().add(hashConsing.factory()).build().type(TestDataWithImmutableSet.class);
+
+        var first = type.fromJson("{\"numbers\":[1]}");
+        type.fromJson("{\"numbers\":[2]}");
+        var again = type.fromJson("{\"numbers\":[1]}");
+
+        assertThat(again.numbers()).isNotSameAs(first.numbers());
+        assertThat(hashConsing.evictionCount()).isGreaterThan(0);
+    }
+
+    @Test
+    void combinesWithStringInterning() {
+        var interning = StringInterning.weak();
+        var hashConsing = HashConsing.create(100);
+        var type = Jsonb.builder()
+                .add(hashConsing.factory(interning.factory()))
+                .build()
+                .type(TestDataWithImmutableList.class);
+
+        var first = type.fromJson("{\"items\":[\"x\",\"y\"]}");
+        var second = type.fromJson("{\"items\":[\"y\"]}");
+
+        assertThat(second.items().get(0)).isSameAs(first.items().get(1));
+        assertThat(interning.hitCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,112 @@
+package com.bitfiddling.avaje.guava.testing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.bitfiddling.avaje.guava.AdapterStatistics;
+import com.bitfiddling.avaje.guava.Instrumentation;
+import com.bitfiddling.avaje.guava.StringInterning;
+import com.bitfiddling.avaje.guava.testing.TestRecords.TestDataWithImmutableList;
+import com.bitfiddling.avaje.guava.testing.TestRecords.TestDataWithImmutableSet;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import io.avaje.jsonb.Jsonb;
+import io.avaje.jsonb.Types;
+import java.lang.reflect.Type;
+import java.nio.file.Path;
+import java.util.stream.IntStream;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for the {@link Instrumentation} of adapters.
+ */
+class InstrumentationTest {
+
+    private static final Type STRING_LIST = Types.newParameterizedType(ImmutableList.class, String.class);
+
+    @Test
+    void recordsDecodesAndEncodesPerType() {
+        var statistics = new AdapterStatistics();
+        var jsonb = Jsonb.builder()
+                .add(Instrumentation.create(statistics).factory())
+                .build();
+        var type = jsonb.type(TestDataWithImmutableList.class);
+
+        var value = type.fromJson("{\"name\":\"a\",\"items\":[\"x\",\"y\",\"z\"]}");
+        type.fromJson("{\"name\":\"b\",\"items\":[]}");
+        type.toJson(value);
+
+        var decodes = statistics.decodes(STRING_LIST);
+        assertThat(decodes.count()).isEqualTo(2);
+        assertThat(decodes.elements()).isEqualTo(3);
+        assertThat(decodes.totalNanos()).isPositive();
+        assertThat(decodes.sizeHistogram()[0]).isEqualTo(1);
+        assertThat(decodes.sizeHistogram()[AdapterStatistics.Stats.bucket(3)]).isEqualTo(1);
+        assertThat(statistics.encodes(STRING_LIST).count()).isEqualTo(1);
+        assertThat(statistics.decodes()).containsOnlyKeys(STRING_LIST);
+    }
+
+    @Test
+    void disabledInstrumentationRecordsNothing() {
+        var statistics = new AdapterStatistics();
+        var instrumentation = Instrumentation.create(statistics);
+        var type = Jsonb.builder().add(instrumentation.factory()).build().type(TestDataWithImmutableList.class);
+
+        instrumentation.enabled(false);
+        var value = type.fromJson("{\"items\":[\"x\"]}");
+        assertThat(type.toJson(value)).isEqualTo("{\"items\":[\"x\"]}");
+        assertThat(statistics.decodes()).isEmpty();
+
+        instrumentation.enabled(true);
+        type.fromJson("{\"items\":[\"x\"]}");
+        assertThat(statistics.decodes(STRING_LIST).count()).isEqualTo(1);
+    }
+
+    @Test
+    void wrapsOtherFactories() {
+        var statistics = new AdapterStatistics();
+        var interning = StringInterning.weak();
+        var type = Jsonb.builder()
+                .add(Instrumentation.create(statistics).factory(interning.factory()))
+                .build()
+                .type(TestDataWithImmutableList.class);
+
+        var first = type.fromJson("{\"items\":[\"x\"]}");
+        var second = type.fromJson("{\"items\":[\"x\"]}");
+
+        assertThat(second.items().get(0)).isSameAs(first.items().get(0));
+        assertThat(statistics.decodes(STRING_LIST).count()).isEqualTo(2);
+    }
+
+    @Test
+    void emitsFlightRecorderEventsAboveThreshold(@TempDir Path dir) throws Exception {
+        var statistics = new AdapterStatistics();
+        var type = Jsonb.builder()
+                .add(Instrumentation.create(statistics, 100).factory())
+                .build()
+                .type(TestDataWithImmutableSet.class);
+        var large = IntStream.range(0, 500).boxed().collect(ImmutableSet.toImmutableSet());
+
+        Path file = dir.resolve("adapters.jfr");
+        try (var recording = new Recording()) {
+            recording.enable("com.bitfiddling.avaje.guava.AdapterCall").withoutThreshold();
+            recording.start();
+            type.toJson(new TestDataWithImmutableSet("small", ImmutableSet.of(1, 2)));
+            type.fromJson(type.toJson(new TestDataWithImmutableSet("large", large)));
+            recording.stop();
+            recording.dump(file);
+        }
+
+        var events = RecordingFile.readAllEvents(file);
+        assertThat(events)
+                .extracting((RecordedEvent event) -> event.getString("operation"))
+                .containsExactlyInAnyOrder("encode", "decode");
+        assertThat(events).allSatisfy(event -> {
+            assertThat(event.getInt("size")).isEqualTo(500);
+            assertThat(event.getString("type")).contains("ImmutableSet<java.lang.Integer>");
+        });
+    }
+}
@@ -0,0 +1,90 @@
+package com.bitfiddling.avaje.guava.testing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.bitfiddling.avaje.guava.LazyList;
+import com.bitfiddling.avaje.guava.testing.TestRecords.TestDataWithLazyList;
+import com.bitfiddling.avaje.guava.testing.TestRecords.TestPerson;
+import com.google.common.collect.ImmutableList;
+import io.avaje.json.JsonDataException;
+import io.avaje.jsonb.JsonType;
+import io.avaje.jsonb.Jsonb;
+import io.avaje.jsonb.Types;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the {@link LazyList} view, which decodes elements of a JSON array on first access.
+ */
+class LazyListTest {
+
+    private final Jsonb jsonb = Jsonb.builder().build();
+
+    @Test
+    void decodesOnlyTheElementsRead() {
+        var json = "{\"name\":\"team\",\"people\":[{\"name\":\"Ann\",\"age\":41},{\"name\":\"Bo\",\"age\":\"old\"}]}";
+
+        var team = jsonb.type(TestDataWithLazyList.class).fromJson(json);
+
+        assertThat(team.people()).hasSize(2);
+        assertThat(team.people().get(0)).isEqualTo(new TestPerson("Ann", 41));
+        assertThat(team.people().get(0)).isSameAs(team.people().get(0));
+        assertThatThrownBy(() -> team.people().get(1)).isInstanceOf(JsonDataException.class);
+        assertThat(jsonb.toJson(team)).isEqualTo(json);
+    }
+
+    @Test
+    void convertsToImmutableList() {
+        var people = IntStream.range(0, 5000)
+                .mapToObj(i -> new TestPerson("p\"" + i, i))
+                .collect(ImmutableList.toImmutableList());
+        var json = jsonb.toJson(people);
+        JsonType<LazyList<TestPerson>> type = jsonb.type(Types.newParameterizedType(LazyList.class, TestPerson.class));
+
+        var lazy = type.fromJson(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(lazy.get(4999)).isEqualTo(people.get(4999));
+        assertThat(lazy.toImmutableList()).isEqualTo(people).isSameAs(lazy.toImmutableList());
+        assertThat(lazy).isEqualTo(people);
+        assertThat(type.toJson(lazy)).isEqualTo(json);
+    }
+
+    @Test
+    void limitsEachElementReadFromAStream() {
+        JsonType<LazyList<List<Integer>>> lazyType =
+                jsonb.type(Types.newParameterizedType(LazyList.class, Types.listOf(Integer.class)));
+        JsonType<ImmutableList<List<Integer>>> eagerType =
+                jsonb.type(Types.newParameterizedType(ImmutableList.class, Types.listOf(Integer.class)));
+        var small = IntStream.range(0, 1000).boxed().toList();
+        var large = IntStream.range(0, 20_000).boxed().toList();
+        var smallJson = ("[" + jsonb.toJson(small) + "," + jsonb.toJson(small) + "]").getBytes(StandardCharsets.UTF_8);
+        var largeJson = ("[" + jsonb.toJson(large) + "," + jsonb.toJson(small) + "]").getBytes(StandardCharsets.UTF_8);
+
+        assertThat(lazyType.fromJson(new ByteArrayInputStream(smallJson))).containsExactly(small, small);
+        assertThat(lazyType.fromJson(largeJson)).containsExactly(large, small);
+        assertThat(eagerType.fromJson(new ByteArrayInputStream(largeJson))).containsExactly(large, small);
+        assertThatThrownBy(() -> lazyType.fromJson(new ByteArrayInputStream(largeJson)))
+                .isInstanceOf(JsonDataException.class)
+                .hasMessageContaining("buffer limit");
+    }
+
+    @Test
+    void roundTripsNonAsciiNullAndEmptyLists() {
+        JsonType<List<LazyList<String>>> type =
+                jsonb.type(Types.listOf(Types.newParameterizedType(LazyList.class, String.class)));
+        var json = "[[\"caf\u00e9\",null,\"a,b]\"],[],[\"x\"]]";
+
+        var lists = type.fromJson(json);
+
+        assertThat(lists.get(0)).containsExactly("caf\u00e9", null, "a,b]");
+        assertThat(lists.get(1)).isEmpty();
+        assertThat(type.toJson(lists)).isEqualTo(json);
+        assertThat(new ArrayList<>(lists.get(2))).containsExactly("x");
+        assertThatThrownBy(() -> lists.get(0).toImmutableList()).isInstanceOf(NullPointerException.class);
+    }
+}
@@ -0,0 +1,86 @@
+package com.bitfiddling.avaje.guava.testing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.bitfiddling.avaje.guava.HashConsing;
+import com.bitfiddling.avaje.guava.LazyResolution;
+import com.bitfiddling.avaje.guava.testing.TestRecords.TestDataWithMultimaps;
+import com.bitfiddling.avaje.guava.testing.TestRecords.TestDataWithTables;
+import com.bitfiddling.avaje.guava.testing.TestRecords.TestDataWithTypedKeys;
+import com.bitfiddling.avaje.guava.testing.TestRecords.TestPerson;
+import com.bitfiddling.avaje.guava.testing.TestRecords.TestTreeNode;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.avaje.jsonb.Jsonb;
+import io.avaje.jsonb.Types;
+import java.lang.reflect.Type;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the {@link LazyResolution} of element adapters.
+ */
+class LazyResolutionTest {
+
+    @Test
+    void resolvesElementAdaptersOnFirstUse() {
+        var resolutions = new AtomicInteger();
+        var jsonb = Jsonb.builder()
+                .add(LazyResolution.factory())
+                .add((Type type, Jsonb ignored) -> {
+                    if (type == TestPerson.class) {
+                        resolutions.incrementAndGet();
+                    }
+                    return null;
+                })
+                .build();
+
+        var type = jsonb.<ImmutableMap<String, ImmutableList<TestPerson>>>type(Types.newParameterizedType(
+                ImmutableMap.class, String.class, Types.newParameterizedType(ImmutableList.class, TestPerson.class)));
+        assertThat(resolutions).hasValue(0);
+
+        var value = type.fromJson("{\"team\":[{\"name\":\"Ann\",\"age\":41}]}");
+        assertThat(value.get("team")).containsExactly(new TestPerson("Ann", 41));
+        assertThat(resolutions).hasValue(1);
+
+        type.fromJson("{\"team\":[{\"name\":\"Bob\",\"age\":29}]}");
+        assertThat(type.toJson(value)).isEqualTo("{\"team\":[{\"name\":\"Ann\",\"age\":41}]}");
+        assertThat(resolutions).hasValue(1);
+    }
+
+    @Test
+    void matchesEagerResolution() {
+        var eager = Jsonb.builder().build();
+        var lazy = Jsonb.builder().add(LazyResolution.factory()).build();
+        String[] documents = {
+            "{\"byId\":{\"7\":\"seven\"},\"byUuid\":{\"00000000-0000-0000-0000-000000000001\":1},"
+                    + "\"byColor\":{\"RED\":\"r\"},\"bySku\":{\"A-1\":1.5},\"codes\":{\"1\":\"one\"}}",
+            "{\"scores\":{\"a\":[1,2]},\"tags\":{\"BLUE\":[\"x\"]},\"history\":{\"3\":[\"h\"]},\"aliases\":{\"b\":[\"c\"]}}",
+            "{\"prices\":{\"r\":{\"c\":1.0}},\"labels\":{\"r\":{\"1\":\"l\"}},\"counts\":{\"r\":{\"c\":2}},"
+                    + "\"grid\":{\"r\":{\"c\":3.0}}}",
+            "{\"name\":\"root\",\"children\":[{\"name\":\"leaf\",\"children\":[]}]}"
+        };
+        Class<?>[] types = {
+            TestDataWithTypedKeys.class, TestDataWithMultimaps.class, TestDataWithTables.class, TestTreeNode.class
+        };
+
+        for (int i = 0; i < types.length; i++) {
+            Object expected = eager.type(types[i]).fromJson(documents[i]);
+            Object actual = lazy.type(types[i]).fromJson(documents[i]);
+            assertThat(actual).isEqualTo(expected);
+            assertThat(lazy.toJson(actual)).isEqualTo(eager.toJson(expected));
+        }
+    }
+
+    @Test
+    void wrapsOtherFactories() {
+        var hashConsing = HashConsing.create(100);
+        var type = Jsonb.builder()
+                .add(LazyResolution.factory(hashConsing.factory()))
+                .build()
+                .<ImmutableList<String>>type(Types.newParameterizedType(ImmutableList.class, String.class));
+
+        assertThat(type.fromJson("[\"a\",\"b\"]")).isSameAs(type.fromJson("[\"a\",\"b\"]"));
+        assertThat(hashConsing.hitCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,101 @@
+package com.bitfiddling.avaje.guava.testing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.bitfiddling.avaje.guava.HashMultisetAdapter;
+import com.bitfiddling.avaje.guava.ImmutableMultisetAdapter;
+import com.bitfiddling.avaje.guava.ImmutableSortedMultisetAdapter;
+import com.bitfiddling.avaje.guava.LinkedHashMultisetAdapter;
+import com.bitfiddling.avaje.guava.MultisetFormat;
+import com.bitfiddling.avaje.guava.TreeMultisetAdapter;
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.ImmutableMultiset;
+import com.google.common.collect.ImmutableSortedMultiset;
+import com.google.common.collect.LinkedHashMultiset;
+import com.google.common.collect.TreeMultiset;
+import io.avaje.jsonb.JsonType;
+import io.avaje.jsonb.Jsonb;
+import io.avaje.jsonb.Types;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the {@link MultisetFormat#COUNTS} wire format of the Multiset adapters.
+ */
+class MultisetFormatTest {
+
+    private final Jsonb counts = Jsonb.builder()
+            .add(HashMultisetAdapter.factory(MultisetFormat.COUNTS))
+            .add(LinkedHashMultisetAdapter.factory(MultisetFormat.COUNTS))
+            .add(TreeMultisetAdapter.factory(MultisetFormat.COUNTS))
+            .add(ImmutableMultisetAdapter.factory(MultisetFormat.COUNTS))
+            .add(ImmutableSortedMultisetAdapter.factory(MultisetFormat.COUNTS))
+            .build();
+
+    private final Jsonb defaults = Jsonb.builder().build();
+
+    @Test
+    void stringElementsWrittenAsCountsObject() {
+        JsonType<LinkedHashMultiset<String>> type =
+                counts.type(Types.newParameterizedType(LinkedHashMultiset.class, String.class));
+        var original = LinkedHashMultiset.<String>create();
+        original.add("hot", 2_000_000);
+        original.add("cold");
+
+        var json = type.toJson(original);
+        assertThat(json).isEqualTo("{\"hot\":2000000,\"cold\":1}");
+
+        var restored = type.fromJson(json);
+        assertThat(restored).isEqualTo(original);
+        assertThat(restored.count("hot")).isEqualTo(2_000_000);
+    }
+
+    @Test
+    void otherElementsWrittenAsPairs() {
+        JsonType<ImmutableSortedMultiset<Integer>> type =
+                counts.type(Types.newParameterizedType(ImmutableSortedMultiset.class, Integer.class));
+        var original = ImmutableSortedMultiset.of(3, 1, 3, 3, 2);
+
+        var json = type.toJson(original);
+        assertThat(json).isEqualTo("[[1,1],[2,1],[3,3]]");
+
+        var restored = type.fromJson(json);
+        assertThat(restored).isEqualTo(original);
+    }
+
+    @Test
+    void countsAdapterReadsLegacyArrays() {
+        JsonType<TreeMultiset<Integer>> type =
+                counts.type(Types.newParameterizedType(TreeMultiset.class, Integer.class));
+
+        var restored = type.fromJson("[2,1,2]");
+        assertThat(restored).isEqualTo(TreeMultiset.create(List.of(1, 2, 2)));
+
+        JsonType<HashMultiset<String>> stringType =
+                counts.type(Types.newParameterizedType(HashMultiset.class, String.class));
+        assertThat(stringType.fromJson("[\"a\",\"b\",\"a\"]")).isEqualTo(HashMultiset.create(List.of("a", "a", "b")));
+    }
+
+    @Test
+    void defaultAdapterReadsCountsObject() {
+        JsonType<ImmutableMultiset<String>> type =
+                defaults.type(Types.newParameterizedType(ImmutableMultiset.class, String.class));
+
+        var restored = type.fromJson("{\"a\":3,\"b\":1}");
+        assertThat(restored.count("a")).isEqualTo(3);
+        assertThat(restored.count("b")).isEqualTo(1);
+        assertThat(type.toJson(restored)).isEqualTo("[\"a\",\"a\",\"a\",\"b\"]");
+    }
+
+    @Test
+    void recordFieldsUseConfiguredFormat() {
+        var original =
+                new TestRecords.TestDataWithHashMultiset("counts", HashMultiset.create(List.of("red", "blue", "red")));
+
+        var json = counts.toJson(original);
+        assertThat(json).contains("\"red\":2");
+
+        var restored = counts.type(TestRecords.TestDataWithHashMultiset.class).fromJson(json);
+        assertThat(restored).isEqualTo(original);
+    }
+}
@@ -0,0 +1,90 @@
+package com.bitfiddling.avaje.guava.testing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.bitfiddling.avaje.guava.ParallelReading;
+import com.bitfiddling.avaje.guava.testing.TestRecords.TestPerson;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import io.avaje.json.JsonDataException;
+import io.avaje.jsonb.Jsonb;
+import io.avaje.jsonb.Types;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that {@link ParallelReading} decodes the same collections as the sequential adapters.
+ */
+class ParallelReadingTest {
+
+    private static final int SIZE = 20_000;
+
+    private final Jsonb jsonb = Jsonb.builder().build();
+    private final ParallelReading parallel = ParallelReading.create(1);
+
+    @Test
+    void listMatchesSequentialDecode() {
+        var people = IntStream.range(0, SIZE)
+                .mapToObj(i -> new TestPerson("p" + i + (i % 7 == 0 ? ",\"]}[{\\" : ""), i % 90))
+                .collect(ImmutableList.toImmutableList());
+        var type = Types.newParameterizedType(ImmutableList.class, TestPerson.class);
+        byte[] json = jsonb.type(type).toJsonBytes(people);
+
+        ImmutableList<TestPerson> decoded = parallel.readList(jsonb, json, TestPerson.class);
+
+        assertThat(decoded).isEqualTo(jsonb.type(type).fromJson(json)).isEqualTo(people);
+    }
+
+    @Test
+    void setKeepsFirstOccurrenceOrder() {
+        var json = IntStream.range(0, 3 * SIZE)
+                .map(i -> (i * 7919) % SIZE)
+                .mapToObj(Integer::toString)
+                .collect(Collectors.joining(", ", " [ ", " ] "));
+
+        ImmutableSet<Integer> decoded = parallel.readSet(jsonb, json.getBytes(StandardCharsets.UTF_8), Integer.class);
+
+        var type = Types.newParameterizedType(ImmutableSet.class, Integer.class);
+        assertThat(decoded)
+                .containsExactlyElementsOf(
+                        jsonb.<ImmutableSet<Integer>>type(type).fromJson(json));
+        assertThat(decoded).hasSize(SIZE);
+    }
+
+    @Test
+    void bufferBetweenPositionAndLimit() {
+        var buffer = ByteBuffer.wrap("xx[1,2,3]yy".getBytes(StandardCharsets.UTF_8), 2, 7);
+        ImmutableList<Integer> decoded = parallel.readList(jsonb, buffer, Integer.class);
+
+        assertThat(decoded).containsExactly(1, 2, 3);
+        assertThat(buffer.position()).isEqualTo(2);
+        assertThat(parallel.<Integer>readList(jsonb, "[]".getBytes(StandardCharsets.UTF_8), Integer.class))
+                .isEmpty();
+    }
+
+    @Test
+    void invalidInput() {
+        assertThatThrownBy(() -> parallel.readList(jsonb, bytes("{\"a\":1}"), Integer.class))
+                .isInstanceOf(JsonDataException.class)
+                .hasMessageContaining("Expected a JSON array");
+        assertThatThrownBy(() -> parallel.readList(jsonb, bytes("[1,2] 3"), Integer.class))
+                .isInstanceOf(JsonDataException.class)
+                .hasMessageContaining("Unexpected content");
+        assertThatThrownBy(() -> parallel.readList(jsonb, bytes("[1,[2"), Integer.class))
+                .isInstanceOf(JsonDataException.class)
+                .hasMessageContaining("Unterminated");
+
+        var numbers = IntStream.range(0, SIZE).mapToObj(Integer::toString).toList();
+        var invalid = "[" + String.join(",", numbers) + ",\"x\"]";
+        assertThatThrownBy(() -> parallel.readList(jsonb, bytes(invalid), Integer.class))
+                .isInstanceOf(JsonDataException.class);
+    }
+
+    private static byte[] bytes(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,137 @@
+package com.bitfiddling.avaje.guava.testing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.bitfiddling.avaje.guava.HashConsing;
+import com.bitfiddling.avaje.guava.ParallelWriting;
+import com.bitfiddling.avaje.guava.StringInterning;
+import com.bitfiddling.avaje.guava.testing.TestRecords.TestDataWithImmutableList;
+import com.bitfiddling.avaje.guava.testing.TestRecords.TestDataWithImmutableMap;
+import com.bitfiddling.avaje.guava.testing.TestRecords.TestDataWithImmutableSet;
+import com.bitfiddling.avaje.guava.testing.TestRecords.TestPerson;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import io.avaje.jsonb.JsonType;
+import io.avaje.jsonb.Jsonb;
+import io.avaje.jsonb.Types;
+import java.lang.reflect.Type;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that {@link ParallelWriting} produces the same bytes as the sequential adapters.
+ */
+class ParallelWritingTest {
+
+    private static final int SIZE = 10_000;
+
+    private final Jsonb sequential = Jsonb.builder().build();
+    private final Jsonb parallel =
+            Jsonb.builder().add(ParallelWriting.create(100).factory()).build();
+
+    @Test
+    void listOfRecordsMatchesSequentialOutput() {
+        var people = IntStream.range(0, SIZE)
+                .mapToObj(i -> new TestPerson("person" + i, i % 90))
+                .collect(ImmutableList.toImmutableList());
+        Type type = Types.newParameterizedType(ImmutableList.class, TestPerson.class);
+
+        assertSameOutput(type, people);
+        JsonType<ImmutableList<TestPerson>> parallelType = parallel.type(type);
+        assertThat(parallelType.fromJson(parallelType.toJson(people))).isEqualTo(people);
+    }
+
+    @Test
+    void nonAsciiStringsMatchSequentialOutput() {
+        var words = IntStream.range(0, SIZE)
+                .mapToObj(
+                        i -> i % 3 == 0 ? "caf\u00e9 " + i : i % 3 == 1 ? "\ud83d\ude00\u2028 " + i : "q\"\\\u007f" + i)
+                .collect(ImmutableList.toImmutableList());
+
+        assertSameOutput(Types.newParameterizedType(ImmutableList.class, String.class), words);
+    }
+
+    @Test
+    void setsMapsAndNestedListsMatchSequentialOutput() {
+        var numbers = IntStream.range(0, SIZE).boxed().collect(ImmutableSet.toImmutableSet());
+        assertSameOutput(TestDataWithImmutableSet.class, new TestDataWithImmutableSet("n", numbers));
+
+        var properties =
+                IntStream.range(0, SIZE).boxed().collect(ImmutableMap.toImmutableMap(i -> "k" + i, i -> "\u00e9" + i));
+        assertSameOutput(TestDataWithImmutableMap.class, new TestDataWithImmutableMap("p", properties));
+
+        var nested = IntStream.range(0, SIZE)
+                .mapToObj(i -> ImmutableList.of(i, -i))
+                .collect(ImmutableList.toImmutableList());
+        assertSameOutput(
+                Types.newParameterizedType(
+                        ImmutableList.class, Types.newParameterizedType(ImmutableList.class, Integer.class)),
+                nested);
+    }
+
+    @Test
+    void virtualThreadExecutor() {
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var jsonb = Jsonb.builder()
+                    .add(ParallelWriting.create(100, executor).factory())
+                    .build();
+            var numbers = IntStream.range(0, SIZE).boxed().collect(ImmutableSet.toImmutableSet());
+            var value = new TestDataWithImmutableSet("v", numbers);
+
+            assertThat(jsonb.toJson(value)).isEqualTo(sequential.toJson(value));
+        }
+    }
+
+    @Test
+    void doesNotSplitCollectionsNestedInTheCallersRange() {
+        var tasks = new AtomicInteger();
+        Executor counting = task -> {
+            tasks.incrementAndGet();
+            task.run();
+        };
+        var jsonb = Jsonb.builder()
+                .add(ParallelWriting.create(100, counting).factory())
+                .build();
+        var large = IntStream.range(0, 4096).boxed().collect(ImmutableList.toImmutableList());
+        var nested = IntStream.range(0, 2048)
+                .mapToObj(i -> i == 0 ? large : ImmutableList.<Integer>of())
+                .collect(ImmutableList.toImmutableList());
+        Type type = Types.newParameterizedType(
+                ImmutableList.class, Types.newParameterizedType(ImmutableList.class, Integer.class));
+
+        assertThat(jsonb.type(type).toJson(nested))
+                .isEqualTo(sequential.type(type).toJson(nested));
+        assertThat(tasks).hasValue(1);
+    }
+
+    @Test
+    void combinesWithInterningAndHashConsing() {
+        var interning = StringInterning.weak();
+        var hashConsing = HashConsing.create(100);
+        var jsonb = Jsonb.builder()
+                .add(ParallelWriting.create(100).factory(hashConsing.factory(interning.factory())))
+                .build();
+        var type = jsonb.type(TestDataWithImmutableList.class);
+        var items = IntStream.range(0, SIZE).mapToObj(i -> "item" + i).collect(ImmutableList.toImmutableList());
+        var value = new TestDataWithImmutableList("a", items);
+
+        assertThat(type.toJson(value)).isEqualTo(sequential.toJson(value));
+        var first = type.fromJson("{\"items\":[\"x\",\"y\"]}");
+        var second = type.fromJson("{\"items\":[\"x\",\"y\"]}");
+        var third = type.fromJson("{\"items\":[\"y\"]}");
+        assertThat(second.items()).isSameAs(first.items());
+        assertThat(third.items().get(0)).isSameAs(first.items().get(1));
+        assertThat(hashConsing.hitCount()).isEqualTo(1);
+        assertThat(interning.hitCount()).isGreaterThan(0);
+    }
+
+    private void assertSameOutput(Type type, Object value) {
+        JsonType<Object> expected = sequential.type(type);
+        JsonType<Object> actual = parallel.type(type);
+        assertThat(actual.toJsonBytes(value)).isEqualTo(expected.toJsonBytes(value));
+    }
+}
@@ -0,0 +1,165 @@
+package com.bitfiddling.avaje.guava.testing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.bitfiddling.avaje.guava.ImmutableListAdapter;
+import com.bitfiddling.avaje.guava.ImmutableSetAdapter;
+import com.bitfiddling.avaje.guava.LazyResolution;
+import com.bitfiddling.avaje.guava.RecordFormat;
+import com.bitfiddling.avaje.guava.testing.TestRecords.TestDataWithImmutableList;
+import com.bitfiddling.avaje.guava.testing.TestRecords.TestPerson;
+import com.bitfiddling.avaje.guava.testing.TestRecords.TestPrice;
+import com.bitfiddling.avaje.guava.testing.TestRecords.TestSku;
+import com.bitfiddling.avaje.guava.testing.TestRecords.TestTreeNode;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import io.avaje.json.JsonAdapter;
+import io.avaje.json.JsonDataException;
+import io.avaje.json.JsonReader;
+import io.avaje.json.JsonWriter;
+import io.avaje.jsonb.JsonType;
+import io.avaje.jsonb.Jsonb;
+import io.avaje.jsonb.Types;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the row and column {@link RecordFormat}s of the ImmutableList and ImmutableSet adapters.
+ */
+class RecordFormatTest {
+
+    private final Jsonb columns = Jsonb.builder()
+            .add(ImmutableListAdapter.factory(RecordFormat.COLUMNS))
+            .add(ImmutableSetAdapter.factory(RecordFormat.COLUMNS))
+            .build();
+
+    private final Jsonb defaults = Jsonb.builder().build();
+
+    private static <T> JsonType<ImmutableList<T>> listType(Jsonb jsonb, Class<T> elementType) {
+        return jsonb.type(Types.newParameterizedType(ImmutableList.class, elementType));
+    }
+
+    @Test
+    void writesOneArrayPerComponent() {
+        var type = listType(columns, TestPerson.class);
+        var people = ImmutableList.of(new TestPerson("Ann", 41), new TestPerson(null, 29));
+
+        var json = type.toJson(people);
+
+        assertThat(json).isEqualTo("{\"cols\":[\"name\",\"age\"],\"data\":[[\"Ann\",null],[41,29]]}");
+        assertThat(type.fromJson(json)).isEqualTo(people);
+        assertThat(listType(defaults, TestPerson.class).fromJson(json)).isEqualTo(people);
+        assertThat(type.fromJson(listType(defaults, TestPerson.class).toJson(people)))
+                .isEqualTo(people);
+    }
+
+    @Test
+    void namesColumnsAfterTheJsonProperties() {
+        var type = listType(columns, TestPrice.class);
+        var prices = ImmutableList.of(new TestPrice("a", 2.5), new TestPrice("b", 4.0));
+
+        var json = type.toJson(prices);
+
+        assertThat(json).isEqualTo("{\"cols\":[\"id\",\"unit_price\"],\"data\":[[\"a\",\"b\"],[2.5,4.0]]}");
+        assertThat(type.fromJson(json)).isEqualTo(prices);
+    }
+
+    @Test
+    void writesValueRecordsAsArrays() {
+        var type = listType(columns, TestSku.class);
+        var skus = ImmutableList.of(new TestSku("x"), new TestSku("y"));
+
+        var json = type.toJson(skus);
+
+        assertThat(json).isEqualTo("[\"x\",\"y\"]");
+        assertThat(type.fromJson(json)).isEqualTo(skus);
+    }
+
+    @Test
+    void writesRecordsWithACustomAdapterAsArrays() {
+        JsonAdapter<TestPerson> custom = new JsonAdapter<>() {
+            @Override
+            public void toJson(JsonWriter writer, TestPerson value) {
+                writer.value(value.name() + ":" + value.age());
+            }
+
+            @Override
+            public TestPerson fromJson(JsonReader reader) {
+                var parts = reader.readString().split(":");
+                return new TestPerson(parts[0], Integer.parseInt(parts[1]));
+            }
+        };
+        var jsonb = Jsonb.builder()
+                .add(TestPerson.class, custom)
+                .add(ImmutableListAdapter.factory(RecordFormat.COLUMNS))
+                .build();
+        var type = listType(jsonb, TestPerson.class);
+        var people = ImmutableList.of(new TestPerson("Ann", 41), new TestPerson("Bo", 29));
+
+        var json = type.toJson(people);
+
+        assertThat(json).isEqualTo("[\"Ann:41\",\"Bo:29\"]");
+        assertThat(type.fromJson(json)).isEqualTo(people);
+    }
+
+    @Test
+    void writesColumnsWithLazyResolution() {
+        var jsonb = Jsonb.builder()
+                .add(LazyResolution.factory(ImmutableListAdapter.factory(RecordFormat.COLUMNS)))
+                .build();
+        var type = listType(jsonb, TestPerson.class);
+        var people = ImmutableList.of(new TestPerson("Ann", 41), new TestPerson("Bo", 29));
+
+        var json = type.toJson(people);
+
+        assertThat(json).isEqualTo("{\"cols\":[\"name\",\"age\"],\"data\":[[\"Ann\",\"Bo\"],[41,29]]}");
+        assertThat(type.fromJson(json)).isEqualTo(people);
+    }
+
+    @Test
+    void roundTripsNestedRecordsAndSets() {
+        var tree = ImmutableList.of(
+                new TestTreeNode("root", ImmutableList.of(new TestTreeNode("leaf", ImmutableList.of()))),
+                new TestTreeNode("other", ImmutableList.of()),
+                new TestTreeNode("\u00fcber", ImmutableList.of(new TestTreeNode("\u00e9t\u00e9", ImmutableList.of()))));
+        var treeType = listType(columns, TestTreeNode.class);
+        assertThat(treeType.fromJson(treeType.toJson(tree))).isEqualTo(tree);
+
+        JsonType<ImmutableSet<TestPerson>> setType =
+                columns.type(Types.newParameterizedType(ImmutableSet.class, TestPerson.class));
+        var people = IntStream.range(0, 1000)
+                .mapToObj(i -> new TestPerson("p" + i, i))
+                .collect(ImmutableSet.toImmutableSet());
+        assertThat(setType.fromJson(setType.toJson(people))).containsExactlyElementsOf(people);
+
+        var strings = columns.type(TestDataWithImmutableList.class);
+        assertThat(strings.toJson(new TestDataWithImmutableList("a", ImmutableList.of("x"))))
+                .isEqualTo("{\"name\":\"a\",\"items\":[\"x\"]}");
+    }
+
+    @Test
+    void toleratesReorderedUnknownAndMissingColumns() {
+        var type = listType(defaults, TestPerson.class);
+
+        assertThat(type.fromJson(
+                        "{\"cols\":[\"age\",\"email\",\"name\"],\"data\":[[1,2],[\"a\",\"b\"],[\"x\",\"y\"]]}"))
+                .containsExactly(new TestPerson("x", 1), new TestPerson("y", 2));
+        assertThat(type.fromJson("{\"cols\":[\"name\"],\"data\":[[\"x\"]]}")).containsExactly(new TestPerson("x", 0));
+    }
+
+    @Test
+    void rejectsMalformedColumns() {
+        var type = listType(defaults, TestPerson.class);
+
+        assertThatThrownBy(() -> type.fromJson("{\"cols\":[\"name\",\"age\"],\"data\":[[\"x\"],[1,2]]}"))
+                .isInstanceOf(JsonDataException.class)
+                .hasMessageContaining("Column of more than 1");
+        assertThatThrownBy(() -> type.fromJson("{\"cols\":[\"name\"],\"data\":[[\"x\"],[1]]}"))
+                .isInstanceOf(JsonDataException.class)
+                .hasMessageContaining("More data arrays");
+        assertThatThrownBy(() -> type.fromJson("{\"data\":[]}"))
+                .isInstanceOf(JsonDataException.class)
+                .hasMessageContaining("cols");
+    }
+}
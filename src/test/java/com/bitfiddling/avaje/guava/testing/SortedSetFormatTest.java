@@ -0,0 +1,132 @@
+package com.bitfiddling.avaje.guava.testing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.bitfiddling.avaje.guava.ImmutableSortedSetAdapter;
+import com.bitfiddling.avaje.guava.SortedSetFormat;
+import com.google.common.collect.ContiguousSet;
+import com.google.common.collect.DiscreteDomain;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.Ordering;
+import com.google.common.collect.Range;
+import io.avaje.json.JsonDataException;
+import io.avaje.jsonb.JsonType;
+import io.avaje.jsonb.Jsonb;
+import io.avaje.jsonb.Types;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the element and delta {@link SortedSetFormat}s of the ImmutableSortedSet adapter.
+ */
+class SortedSetFormatTest {
+
+    private final Jsonb deltas = Jsonb.builder()
+            .add(ImmutableSortedSetAdapter.factory(SortedSetFormat.DELTAS))
+            .build();
+
+    private final Jsonb defaults = Jsonb.builder().build();
+
+    private static <T> JsonType<ImmutableSortedSet<T>> type(Jsonb jsonb, Class<T> elementType) {
+        return jsonb.type(Types.newParameterizedType(ImmutableSortedSet.class, elementType));
+    }
+
+    @Test
+    void writesGapsAndRuns() {
+        var type = type(deltas, Long.class);
+        var ids = ImmutableSortedSet.of(1000L, 1001L, 1002L, 1003L, 1010L, 1011L, 1020L);
+
+        var json = type.toJson(ids);
+
+        assertThat(json).isEqualTo("{\"deltas\":[1000,-3,7,1,9]}");
+        assertThat(type.fromJson(json)).isEqualTo(ids);
+        assertThat(type(defaults, Long.class).fromJson(json)).isEqualTo(ids);
+        assertThat(type.fromJson("[1020,1000,1001]")).containsExactly(1000L, 1001L, 1020L);
+    }
+
+    @Test
+    void roundTripsIntegralTypes() {
+        assertThat(type(deltas, Integer.class)
+                        .fromJson(type(deltas, Integer.class).toJson(ImmutableSortedSet.of(-5, 0, 1, 2))))
+                .containsExactly(-5, 0, 1, 2);
+        assertThat(type(deltas, Short.class).toJson(ImmutableSortedSet.of((short) 7)))
+                .isEqualTo("{\"deltas\":[7]}");
+        assertThat(type(deltas, Byte.class).fromJson("{\"deltas\":[-128,-255]}"))
+                .hasSize(256)
+                .last()
+                .isEqualTo(Byte.MAX_VALUE);
+
+        var extremes = ImmutableSortedSet.of(Long.MIN_VALUE, 0L, Long.MAX_VALUE);
+        var json = type(deltas, Long.class).toJson(extremes);
+        assertThat(json).startsWith("[");
+        assertThat(type(deltas, Long.class).fromJson(json)).isEqualTo(extremes);
+
+        assertThat(type(deltas, String.class).toJson(ImmutableSortedSet.of("a", "b")))
+                .isEqualTo("[\"a\",\"b\"]");
+    }
+
+    @Test
+    void writesOtherOrdersAsElements() {
+        var descending = ImmutableSortedSet.orderedBy(
+                        Ordering.<Integer>natural().reverse())
+                .add(1, 2, 3)
+                .build();
+
+        assertThat(type(deltas, Integer.class).toJson(descending)).isEqualTo("[3,2,1]");
+    }
+
+    @Test
+    void shrinksNearlyConsecutiveIds() {
+        var random = new Random(42);
+        var builder = ImmutableSortedSet.<Long>naturalOrder();
+        long id = 9_000_000_000L;
+        for (int i = 0; i < 100_000; i++) {
+            id += random.nextInt(10) < 7 ? 1 : 1 + random.nextInt(20);
+            builder.add(id);
+        }
+        var ids = builder.build();
+
+        var compact = type(deltas, Long.class).toJson(ids);
+        var plain = type(defaults, Long.class).toJson(ids);
+
+        assertThat(plain.length()).isGreaterThan(3 * compact.length());
+        assertThat(type(deltas, Long.class).fromJson(compact)).isEqualTo(ids);
+        assertThat(type(deltas, Long.class)
+                        .fromJson(type(deltas, Long.class)
+                                .toJson(ContiguousSet.create(Range.closed(1L, 50_000L), DiscreteDomain.longs()))))
+                .hasSize(50_000);
+    }
+
+    @Test
+    void rejectsInvalidDeltas() {
+        var type = type(deltas, Integer.class);
+
+        assertThatThrownBy(() -> type.fromJson("{\"deltas\":[1,0]}"))
+                .isInstanceOf(JsonDataException.class)
+                .hasMessageContaining("Invalid delta");
+        assertThatThrownBy(() -> type.fromJson("{\"deltas\":[2147483646,-2]}"))
+                .isInstanceOf(JsonDataException.class)
+                .hasMessageContaining("out of range");
+        assertThatThrownBy(() -> type.fromJson("{\"values\":[1]}"))
+                .isInstanceOf(JsonDataException.class)
+                .hasMessageContaining("deltas");
+    }
+
+    @Test
+    void rejectsSetsBeyondTheMaximumSize() {
+        assertThatThrownBy(() -> type(deltas, Long.class).fromJson("{\"deltas\":[0,-2000000000]}"))
+                .isInstanceOf(JsonDataException.class)
+                .hasMessageContaining("more than " + ImmutableSortedSetAdapter.DEFAULT_MAXIMUM_DELTAS_SIZE);
+
+        var small = type(
+                Jsonb.builder()
+                        .add(ImmutableSortedSetAdapter.factory(SortedSetFormat.DELTAS, 4))
+                        .build(),
+                Integer.class);
+        assertThat(small.fromJson("{\"deltas\":[10,-2,5]}")).containsExactly(10, 11, 12, 17);
+        assertThatThrownBy(() -> small.fromJson("{\"deltas\":[10,-2,5,1]}"))
+                .isInstanceOf(JsonDataException.class)
+                .hasMessageContaining("more than 4");
+    }
+}
@@ -0,0 +1,77 @@
+package com.bitfiddling.avaje.guava.testing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.bitfiddling.avaje.guava.MultisetFormat;
+import com.bitfiddling.avaje.guava.StringInterning;
+import com.bitfiddling.avaje.guava.testing.TestRecords.TestDataWithImmutableList;
+import com.bitfiddling.avaje.guava.testing.TestRecords.TestDataWithImmutableMap;
+import com.bitfiddling.avaje.guava.testing.TestRecords.TestDataWithLinkedHashMultiset;
+import io.avaje.jsonb.Jsonb;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the opt-in {@link StringInterning} of decoded strings.
+ */
+class StringInterningTest {
+
+    @Test
+    void equalElementsShareOneInstanceAcrossDocuments() {
+        var interning = StringInterning.weak();
+        var jsonb = Jsonb.builder().add(interning.factory()).build();
+        var type = jsonb.type(TestDataWithImmutableList.class);
+
+        var first = type.fromJson("{\"name\":\"a\",\"items\":[\"red\",\"green\"]}");
+        var second = type.fromJson("{\"name\":\"b\",\"items\":[\"green\",\"red\"]}");
+
+        assertThat(second.items().get(0)).isSameAs(first.items().get(1));
+        assertThat(second.items().get(1)).isSameAs(first.items().get(0));
+        assertThat(interning.missCount()).isEqualTo(2);
+        assertThat(interning.hitCount()).isEqualTo(2);
+        assertThat(interning.hitRate()).isEqualTo(0.5);
+    }
+
+    @Test
+    void mapKeysAndValuesAreInterned() {
+        var interning = StringInterning.strong();
+        var jsonb = Jsonb.builder().add(interning.factory()).build();
+        var type = jsonb.type(TestDataWithImmutableMap.class);
+
+        var first = type.fromJson("{\"name\":\"a\",\"properties\":{\"env\":\"prod\"}}");
+        var second = type.fromJson("{\"name\":\"b\",\"properties\":{\"env\":\"prod\"}}");
+
+        var firstKey = first.properties().keySet().iterator().next();
+        var secondKey = second.properties().keySet().iterator().next();
+        assertThat(secondKey).isSameAs(firstKey);
+        assertThat(second.properties().get("env")).isSameAs(first.properties().get("env"));
+    }
+
+    @Test
+    void boundedInterningAndMultisetCounts() {
+        var interning = StringInterning.bounded(100);
+        var jsonb =
+                Jsonb.builder().add(interning.factory(MultisetFormat.COUNTS)).build();
+        var type = jsonb.type(TestDataWithLinkedHashMultiset.class);
+
+        var json = "{\"name\":\"m\",\"linkedMultiItems\":{\"hot\":3,\"cold\":1}}";
+        var first = type.fromJson(json);
+        var second = type.fromJson(json);
+
+        assertThat(type.toJson(first)).isEqualTo(json);
+        assertThat(second.linkedMultiItems().elementSet().iterator().next())
+                .isSameAs(first.linkedMultiItems().elementSet().iterator().next());
+        assertThat(interning.hitCount()).isEqualTo(2);
+    }
+
+    @Test
+    void defaultAdaptersDoNotIntern() {
+        var type = Jsonb.builder().build().type(TestDataWithImmutableList.class);
+
+        var first = type.fromJson("{\"name\":\"a\",\"items\":[\"red\"]}");
+        var second = type.fromJson("{\"name\":\"b\",\"items\":[\"red\"]}");
+
+        assertThat(second.items().get(0))
+                .isEqualTo(first.items().get(0))
+                .isNotSameAs(first.items().get(0));
+    }
+}
@@ -0,0 +1,149 @@
+package com.bitfiddling.avaje.guava.testing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.bitfiddling.avaje.guava.ArrayTableAdapter;
+import com.bitfiddling.avaje.guava.HashBasedTableAdapter;
+import com.bitfiddling.avaje.guava.ImmutableTableAdapter;
+import com.bitfiddling.avaje.guava.TableFormat;
+import com.bitfiddling.avaje.guava.TreeBasedTableAdapter;
+import com.bitfiddling.avaje.guava.testing.TestRecords.TestDataWithTables;
+import com.google.common.collect.ArrayTable;
+import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.ImmutableTable;
+import com.google.common.collect.TreeBasedTable;
+import io.avaje.json.JsonDataException;
+import io.avaje.jsonb.JsonType;
+import io.avaje.jsonb.Jsonb;
+import io.avaje.jsonb.Types;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the row-major and columnar {@link TableFormat}s of the Table adapters.
+ */
+class TableFormatTest {
+
+    private final Jsonb columnar = Jsonb.builder()
+            .add(ImmutableTableAdapter.factory(TableFormat.COLUMNAR))
+            .add(HashBasedTableAdapter.factory(TableFormat.COLUMNAR))
+            .add(TreeBasedTableAdapter.factory(TableFormat.COLUMNAR))
+            .add(ArrayTableAdapter.factory(TableFormat.COLUMNAR))
+            .build();
+
+    private final Jsonb defaults = Jsonb.builder().build();
+
+    private static TestDataWithTables tables() {
+        var labels = HashBasedTable.<String, Integer, String>create();
+        labels.put("a", 1, "one");
+        labels.put("b", 2, "two");
+        var counts = TreeBasedTable.<String, String, Integer>create();
+        counts.put("y", "q", 2);
+        counts.put("x", "p", 1);
+        var grid = ArrayTable.<String, String, Double>create(List.of("r1", "r2"), List.of("c1", "c2"));
+        grid.put("r1", "c1", 1.5);
+        grid.put("r2", "c2", 2.5);
+        return new TestDataWithTables(
+                ImmutableTable.<String, String, Double>builder()
+                        .put("gold", "usd", 2400.0)
+                        .put("gold", "eur", 2200.0)
+                        .put("silver", "usd", 30.0)
+                        .build(),
+                labels,
+                counts,
+                grid);
+    }
+
+    @Test
+    void rowMajorRoundTrip() {
+        var original = tables();
+
+        var json = defaults.toJson(original);
+        assertThat(json).contains("\"prices\":{\"gold\":{\"usd\":2400.0,\"eur\":2200.0},\"silver\":{\"usd\":30.0}}");
+        assertThat(json).contains("\"grid\":{\"r1\":{\"c1\":1.5,\"c2\":null},\"r2\":{\"c1\":null,\"c2\":2.5}}");
+
+        var restored = defaults.type(TestDataWithTables.class).fromJson(json);
+        assertThat(restored).isEqualTo(original);
+        assertThat(restored.prices()).isInstanceOf(ImmutableTable.class);
+        assertThat(restored.labels()).isInstanceOf(HashBasedTable.class);
+        assertThat(restored.counts()).isInstanceOf(TreeBasedTable.class);
+        assertThat(restored.grid()).isInstanceOf(ArrayTable.class);
+    }
+
+    @Test
+    void columnarRoundTrip() {
+        var original = tables();
+
+        var json = columnar.toJson(original);
+        assertThat(json)
+                .contains("\"prices\":{\"rows\":[\"gold\",\"silver\"],\"columns\":[\"usd\",\"eur\"],"
+                        + "\"values\":[2400.0,2200.0,30.0,null]}");
+        assertThat(json).contains("\"labels\":{\"rows\":[\"a\",\"b\"],\"columns\":[1,2],");
+
+        var restored = columnar.type(TestDataWithTables.class).fromJson(json);
+        assertThat(restored).isEqualTo(original);
+        assertThat(restored.grid().rowKeyList()).containsExactly("r1", "r2");
+    }
+
+    @Test
+    void eitherFormatIsReadByAnyAdapter() {
+        var original = tables();
+
+        assertThat(defaults.type(TestDataWithTables.class).fromJson(columnar.toJson(original)))
+                .isEqualTo(original);
+        assertThat(columnar.type(TestDataWithTables.class).fromJson(defaults.toJson(original)))
+                .isEqualTo(original);
+    }
+
+    @Test
+    void emptyTables() {
+        var original = new TestDataWithTables(
+                ImmutableTable.of(),
+                HashBasedTable.create(),
+                TreeBasedTable.create(),
+                ArrayTable.create(List.<String>of(), List.<String>of()));
+
+        var json = columnar.toJson(original);
+        assertThat(json).isEqualTo("{\"prices\":{},\"labels\":{},\"counts\":{},\"grid\":{}}");
+        assertThat(columnar.type(TestDataWithTables.class).fromJson(json)).isEqualTo(original);
+    }
+
+    @Test
+    void rowKeyNamedRowsIsReadAsRowMajor() {
+        JsonType<ImmutableTable<String, String, Integer>> type = defaults.type(
+                Types.newParameterizedType(ImmutableTable.class, String.class, String.class, Integer.class));
+
+        var restored = type.fromJson("{\"rows\":{\"a\":1}}");
+        assertThat(restored).isEqualTo(ImmutableTable.of("rows", "a", 1));
+    }
+
+    @Test
+    void tallTableAfterWideRow() {
+        JsonType<HashBasedTable<Integer, Integer, Integer>> type = defaults.type(
+                Types.newParameterizedType(HashBasedTable.class, Integer.class, Integer.class, Integer.class));
+        String wide = IntStream.range(0, 200_000)
+                .mapToObj(i -> "\"" + i + "\":" + i)
+                .collect(Collectors.joining(",", "{\"0\":{", "}}"));
+        String tall = IntStream.range(0, 20_000)
+                .mapToObj(i -> "\"" + i + "\":{\"" + i + "\":" + i + "}")
+                .collect(Collectors.joining(",", "{", "}"));
+
+        assertThat(type.fromJson(wide).row(0)).hasSize(200_000);
+        var restored = type.fromJson(tall);
+        assertThat(restored.size()).isEqualTo(20_000);
+        assertThat(restored.get(19_999, 19_999)).isEqualTo(19_999);
+    }
+
+    @Test
+    void columnarValueCountMustMatchKeys() {
+        JsonType<ImmutableTable<String, String, Integer>> type = defaults.type(
+                Types.newParameterizedType(ImmutableTable.class, String.class, String.class, Integer.class));
+
+        assertThatThrownBy(() -> type.fromJson("{\"rows\":[\"a\"],\"columns\":[\"x\",\"y\"],\"values\":[1]}"))
+                .isInstanceOf(JsonDataException.class)
+                .hasMessageContaining("expected 2");
+    }
+}
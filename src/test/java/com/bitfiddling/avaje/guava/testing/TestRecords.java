@@ -1,16 +1,35 @@
 package com.bitfiddling.avaje.guava.testing;
 
+import com.bitfiddling.avaje.guava.LazyList;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ArrayTable;
+import com.google.common.collect.ConcurrentHashMultiset;
+import com.google.common.collect.EnumBiMap;
+import com.google.common.collect.EnumMultiset;
+import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.HashMultimap;
 import com.google.common.collect.HashMultiset;
 import com.google.common.collect.ImmutableBiMap;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMultiset;
+import com.google.common.collect.ImmutableRangeMap;
+import com.google.common.collect.ImmutableRangeSet;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.collect.ImmutableSortedMultiset;
 import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.ImmutableTable;
 import com.google.common.collect.LinkedHashMultiset;
+import com.google.common.collect.Range;
+import com.google.common.collect.TreeBasedTable;
 import com.google.common.collect.TreeMultiset;
+import com.google.common.collect.TreeRangeSet;
+import com.google.common.util.concurrent.AtomicLongMap;
 import io.avaje.jsonb.Json;
+import java.util.UUID;
 
 /**
  * Test record classes for verifying Guava collection adapters.
@@ -34,6 +53,9 @@ public class TestRecords {
     @Json
     public record TestDataWithImmutableSortedSet(String name, ImmutableSortedSet<String> sortedItems) {}
 
+    @Json
+    public record TestDataWithImmutableSortedMap(String name, ImmutableSortedMap<Integer, String> sortedMapping) {}
+
     @Json
     public record TestDataWithImmutableBiMap(String name, ImmutableBiMap<String, Integer> biMapping) {}
 
@@ -51,4 +73,92 @@ public class TestRecords {
 
     @Json
     public record TestDataWithTreeMultiset(String name, TreeMultiset<String> treeMultiItems) {}
+
+    public enum TestColor {
+        RED,
+        GREEN,
+        BLUE
+    }
+
+    public enum TestSize {
+        SMALL("s"),
+        LARGE("l");
+
+        private final String code;
+
+        TestSize(String code) {
+            this.code = code;
+        }
+
+        @Json.Value
+        public String code() {
+            return code;
+        }
+    }
+
+    public record TestSku(String code) {
+        @Json.Value
+        public String code() {
+            return code;
+        }
+    }
+
+    public record TestShelf(int number) {
+        @Json.Value
+        public int number() {
+            return number;
+        }
+    }
+
+    @Json
+    public record TestDataWithShelves(ImmutableMap<TestShelf, String> byShelf) {}
+
+    @Json
+    public record TestDataWithTypedKeys(
+            ImmutableMap<Long, String> byId,
+            ImmutableMap<UUID, Integer> byUuid,
+            ImmutableMap<TestColor, String> byColor,
+            ImmutableMap<TestSku, Double> bySku,
+            ImmutableBiMap<Integer, String> codes) {}
+
+    @Json
+    public record TestDataWithMultimaps(
+            ImmutableListMultimap<String, Integer> scores,
+            ImmutableSetMultimap<TestColor, String> tags,
+            ArrayListMultimap<Long, String> history,
+            HashMultimap<String, String> aliases) {}
+
+    @Json
+    public record TestDataWithTables(
+            ImmutableTable<String, String, Double> prices,
+            HashBasedTable<String, Integer, String> labels,
+            TreeBasedTable<String, String, Integer> counts,
+            ArrayTable<String, String, Double> grid) {}
+
+    @Json
+    public record TestDataWithRanges(
+            Range<Integer> window,
+            ImmutableRangeSet<Integer> allocated,
+            TreeRangeSet<Long> free,
+            ImmutableRangeMap<Integer, String> owners) {}
+
+    @Json
+    public record TestDataWithEnums(
+            ImmutableSet<TestColor> colors,
+            ImmutableMap<TestColor, Integer> counts,
+            EnumMultiset<TestColor> votes,
+            EnumBiMap<TestColor, TestSize> sizes,
+            ImmutableSet<TestSize> available) {}
+
+    @Json
+    public record TestDataWithCounters(ConcurrentHashMultiset<String> hits, AtomicLongMap<TestColor> totals) {}
+
+    @Json
+    public record TestDataWithLazyList(String name, LazyList<TestPerson> people) {}
+
+    @Json
+    public record TestPrice(String id, @Json.Property("unit_price") double unitPrice) {}
+
+    @Json
+    public record TestTreeNode(String name, ImmutableList<TestTreeNode> children) {}
 }